@@ -1,8 +1,25 @@
+import javax.management.JMException;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.InputMismatchException;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * File: A1.java
@@ -16,17 +33,265 @@ import java.util.List;
  */
 public class A1 {
 
+    private final static String DEFAULT_ALGORITHMS = "FCFS,RR,NRR,FB";
+
     /**
      * Runs the assignment one program. This will read the input config from the file specified in the args.
      *
-     * @param args args[0] = file name
+     * Options start with "--" and can appear anywhere in the args
+     *   --stream        read the jobs lazily while the simulation runs rather than all up front, the jobs must be in order of arrival time
+     *   --algorithms=[names]  comma separated algorithms to run, defaults to FCFS,RR,NRR,FB. SPN, SRT, HRRN, LOTTERY, STRIDE,
+     *                   CFS, EDF and RM are also available on a single core
+     *   --event-queue=[queue]  the event queue behind each simulation, task (default) holds a {@link Task} object for each event and packed
+     *                   holds each event in a primitive heap without allocating, see {@link PackedEventQueue}
+     *   --summary       only output the summary, processes are released once they finish rather than kept for the process table
+     *   --trace=[mode]  how each dispatch is output, text (default) prints each dispatch, count only prints the number of dispatches and
+     *                   none prints nothing
+     *   --log=[directory]  also write a binary dispatch log for each algorithm to the directory, which can be read with {@link DispatchLog}
+     *   --export=[directory]  also write the results of every process for each algorithm and a summary of every algorithm to the directory,
+     *                   see {@link #exportSummary(Path, List)} and {@link Dispatcher#setResults(ResultWriter)}
+     *     --export-format=[format]  csv (default) or jsonl, see {@link ResultWriter.Format}
+     *   --checkpoints=[directory], --checkpoint-every=[time], --resume, --fork=[file]
+     *                   save and carry on from checkpoints of each algorithm, see {@link CheckpointPlan#parse(Map)}
+     *   --metrics[=ms]  print a snapshot of the metrics of each algorithm to stderr every ms milliseconds (1000 by default) while they run
+     *   --utilization   also output the CPU utilization and throughput of each algorithm in the summary
+     *   --percentiles   also output the p50, p90, p99 and p99.9 of the response times, waits, preemptions and turnaround times of each algorithm
+     *   --jmx           register the metrics of each algorithm as an MBean while they run, see {@link DispatcherMetrics#register()}
+     *
+     *   --generate=[jobs]     generate the jobs rather than reading a file, the file name is then left out of the args. The jobs are configured by
+     *     --arrivals=[process]   see {@link ArrivalProcess#parse(String)}, defaults to poisson(0.06)
+     *     --service=[dist]       see {@link ServiceDistribution#parse(String)}, defaults to exponential(10)
+     *     --seed=[seed]          defaults to 0
+     *     --disp=[time]          the context switch time, defaults to 1
+     *     --io-bursts=[count]    the number of I/O bursts each job blocks for, defaults to 0
+     *     --io=[dist]            the length of each I/O burst, see {@link ServiceDistribution#parse(String)}, defaults to exponential(10)
+     *
+     *   --tasks         the file is a set of periodic tasks rather than jobs, see {@link PeriodicSimulationConfig}
+     *   --generate-tasks=[tasks]  generate a set of periodic tasks rather than reading a file, see {@link PeriodicTask#generate}. The tasks are
+     *                   configured by --seed as above and
+     *     --disp=[time]          the context switch time, defaults to 0 as every release is switched in and the load does not include it
+     *     --load=[utilization]   the total utilization of the tasks, defaults to 0.7
+     *     --periods=[min,max]    the range of the periods, defaults to 10,1000
+     *   --horizon=[time]  periodic tasks only release jobs before this time, see {@link PeriodicSimulationConfig#getDefaultHorizon}
+     *   --task-stats    also output the deadline misses and response times of every periodic task for each algorithm
+     *
+     * The file can either be in the text format or a binary trace created by {@link TraceConverter}, binary traces are detected automatically.
+     *
+     * @param args args[0] = file name, args[1] = number of cores (optional, defaults to 1)
      */
     public static void main(String[] args) {
-        SimulationConfig config = getConfig(args);
+        List<String> arguments = new ArrayList<>();
+        Map<String,String> options = parseOptions(args, arguments);
+
+        SimulationConfig config = getConfig(arguments, options);
         if(config==null)
             return;
 
-        runSimulation(config);
+        //generated jobs do not have a file name, so the number of cores comes first
+        int coresArgument = options.containsKey("generate") || options.containsKey("generate-tasks") ? 0 : 1;
+        int cores = 1;
+        if(arguments.size()>coresArgument) {
+            try {
+                cores = Integer.parseInt(arguments.get(coresArgument));
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid number of cores '"+arguments.get(coresArgument)+"'");
+                return;
+            }
+        }
+
+        String traceMode = options.getOrDefault("trace", "text");
+        if(!traceMode.equals("text") && !traceMode.equals("count") && !traceMode.equals("none")) {
+            System.err.println("Unknown trace mode '"+traceMode+"'");
+            return;
+        }
+
+        Path logDirectory = null;
+        if(options.containsKey("log")) {
+            logDirectory = Paths.get(options.get("log"));
+            try {
+                Files.createDirectories(logDirectory);
+            } catch (IOException e) {
+                System.err.println("Could not create log directory '"+logDirectory+"': "+e.getMessage());
+                return;
+            }
+        }
+
+        Path exportDirectory = null;
+        ResultWriter.Format exportFormat = ResultWriter.Format.CSV;
+        if(options.containsKey("export")) {
+            exportDirectory = Paths.get(options.get("export"));
+            try {
+                Files.createDirectories(exportDirectory);
+            } catch (IOException e) {
+                System.err.println("Could not create export directory '"+exportDirectory+"': "+e.getMessage());
+                return;
+            }
+        }
+
+        List<Dispatcher> dispatchers;
+        CheckpointPlan checkpoints;
+        try {
+            if(options.containsKey("export-format"))
+                exportFormat = ResultWriter.Format.parse(options.get("export-format"));
+            checkpoints = CheckpointPlan.parse(options);
+            List<String> algorithms = Arrays.asList(options.getOrDefault("algorithms", DEFAULT_ALGORITHMS).split(","));
+            dispatchers = createDispatchers(config.getContextSwitchTime(), cores, algorithms);
+            setEventQueues(dispatchers, options.getOrDefault("event-queue", "task"));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
+
+        long metricsPeriod = 0;
+        if(options.containsKey("metrics")) {
+            String period = options.get("metrics");
+            try {
+                metricsPeriod = period.isEmpty() ? 1000 : Long.parseLong(period);
+            } catch (NumberFormatException e) {
+                metricsPeriod = -1;
+            }
+            if(metricsPeriod<1) {
+                System.err.println("Invalid metrics period '"+period+"'");
+                return;
+            }
+        }
+
+        List<DispatcherMetrics> metrics = new ArrayList<>();
+        for(Dispatcher dispatcher : dispatchers) {
+            metrics.add(dispatcher.getMetrics());
+        }
+        if(options.containsKey("jmx"))
+            registerMetrics(metrics);
+        MetricsReporter reporter = metricsPeriod>0 ? new MetricsReporter(metrics, metricsPeriod, System.err::println) : null;
+        try {
+            runSimulation(config, dispatchers, traceMode, options.containsKey("summary"), options.containsKey("utilization"), options.containsKey("percentiles"),
+                    options.containsKey("task-stats"), logDirectory, exportDirectory, exportFormat, checkpoints);
+        } finally {
+            if(reporter!=null)
+                reporter.close();
+            if(options.containsKey("jmx"))
+                unregisterMetrics(metrics);
+        }
+    }
+
+    private static void registerMetrics(List<DispatcherMetrics> metrics) {
+        for(DispatcherMetrics metric : metrics) {
+            try {
+                metric.register();
+            } catch (JMException e) {
+                System.err.println("Could not register the metrics of "+metric.getName()+": "+e.getMessage());
+            }
+        }
+    }
+
+    private static void unregisterMetrics(List<DispatcherMetrics> metrics) {
+        for(DispatcherMetrics metric : metrics) {
+            try {
+                metric.unregister();
+            } catch (JMException e) {
+                System.err.println("Could not unregister the metrics of "+metric.getName()+": "+e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Separates the options from the other args. Options start with "--" and may have a value, --name=value
+     *
+     * @param args The args given to the program
+     * @param arguments The args which are not options are added to this list, in order
+     * @return The value of each option, an option without a value maps to an empty string
+     */
+    static Map<String,String> parseOptions(String[] args, List<String> arguments) {
+        Map<String,String> options = new HashMap<>();
+        for(String arg : args) {
+            if(arg.startsWith("--")) {
+                int split = arg.indexOf('=');
+                if(split<0) {
+                    options.put(arg.substring(2), "");
+                } else {
+                    options.put(arg.substring(2, split), arg.substring(split+1));
+                }
+            } else {
+                arguments.add(arg);
+            }
+        }
+        return options;
+    }
+
+    /**
+     * Sets up all of the algorithms. With a single core these are the standard {@link SingleCoreDispatcher}s, otherwise each algorithm is run
+     * with both a shared ready queue and per core ready queues with work stealing.
+     *
+     * @param contextSwitchTime The time taken to switch processes
+     * @param cores The number of cores
+     * @param algorithms The names of the algorithms to run. FCFS, RR, NRR and FB can be run on any number of cores, SPN, SRT, HRRN, LOTTERY,
+     *                   STRIDE, CFS, EDF and RM only on a single core
+     * @return The dispatchers to run, in the order they should be output
+     * @throws IllegalArgumentException if an algorithm is unknown or cannot be run on the number of cores
+     */
+    static List<Dispatcher> createDispatchers(int contextSwitchTime, int cores, List<String> algorithms) {
+        List<Dispatcher> dispatchers = new ArrayList<>();
+        if(cores==1) {
+            for(String algorithm : algorithms) {
+                dispatchers.add(createDispatcher(algorithm, contextSwitchTime));
+            }
+            return dispatchers;
+        }
+
+        for(String algorithm : algorithms) {
+            dispatchers.add(new GlobalQueueDispatcher(algorithm+" (global)", contextSwitchTime, cores, createReadyQueue(algorithm)));
+        }
+        for(String algorithm : algorithms) {
+            dispatchers.add(new WorkStealingDispatcher(algorithm+" (stealing)", contextSwitchTime, cores, () -> createReadyQueue(algorithm)));
+        }
+        return dispatchers;
+    }
+
+    /**
+     * @param dispatchers The algorithms to run
+     * @param eventQueue The name of the event queue each algorithm is run on, either task or packed
+     * @throws IllegalArgumentException if the event queue is not known
+     */
+    static void setEventQueues(List<Dispatcher> dispatchers, String eventQueue) {
+        switch (eventQueue) {
+            case "task":
+                //every dispatcher starts with a task event queue
+                return;
+            case "packed":
+                for(Dispatcher dispatcher : dispatchers) {
+                    dispatcher.setEventQueue(new PackedEventQueue(dispatcher));
+                }
+                return;
+            default: throw new IllegalArgumentException("Unknown event queue '"+eventQueue+"'");
+        }
+    }
+
+    private static Dispatcher createDispatcher(String algorithm, int contextSwitchTime) {
+        switch (algorithm) {
+            case "FCFS": return new FCFSDispatcher(contextSwitchTime);
+            case "RR": return new RRDispatcher(contextSwitchTime);
+            case "NRR": return new NRRDispatcher(contextSwitchTime);
+            case "FB": return new FeedbackDispatcher(contextSwitchTime);
+            case "SPN": return new SPNDispatcher(contextSwitchTime);
+            case "SRT": return new SRTDispatcher(contextSwitchTime);
+            case "HRRN": return new HRRNDispatcher(contextSwitchTime);
+            case "LOTTERY": return new LotteryDispatcher(contextSwitchTime);
+            case "STRIDE": return new StrideDispatcher(contextSwitchTime);
+            case "CFS": return new CFSDispatcher(contextSwitchTime);
+            case "EDF": return new EDFDispatcher(contextSwitchTime);
+            case "RM": return new RateMonotonicDispatcher(contextSwitchTime);
+            default: throw new IllegalArgumentException("Unknown algorithm '"+algorithm+"'");
+        }
+    }
+
+    private static ReadyQueue createReadyQueue(String algorithm) {
+        switch (algorithm) {
+            case "FCFS": return RRReadyQueue.fcfs();
+            case "RR": return RRReadyQueue.rr();
+            case "NRR": return RRReadyQueue.nrr();
+            case "FB": return new FeedbackReadyQueue();
+            default: throw new IllegalArgumentException("Algorithm '"+algorithm+"' cannot be run on more than one core");
+        }
     }
 
     /**
@@ -44,68 +309,364 @@ public class A1 {
      * ........... for each algorithm
      *
      * Summary:
-     * Algorithm       Average Turnaround Time   Average Waiting Time
-     * FCFS            10.00                     6.20
+     * Algorithm           Average Turnaround Time       Average Waiting Time
+     * FCFS                10.00                         6.20
      * ..... for each algorithm
      *
+     * With more than one core each algorithm also outputs the context switches and busy time of each core after the process table.
+     *
+     * The summary can be followed by percentiles of the latencies of each algorithm, see {@link #printPercentiles(List)}.
+     *
+     * If the jobs are released by periodic tasks the summary is followed by the deadlines missed by each algorithm, and optionally by
+     * the deadlines missed and response times of every task.
+     *
      * @param config The simulation input to be used to run the simulation. This should include the jobs run, and the context
      *               switch time for the dispatchers
+     * @param dispatchers The algorithms to run
+     * @param traceMode How each dispatch is output, either text, count or none
+     * @param summaryOnly Whether to only output the summary
+     * @param utilization Whether the summary also has the CPU utilization and throughput of each algorithm
+     * @param percentiles Whether to output the percentiles of the latencies of each algorithm after the summary
+     * @param taskStats Whether to output the deadlines and response times of every periodic task after the summary
+     * @param logDirectory The directory to write a binary dispatch log for each algorithm to, or null to not write logs
+     * @param exportDirectory The directory to write the results of each algorithm to, or null to not export results
+     * @param exportFormat The format to export results in
+     * @param checkpoints How each algorithm is started and saved
      */
-    private static void runSimulation(SimulationConfig config) {
-        String tableFormat = "%-11s%-20s%-20s%n";
-        //set up all of the algorithms
-        List<Dispatcher> dispatchers = new ArrayList<>();
-        dispatchers.add(new FCFSDispatcher(config.getContextSwitchTime()));
-        dispatchers.add(new RRDispatcher(config.getContextSwitchTime()));
-        dispatchers.add(new NRRDispatcher(config.getContextSwitchTime()));
-        dispatchers.add(new FeedbackDispatcher(config.getContextSwitchTime()));
-
-        //loop through each algorithm
+    private static void runSimulation(SimulationConfig config, List<Dispatcher> dispatchers, String traceMode, boolean summaryOnly, boolean utilization,
+                                      boolean percentiles, boolean taskStats, Path logDirectory, Path exportDirectory, ResultWriter.Format exportFormat,
+                                      CheckpointPlan checkpoints) {
+        //each algorithm owns all of its state so they can all be run at the same time, the output of each is
+        //collected separately and then printed in order
+        List<Callable<String>> simulations = new ArrayList<>();
         for(Dispatcher dispatcher : dispatchers) {
-            System.out.println(dispatcher.getName()+":");
-            //add all of the jobs specified in the input to the dispatcher
-            for(Job job : config.getJobs()) {
-                dispatcher.addJob(job);
-            }
-
-            dispatcher.run();
+            simulations.add(() -> runDispatcher(dispatcher, config, traceMode, summaryOnly, logDirectory, exportDirectory, exportFormat, checkpoints));
+        }
 
-            System.out.println();
-            System.out.format(tableFormat, "Process","Turnaround Time","Waiting Time");
-            //after the dispatcher is run show stats about each process
-            for(Process process : dispatcher.getProcesses()) {
-                System.out.format(tableFormat, process.getDisplayID(),process.getTurnaroundTime(),process.getWaitTime());
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(dispatchers.size(), Runtime.getRuntime().availableProcessors()));
+        try {
+            for(Future<String> output : executor.invokeAll(simulations)) {
+                System.out.print(output.get());
             }
-            System.out.println();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            //bad input which is only found as the jobs are read, such as a streamed file out of order, or a log or checkpoint that cannot be written
+            Throwable cause = e.getCause();
+            if(cause instanceof UncheckedIOException)
+                cause = cause.getCause();
+            if(cause instanceof IllegalStateException || cause instanceof IOException) {
+                System.err.println("Simulation failed: "+cause.getMessage());
+                return;
+            }
+            throw new RuntimeException("Simulation failed", e.getCause());
+        } finally {
+            executor.shutdown();
         }
+
         //output summary
         System.out.println("Summary");
-        tableFormat = "%-15s%-30s%-30s%n";
+        String tableFormat = "%-20s%-30s%-30s";
         System.out.printf(tableFormat,"Algorithm","Average Turnaround Time", "Average Waiting Time");
+        if(utilization)
+            System.out.printf("%-20s%-20s", "CPU Utilization", "Throughput");
+        System.out.println();
         for(Dispatcher dispatcher : dispatchers) {
-            //generate average stats about each process in the dispatcher
-            double averageTurnaroundTime = 0;
-            double averageWaitingTime = 0;
-            Collection<Process> processes = dispatcher.getProcesses();
-            for(Process process : processes) {
-                averageTurnaroundTime += process.getTurnaroundTime();
-                averageWaitingTime += process.getWaitTime();
-            }
-            averageTurnaroundTime /= processes.size();
-            averageWaitingTime /= processes.size();
+            //the averages are kept by the dispatcher as each process finishes
+            double averageTurnaroundTime = dispatcher.getTurnaroundTimes().getMean();
+            double averageWaitingTime = dispatcher.getWaitingTimes().getMean();
 
             //output these stats nicely in a table
-            System.out.printf("%-15s%-30.2f%-30.2f%n",dispatcher.getName(),averageTurnaroundTime,averageWaitingTime);
+            System.out.printf("%-20s%-30.2f%-30.2f",dispatcher.getName(),averageTurnaroundTime,averageWaitingTime);
+            if(utilization)
+                System.out.printf("%-20s%-20.4f", String.format("%.2f%%", dispatcher.getUtilization() * 100), dispatcher.getThroughput());
+            System.out.println();
+        }
+
+        if(percentiles)
+            printPercentiles(dispatchers);
+        if(config instanceof PeriodicSimulationConfig)
+            printDeadlines((PeriodicSimulationConfig) config, dispatchers, taskStats);
+
+        if(exportDirectory!=null) {
+            Path summary = exportDirectory.resolve("summary."+exportFormat.getExtension());
+            try {
+                exportSummary(summary, dispatchers);
+            } catch (IOException e) {
+                System.err.println("Could not export summary to '"+summary+"': "+e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Exports the summary of every algorithm to a file, one row for each algorithm with the columns
+     *   algorithm, processes, average_turnaround, average_waiting, response_p50, response_p90, response_p99, response_p999, waiting_p99,
+     *   utilization, throughput, releases, deadline_misses
+     * The percentiles are empty if no process finished. Releases and deadline misses are only counted for jobs released by periodic tasks.
+     *
+     * @param file The file to write, the format is chosen by its extension, see {@link ResultWriter.Format#of(Path)}
+     * @param dispatchers The algorithms run
+     * @throws IOException Thrown if the file cannot be written
+     */
+    static void exportSummary(Path file, List<Dispatcher> dispatchers) throws IOException {
+        try (ResultWriter summary = ResultWriter.open(file, "algorithm", "processes", "average_turnaround", "average_waiting", "response_p50",
+                "response_p90", "response_p99", "response_p999", "waiting_p99", "utilization", "throughput", "releases", "deadline_misses")) {
+            for(Dispatcher dispatcher : dispatchers) {
+                RunningStatistics responseTimes = dispatcher.getResponseTimes();
+                summary.field(dispatcher.getName()).field(dispatcher.getTurnaroundTimes().getCount())
+                        .field(dispatcher.getTurnaroundTimes().getMean()).field(dispatcher.getWaitingTimes().getMean());
+                exportQuantile(summary, responseTimes, 0.5);
+                exportQuantile(summary, responseTimes, 0.9);
+                exportQuantile(summary, responseTimes, 0.99);
+                exportQuantile(summary, responseTimes, 0.999);
+                exportQuantile(summary, dispatcher.getWaitingTimes(), 0.99);
+                summary.field(dispatcher.getUtilization()).field(dispatcher.getThroughput())
+                        .field(dispatcher.getDeadlines().getReleases()).field(dispatcher.getDeadlines().getMisses())
+                        .endRow();
+            }
+        }
+    }
+
+    private static void exportQuantile(ResultWriter summary, RunningStatistics statistics, double quantile) throws IOException {
+        if(statistics.getCount()==0) {
+            summary.empty();
+        } else {
+            summary.field(Math.round(statistics.getQuantile(quantile)));
+        }
+    }
+
+    /**
+     * Outputs the percentiles of the latencies of each algorithm, in the format
+     *
+     * Percentiles
+     * Algorithm           Metric         p50       p90       p99       p99.9     Max
+     * FCFS                Response       4         12        30        41        45
+     *                     Wait           4         12        30        41        45
+     *                     Preemptions    0         0         0         0         0
+     *                     Turnaround     9         20        41        52        55
+     * ..... for each algorithm
+     *
+     * The response time is the time from the arrival of a process until it first runs, and each wait is from when a process becomes ready until it
+     * next runs. Percentiles are estimated to within 1%, see {@link QuantileSketch}, the max is exact.
+     *
+     * @param dispatchers The algorithms run
+     */
+    private static void printPercentiles(List<Dispatcher> dispatchers) {
+        System.out.println();
+        System.out.println("Percentiles");
+        String tableFormat = "%-20s%-15s%-10s%-10s%-10s%-10s%-10s%n";
+        System.out.printf(tableFormat, "Algorithm", "Metric", "p50", "p90", "p99", "p99.9", "Max");
+        for(Dispatcher dispatcher : dispatchers) {
+            printPercentiles(tableFormat, dispatcher.getName(), "Response", dispatcher.getResponseTimes());
+            printPercentiles(tableFormat, "", "Wait", dispatcher.getWaitSegments());
+            printPercentiles(tableFormat, "", "Preemptions", dispatcher.getPreemptions());
+            printPercentiles(tableFormat, "", "Turnaround", dispatcher.getTurnaroundTimes());
+        }
+    }
+
+    private static void printPercentiles(String tableFormat, String algorithm, String metric, RunningStatistics statistics) {
+        if(statistics.getCount()==0) {
+            System.out.printf(tableFormat, algorithm, metric, "-", "-", "-", "-", "-");
+            return;
+        }
+        System.out.printf(tableFormat, algorithm, metric, Math.round(statistics.getQuantile(0.5)), Math.round(statistics.getQuantile(0.9)),
+                Math.round(statistics.getQuantile(0.99)), Math.round(statistics.getQuantile(0.999)), statistics.getMax());
+    }
+
+    /**
+     * Outputs the deadlines missed by each algorithm, and optionally by each task, in the format
+     *
+     * Deadlines (100 tasks, utilization 0.70, horizon 1000)
+     *
+     * With a context switch time the utilization including one switch for every release follows, for example "utilization 0.70, 0.81 with
+     * context switches".
+     * Algorithm      Releases       Missed         Miss Ratio     Tasks Missed
+     * EDF            2401           0              0.00%          0
+     * ..... for each algorithm
+     *
+     * EDF:
+     * Task       Period    Deadline  WCET      Releases  Missed    Max Response  p99 Response  Max Lateness
+     * t1         10        10        2         100       0         4             3             -6
+     * .... for all tasks
+     * ........... for each algorithm
+     *
+     * @param config The periodic tasks run
+     * @param dispatchers The algorithms run
+     * @param taskStats Whether to output the deadlines and response times of every task
+     */
+    private static void printDeadlines(PeriodicSimulationConfig config, List<Dispatcher> dispatchers, boolean taskStats) {
+        List<PeriodicTask> tasks = config.getTasks();
+        System.out.println();
+        String utilization = String.format("%.2f", PeriodicTask.getUtilization(tasks));
+        if(config.getContextSwitchTime()>0)
+            utilization += String.format(", %.2f with context switches", PeriodicTask.getUtilization(tasks, config.getContextSwitchTime()));
+        System.out.printf("Deadlines (%d tasks, utilization %s, horizon %d)%n", tasks.size(), utilization, config.getHorizon());
+        String tableFormat = "%-15s%-15s%-15s%-15s%-15s%n";
+        System.out.printf(tableFormat, "Algorithm", "Releases", "Missed", "Miss Ratio", "Tasks Missed");
+        for(Dispatcher dispatcher : dispatchers) {
+            DeadlineStatistics deadlines = dispatcher.getDeadlines();
+            System.out.printf(tableFormat, dispatcher.getName(), deadlines.getReleases(), deadlines.getMisses(),
+                    String.format("%.2f%%", deadlines.getMissRatio() * 100), deadlines.getTasksMissed());
+        }
+        if(!taskStats)
+            return;
+
+        String taskFormat = "%-11s%-10s%-10s%-10s%-10s%-10s%-14s%-14s%-14s%n";
+        for(Dispatcher dispatcher : dispatchers) {
+            DeadlineStatistics deadlines = dispatcher.getDeadlines();
+            System.out.println();
+            System.out.println(dispatcher.getName()+":");
+            System.out.printf(taskFormat, "Task", "Period", "Deadline", "WCET", "Releases", "Missed", "Max Response", "p99 Response", "Max Lateness");
+            for(int index = 0; index < tasks.size(); index++) {
+                PeriodicTask task = tasks.get(index);
+                System.out.printf(taskFormat, task.getDisplayID(), task.getPeriod(), task.getDeadline(), task.getWCET(), deadlines.getReleases(index),
+                        deadlines.getMisses(index), deadlines.getMaxResponseTime(index), deadlines.getResponseQuantile(index, 0.99),
+                        deadlines.getMaxLateness(index));
+            }
         }
     }
 
-    private static SimulationConfig getConfig(String[] args) {
+    /**
+     * Runs a single algorithm on all of the jobs and produces the output for that algorithm. The output is returned rather than printed
+     * so that algorithms can be run at the same time.
+     *
+     * @param dispatcher The algorithm to run
+     * @param config The simulation input
+     * @param traceMode How each dispatch is output, either text, count or none
+     * @param summaryOnly Whether to skip the output and only run the algorithm for the summary
+     * @param logDirectory The directory to write a binary dispatch log to, or null to not write a log
+     * @param exportDirectory The directory to write the results of every process to, or null to not export results
+     * @param exportFormat The format to export results in
+     * @param checkpoints How the algorithm is started and saved
+     * @return The output of the algorithm, the dispatch log followed by stats about each process
+     * @throws IOException Thrown if the binary dispatch log, the results or a checkpoint cannot be written
+     */
+    private static String runDispatcher(Dispatcher dispatcher, SimulationConfig config, String traceMode, boolean summaryOnly, Path logDirectory,
+                                        Path exportDirectory, ResultWriter.Format exportFormat, CheckpointPlan checkpoints) throws IOException {
+        String tableFormat = "%-11s%-20s%-20s%n";
+        if(summaryOnly) {
+            dispatcher.setRetainProcesses(false);
+            runDispatcher(dispatcher, config, new NoDispatchTrace(), logDirectory, exportDirectory, exportFormat, checkpoints);
+            return "";
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(buffer);
+        CountingDispatchTrace counter = null;
+        DispatchTrace trace;
+        switch (traceMode) {
+            case "count":
+                counter = new CountingDispatchTrace();
+                trace = counter;
+                break;
+            case "none":
+                trace = new NoDispatchTrace();
+                break;
+            default:
+                trace = new TextDispatchTrace(out);
+        }
+
+        out.println(dispatcher.getName()+":");
+        runDispatcher(dispatcher, config, trace, logDirectory, exportDirectory, exportFormat, checkpoints);
+        if(counter!=null)
+            out.println("Dispatches: "+counter.getDispatches());
+
+        out.println();
+        out.format(tableFormat, "Process","Turnaround Time","Waiting Time");
+        //after the dispatcher is run show stats about each process
+        for(Process process : dispatcher.getProcesses()) {
+            out.format(tableFormat, process.getDisplayID(),process.getTurnaroundTime(),process.getWaitTime());
+        }
+        out.println();
+        if(dispatcher instanceof MultiCoreDispatcher) {
+            printCores((MultiCoreDispatcher) dispatcher, out);
+        }
+        out.flush();
+        return buffer.toString();
+    }
+
+    /**
+     * Adds the jobs to a dispatcher and runs it. If there is a log directory then everything is also written to a binary dispatch log named after
+     * the algorithm, and if there is an export directory the results of every process are written to a file named after the algorithm as each
+     * process finishes. When resuming from a checkpoint only the processes which finish after the checkpoint are exported.
+     *
+     * @param dispatcher The algorithm to run
+     * @param config The simulation input
+     * @param trace Where the dispatcher records each dispatch
+     * @param logDirectory The directory to write a binary dispatch log to, or null to not write a log
+     * @param exportDirectory The directory to write the results of every process to, or null to not export results
+     * @param exportFormat The format to export results in
+     * @param checkpoints How the algorithm is started and saved
+     * @throws IOException Thrown if the binary dispatch log, the results or a checkpoint cannot be written
+     */
+    private static void runDispatcher(Dispatcher dispatcher, SimulationConfig config, DispatchTrace trace, Path logDirectory, Path exportDirectory,
+                                      ResultWriter.Format exportFormat, CheckpointPlan checkpoints) throws IOException {
+        try (BinaryDispatchTrace log = logDirectory==null ? null : new BinaryDispatchTrace(logDirectory.resolve(getFileName(dispatcher)+".dlog"));
+             ResultWriter results = exportDirectory==null ? null : ResultWriter.open(exportDirectory.resolve(getFileName(dispatcher)+"."+
+                     exportFormat.getExtension()), exportFormat, Dispatcher.getResultColumns())) {
+            dispatcher.setTrace(log==null ? trace : new TeeDispatchTrace(trace, log));
+            dispatcher.setResults(results);
+            checkpoints.run(dispatcher, config);
+        }
+    }
+
+    /**
+     * Names such as "RR (global)" become RR_global, so that each algorithm can be given its own file
+     *
+     * @param dispatcher The algorithm
+     * @return The name of the algorithm, safe to use as a file name
+     */
+    static String getFileName(Dispatcher dispatcher) {
+        return dispatcher.getName().replaceAll("[^A-Za-z0-9]+", "_").replaceAll("_$", "");
+    }
+
+    /**
+     * Adds all of the jobs in the simulation input to a dispatcher
+     *
+     * @param dispatcher The dispatcher to run the jobs
+     * @param config The simulation input
+     */
+    static void addJobs(Dispatcher dispatcher, SimulationConfig config) {
+        //add all of the jobs specified in the input to the dispatcher, if they are in order they can be read as the simulation runs
+        if(config.isArrivalOrdered()) {
+            dispatcher.addJobs(config.getJobs().iterator());
+        } else {
+            for(Job job : config.getJobs()) {
+                dispatcher.addJob(job);
+            }
+        }
+    }
+
+    private static void printCores(MultiCoreDispatcher dispatcher, PrintStream out) {
+        String tableFormat = "%-11s%-20s%-20s%n";
+        out.format(tableFormat, "Core","Context Switches","Busy Time");
+        for(int core = 0; core < dispatcher.getCores(); core++) {
+            out.format(tableFormat, core, dispatcher.getContextSwitches(core), dispatcher.getBusyTime(core));
+        }
+        out.println();
+    }
+
+    /**
+     * Reads the simulation input from the file named in the args, or generates it if the generate option is given. Any problem is reported
+     * to {@link System#err}.
+     *
+     * @param args The args that are not options, args[0] = file name
+     * @param options The options given to the program
+     * @return The simulation input or null if it could not be read
+     */
+    static SimulationConfig getConfig(List<String> args, Map<String,String> options) {
         //return getTest5();
         ///*
+        if(options.containsKey("generate"))
+            return getSyntheticConfig(options);
+        if(options.containsKey("generate-tasks"))
+            return getPeriodicConfig(options);
+
         String fileName = null;
         //get the name of the file from the args
-        if(args.length>0) {
-            fileName = args[0];
+        if(args.size()>0) {
+            fileName = args.get(0);
         } else {
             System.err.println("File name not provided!");
             return null;
@@ -113,15 +674,66 @@ public class A1 {
 
         //read the file from the config
         try {
+            Path path = Paths.get(fileName);
+            if(Files.isRegularFile(path) && BinarySimulationConfig.isBinaryTrace(path))
+                return new BinarySimulationConfig(path);
+            if(options.containsKey("tasks"))
+                return new PeriodicSimulationConfig(new File(fileName), Integer.parseInt(options.getOrDefault("horizon", "0")),
+                        Long.parseLong(options.getOrDefault("seed", "0")));
+            if(options.containsKey("stream"))
+                return new StreamingSimulationConfig(path);
+
             File file = new File(fileName);
             return new FileSimulationConfig(file);
         } catch (FileNotFoundException e) {
             System.err.println("Unknown file '"+fileName+"'");
             return null;
+        } catch (IOException e) {
+            System.err.println("Could not read file '"+fileName+"': "+e.getMessage());
+            return null;
+        } catch (IllegalArgumentException | InputMismatchException e) {
+            System.err.println("Invalid "+(options.containsKey("tasks") ? "tasks" : "jobs")+" in '"+fileName+"': "+e.getMessage());
+            return null;
         }
          //*/
     }
 
+    private static SimulationConfig getSyntheticConfig(Map<String,String> options) {
+        try {
+            int jobs = Integer.parseInt(options.get("generate"));
+            int contextSwitchTime = Integer.parseInt(options.getOrDefault("disp", "1"));
+            long seed = Long.parseLong(options.getOrDefault("seed", "0"));
+            ArrivalProcess arrivals = ArrivalProcess.parse(options.getOrDefault("arrivals", "poisson(0.06)"));
+            ServiceDistribution serviceTimes = ServiceDistribution.parse(options.getOrDefault("service", "exponential(10)"));
+            int ioBursts = Integer.parseInt(options.getOrDefault("io-bursts", "0"));
+            ServiceDistribution ioTimes = ServiceDistribution.parse(options.getOrDefault("io", "exponential(10)"));
+            return new SyntheticSimulationConfig(contextSwitchTime, jobs, arrivals, serviceTimes, seed, ioBursts, ioTimes);
+        } catch (IllegalArgumentException e) {
+            //this includes invalid numbers
+            System.err.println("Invalid generated jobs: "+e.getMessage());
+            return null;
+        }
+    }
+
+    private static SimulationConfig getPeriodicConfig(Map<String,String> options) {
+        try {
+            int count = Integer.parseInt(options.get("generate-tasks"));
+            int contextSwitchTime = Integer.parseInt(options.getOrDefault("disp", "0"));
+            long seed = Long.parseLong(options.getOrDefault("seed", "0"));
+            double utilization = Double.parseDouble(options.getOrDefault("load", "0.7"));
+            String[] periods = options.getOrDefault("periods", "10,1000").split(",");
+            if(periods.length!=2)
+                throw new IllegalArgumentException("Periods must be min,max");
+            List<PeriodicTask> tasks = PeriodicTask.generate(count, utilization, Integer.parseInt(periods[0]), Integer.parseInt(periods[1]), new Random(seed));
+            int horizon = Integer.parseInt(options.getOrDefault("horizon", "0"));
+            return new PeriodicSimulationConfig(contextSwitchTime, tasks, horizon, seed);
+        } catch (IllegalArgumentException e) {
+            //this includes invalid numbers
+            System.err.println("Invalid generated tasks: "+e.getMessage());
+            return null;
+        }
+    }
+
     /**
      *  BELOW ARE SOME OF THE TEST CASES USED. I KEPT THIS FOR THE REPORT WHICH ASKS TO DISCUSS TESTING
      *  USED
@@ -1,3 +1,6 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.Queue;
 
@@ -51,7 +54,22 @@ public abstract class AbstractRRDispatcher extends SingleCoreDispatcher {
         //schedule the task either to completion, or for the remaining time, whichever is the shorter of the two.
         int finishTime = getTime() + process.getRemainingTime();
         int quantaTime = getTime() + process.getTimeQuanta();
+        if(processQueue.isEmpty())
+            quantaTime = skipQuanta(process);
         int nextTime = Math.min(finishTime,quantaTime);
-        addTask(new InterruptTask(this,process.getProcessId(),nextTime));
+        scheduleInterrupt(process.getProcessId(),nextTime);
+    }
+
+    @Override
+    protected void writeState(DataOutput out) throws IOException {
+        super.writeState(out);
+        writeProcesses(out, processQueue);
+    }
+
+    @Override
+    protected void readState(DataInput in) throws IOException {
+        super.readState(in);
+        processQueue.clear();
+        processQueue.addAll(readProcesses(in));
     }
 }
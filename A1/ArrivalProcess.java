@@ -0,0 +1,56 @@
+import java.util.Random;
+
+/**
+ * File: ArrivalProcess.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Generates the arrival times of jobs for a {@link SyntheticSimulationConfig}. Arrival times are generated one after another, each no earlier than the last.
+ */
+public interface ArrivalProcess {
+
+    /**
+     * Generates the time of the next arrival
+     *
+     * @param time The time of the previous arrival, 0 for the first arrival
+     * @param random The source of randomness
+     * @return The time of the next arrival, not earlier than the previous arrival
+     */
+    double nextArrival(double time, Random random);
+
+    /**
+     * Arrival processes may keep state between arrivals. A copy in its starting state is used for each pass over the jobs, so every pass
+     * generates the same arrivals.
+     *
+     * @return A copy of this arrival process in its starting state, stateless processes can return themselves
+     */
+    ArrivalProcess copy();
+
+    /**
+     * Creates an arrival process from a description in the form name(parameters), for example poisson(0.1)
+     *   poisson(rate)                                 arrivals at a constant average rate
+     *   mmpp(rate, burst rate, mean gap, mean burst)  switches between a normal and a burst rate, staying in each for an exponentially distributed time
+     *   diurnal(rate, amplitude, period)              the rate rises and falls over each period, rate * (1 + amplitude * sin(2 pi t / period))
+     *
+     * @param description The description of the arrival process
+     * @return The arrival process described
+     * @throws IllegalArgumentException if the description is not valid
+     */
+    static ArrivalProcess parse(String description) {
+        String name = Distributions.name(description);
+        double[] parameters = Distributions.parameters(description);
+        switch (name) {
+            case "poisson":
+                Distributions.expectParameters(description, parameters, 1);
+                return new PoissonArrivals(parameters[0]);
+            case "mmpp":
+                Distributions.expectParameters(description, parameters, 4);
+                return new MMPPArrivals(parameters[0], parameters[1], parameters[2], parameters[3]);
+            case "diurnal":
+                Distributions.expectParameters(description, parameters, 3);
+                return new DiurnalArrivals(parameters[0], parameters[1], parameters[2]);
+            default:
+                throw new IllegalArgumentException("Unknown arrival process '"+name+"'");
+        }
+    }
+}
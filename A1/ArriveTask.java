@@ -4,7 +4,7 @@
  * Author: Jacob Boyce
  * Course: COMP2240
  * Represents a task that involves a process arriving to a dispatcher. The dispatcher should then handle the new process, this may involve preempting or simply
- * adding it to a queue, this will obviously depend on the implementation.
+ * adding it to a queue, this will obviously depend on the implementation. The same task wakes a blocked process at the end of its I/O burst.
  */
 public class ArriveTask extends Task {
 
@@ -12,14 +12,21 @@ public class ArriveTask extends Task {
     private final Process arrival;
 
     protected ArriveTask(Dispatcher dispatcher, Process process) {
-        super(process.getProcessId(),process.getArrivalTime());
+        super(process.getProcessId(),process.getReadyTime());
         this.dispatcher = dispatcher;
         this.arrival = process;
     }
 
+    /**
+     * @return The process which arrives
+     */
+    Process getArrival() {
+        return arrival;
+    }
+
     @Override
     public void run() {
-        dispatcher.arrive(arrival);
+        dispatcher.runArrival(arrival);
     }
 
     @Override
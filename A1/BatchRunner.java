@@ -0,0 +1,396 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * File: BatchRunner.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Runs the algorithms on many independent input files in one JVM, rather than launching {@link A1} once for each file, so every file after the first
+ * few runs on code that has already been compiled. The files are run on a fixed number of worker threads, each worker runs every algorithm on one
+ * file at a time. The files can also be split between several worker processes on the same machine, each running its share on its own threads.
+ *
+ * Produces output in the following format, one row for each file and algorithm, followed by the totals of each algorithm over every file
+ *
+ * File                          Algorithm           Jobs      Avg Turnaround  Avg Waiting     p99 Waiting   Max Waiting
+ * datafile1.txt                 FCFS                5         10.00           6.20            12.00         12
+ * ..... for each file and algorithm
+ */
+public class BatchRunner {
+
+    private final static String ROW_FORMAT = "%-30s%-20s%-10d%-16.2f%-16.2f%-14.2f%-12d%n";
+    private final static String HEADER_FORMAT = "%-30s%-20s%-10s%-16s%-16s%-14s%-12s%n";
+    private final static String ERROR_FORMAT = "%-30s%-20s%s%n";
+    private final static int END_OF_RESULTS = -1;
+
+    /**
+     * Runs the batch. The input is either a directory, where every file in it is run in order of name, or a manifest listing one file on each line.
+     * Blank lines and lines starting with # are ignored, and relative paths are relative to the manifest.
+     *   --algorithms=[names]  comma separated algorithms to run on every file, defaults to FCFS,RR,NRR,FB
+     *   --workers=[threads]   the number of files run at once in each process, defaults to the number of available processors
+     *   --processes=[count]   split the files between this many worker processes, defaults to 1 which runs everything in this process
+     *   --shard=[i]/[n]       only run every n-th file starting from the i-th (counting from 0), so a batch can be split between machines
+     *   --summary             only output the totals of each algorithm
+     *   --stream              read the jobs of each file lazily, as for {@link A1}
+     *
+     * @param args args[0] = directory or manifest, args[1] = number of cores (optional, defaults to 1)
+     */
+    public static void main(String[] args) {
+        List<String> arguments = new ArrayList<>();
+        Map<String,String> options = A1.parseOptions(args, arguments);
+        if(arguments.isEmpty()) {
+            System.err.println("Usage: BatchRunner [directory or manifest] [cores] [options]");
+            return;
+        }
+
+        List<Path> files;
+        try {
+            files = listInputs(Paths.get(arguments.get(0)));
+        } catch (IOException e) {
+            System.err.println("Could not list inputs '"+arguments.get(0)+"': "+e.getMessage());
+            return;
+        }
+
+        List<String> algorithms = Arrays.asList(options.getOrDefault("algorithms", "FCFS,RR,NRR,FB").split(","));
+        int cores;
+        int workers;
+        int processes;
+        int shard;
+        int shards;
+        try {
+            cores = arguments.size()>1 ? Integer.parseInt(arguments.get(1)) : 1;
+            workers = Integer.parseInt(options.getOrDefault("workers", String.valueOf(Runtime.getRuntime().availableProcessors())));
+            processes = Integer.parseInt(options.getOrDefault("processes", "1"));
+            String[] split = options.getOrDefault("shard", "0/1").split("/");
+            if(split.length!=2)
+                throw new IllegalArgumentException("Shard must be [i]/[n], got '"+options.get("shard")+"'");
+            shard = Integer.parseInt(split[0]);
+            shards = Integer.parseInt(split[1]);
+            if(workers<1 || processes<1)
+                throw new IllegalArgumentException("Workers and processes must be positive");
+            if(shards<1 || shard<0 || shard>=shards)
+                throw new IllegalArgumentException("Shard must be between 0 and "+(shards-1)+", got "+shard);
+            //check the algorithms before anything is run
+            A1.createDispatchers(0, cores, algorithms);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
+
+        //this shard of the batch
+        List<Integer> indexes = new ArrayList<>();
+        for(int index = shard; index < files.size(); index += shards) {
+            indexes.add(index);
+        }
+
+        List<Result> results;
+        try {
+            if(processes>1) {
+                results = runProcesses(args, processes, workers);
+            } else {
+                results = runFiles(files, indexes, cores, algorithms, workers, options);
+            }
+        } catch (IOException e) {
+            System.err.println("Worker process failed: "+e.getMessage());
+            System.exit(1);
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        if(options.containsKey("worker-output")) {
+            try {
+                writeResults(results);
+            } catch (IOException e) {
+                System.exit(1);
+            }
+            return;
+        }
+        printSummary(files, results, options.containsKey("summary"));
+    }
+
+    /**
+     * @param input A directory or manifest
+     * @return Every file in the directory in order of name, or every file listed in the manifest in order
+     * @throws IOException Thrown if the directory or manifest cannot be read
+     */
+    static List<Path> listInputs(Path input) throws IOException {
+        if(Files.isDirectory(input)) {
+            try (Stream<Path> entries = Files.list(input)) {
+                return entries.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            }
+        }
+
+        Path base = input.toAbsolutePath().getParent();
+        List<Path> files = new ArrayList<>();
+        for(String line : Files.readAllLines(input)) {
+            line = line.trim();
+            if(line.isEmpty() || line.startsWith("#"))
+                continue;
+            files.add(base.resolve(line));
+        }
+        return files;
+    }
+
+    /**
+     * Runs every algorithm on each of the files, spread over the workers
+     *
+     * @return The result of each file and algorithm, in order of file then algorithm
+     */
+    private static List<Result> runFiles(List<Path> files, List<Integer> indexes, int cores, List<String> algorithms, int workers,
+                                         Map<String,String> options) throws InterruptedException {
+        List<Callable<List<Result>>> tasks = new ArrayList<>();
+        for(int index : indexes) {
+            tasks.add(() -> runFile(index, files.get(index), cores, algorithms, options));
+        }
+
+        List<Result> results = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            for(Future<List<Result>> result : executor.invokeAll(tasks)) {
+                results.addAll(result.get());
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Batch failed", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+        return results;
+    }
+
+    /**
+     * Runs every algorithm on one file. A file that cannot be read or has no jobs, such as a file which is not in the job format, or an algorithm
+     * that fails, is given an error rather than stopping the batch.
+     */
+    private static List<Result> runFile(int index, Path file, int cores, List<String> algorithms, Map<String,String> options) {
+        SimulationConfig config = A1.getConfig(Collections.singletonList(file.toString()), options);
+        if(config==null)
+            return Collections.singletonList(new Result(index, "-", "could not read file"));
+        try {
+            if(!hasJobs(config))
+                return Collections.singletonList(new Result(index, "-", "no jobs in file"));
+        } catch (RuntimeException e) {
+            return Collections.singletonList(new Result(index, "-", String.valueOf(e.getMessage())));
+        }
+
+        List<Result> results = new ArrayList<>();
+        for(Dispatcher dispatcher : A1.createDispatchers(config.getContextSwitchTime(), cores, algorithms)) {
+            try {
+                dispatcher.setTrace(new NoDispatchTrace());
+                dispatcher.setRetainProcesses(false);
+                A1.addJobs(dispatcher, config);
+                dispatcher.run();
+                results.add(new Result(index, dispatcher.getName(), dispatcher.getTurnaroundTimes(), dispatcher.getWaitingTimes()));
+            } catch (RuntimeException e) {
+                results.add(new Result(index, dispatcher.getName(), String.valueOf(e.getMessage())));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Checks for a first job without reading the rest, a streamed file is closed again straight away
+     */
+    private static boolean hasJobs(SimulationConfig config) {
+        Iterator<Job> jobs = config.getJobs().iterator();
+        try {
+            return jobs.hasNext();
+        } finally {
+            if(jobs instanceof Closeable) {
+                try {
+                    ((Closeable) jobs).close();
+                } catch (IOException e) {
+                    //only the first job was wanted
+                }
+            }
+        }
+    }
+
+    /**
+     * Splits the batch between worker processes, each running this class on one shard with the same args. Each process writes its results to
+     * its output with {@link #writeResults(List)}, and these are read back and combined in order of file.
+     *
+     * @param args The args given to this process
+     * @param processes The number of worker processes
+     * @param workers The number of threads shared between the processes
+     * @return The results of every process
+     * @throws IOException Thrown if a process cannot be started, fails, or its results cannot be read
+     */
+    private static List<Result> runProcesses(String[] args, int processes, int workers) throws IOException, InterruptedException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        List<java.lang.Process> children = new ArrayList<>();
+        try {
+            for(int shard = 0; shard < processes; shard++) {
+                List<String> command = new ArrayList<>(Arrays.asList(java, "-cp", System.getProperty("java.class.path"), BatchRunner.class.getName()));
+                for(String arg : args) {
+                    if(!arg.startsWith("--processes") && !arg.startsWith("--workers") && !arg.startsWith("--shard"))
+                        command.add(arg);
+                }
+                command.add("--shard="+shard+"/"+processes);
+                command.add("--workers="+Math.max(1, workers / processes));
+                command.add("--worker-output");
+                children.add(new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start());
+            }
+
+            //each output is read on its own thread, so no process blocks on a full pipe
+            List<Callable<List<Result>>> readers = new ArrayList<>();
+            for(java.lang.Process child : children) {
+                readers.add(() -> readResults(child));
+            }
+            List<Result> results = new ArrayList<>();
+            ExecutorService executor = Executors.newFixedThreadPool(processes);
+            try {
+                for(Future<List<Result>> result : executor.invokeAll(readers)) {
+                    results.addAll(result.get());
+                }
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+            } finally {
+                executor.shutdown();
+            }
+            results.sort((a, b) -> Integer.compare(a.file, b.file));
+            return results;
+        } finally {
+            for(java.lang.Process child : children) {
+                child.destroy();
+            }
+        }
+    }
+
+    /**
+     * Writes results to {@link System#out} in the format
+     *
+     *   file index     int   -1 after the last result
+     *   algorithm      string
+     *   succeeded      boolean
+     *   statistics     turnaround then waiting times if it succeeded, otherwise the error as a string
+     */
+    private static void writeResults(List<Result> results) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(System.out));
+        for(Result result : results) {
+            out.writeInt(result.file);
+            out.writeUTF(result.algorithm);
+            out.writeBoolean(result.error==null);
+            if(result.error==null) {
+                result.turnaroundTimes.write(out);
+                result.waitingTimes.write(out);
+            } else {
+                out.writeUTF(result.error);
+            }
+        }
+        out.writeInt(END_OF_RESULTS);
+        out.flush();
+    }
+
+    private static List<Result> readResults(java.lang.Process child) throws IOException, InterruptedException {
+        List<Result> results = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(child.getInputStream()))) {
+            for(int file = in.readInt(); file!=END_OF_RESULTS; file = in.readInt()) {
+                String algorithm = in.readUTF();
+                if(in.readBoolean()) {
+                    RunningStatistics turnaroundTimes = new RunningStatistics();
+                    RunningStatistics waitingTimes = new RunningStatistics();
+                    turnaroundTimes.read(in);
+                    waitingTimes.read(in);
+                    results.add(new Result(file, algorithm, turnaroundTimes, waitingTimes));
+                } else {
+                    results.add(new Result(file, algorithm, in.readUTF()));
+                }
+            }
+        }
+        int exitCode = child.waitFor();
+        if(exitCode!=0)
+            throw new IOException("Worker process exited with "+exitCode);
+        return results;
+    }
+
+    private static void printSummary(List<Path> files, List<Result> results, boolean summaryOnly) {
+        if(!summaryOnly) {
+            System.out.printf(HEADER_FORMAT, "File", "Algorithm", "Jobs", "Avg Turnaround", "Avg Waiting", "p99 Waiting", "Max Waiting");
+            for(Result result : results) {
+                String file = files.get(result.file).getFileName().toString();
+                if(result.error!=null) {
+                    System.out.printf(ERROR_FORMAT, file, result.algorithm, "error: "+result.error);
+                } else {
+                    print(file, result.algorithm, result.turnaroundTimes, result.waitingTimes);
+                }
+            }
+            System.out.println();
+        }
+
+        //the totals of each algorithm over every file, in the order they were first run
+        Map<String,RunningStatistics[]> totals = new LinkedHashMap<>();
+        int errors = 0;
+        for(Result result : results) {
+            if(result.error!=null) {
+                errors++;
+                continue;
+            }
+            RunningStatistics[] total = totals.computeIfAbsent(result.algorithm, algorithm -> new RunningStatistics[] {new RunningStatistics(), new RunningStatistics()});
+            total[0].merge(result.turnaroundTimes);
+            total[1].merge(result.waitingTimes);
+        }
+        System.out.println("Total");
+        System.out.printf(HEADER_FORMAT, "Files", "Algorithm", "Jobs", "Avg Turnaround", "Avg Waiting", "p99 Waiting", "Max Waiting");
+        for(Map.Entry<String,RunningStatistics[]> total : totals.entrySet()) {
+            long fileCount = results.stream().filter(result -> result.error==null && result.algorithm.equals(total.getKey())).count();
+            print(String.valueOf(fileCount), total.getKey(), total.getValue()[0], total.getValue()[1]);
+        }
+        if(errors>0)
+            System.out.println(errors+" failed");
+    }
+
+    private static void print(String file, String algorithm, RunningStatistics turnaroundTimes, RunningStatistics waitingTimes) {
+        System.out.printf(ROW_FORMAT, file, algorithm, turnaroundTimes.getCount(), turnaroundTimes.getMean(), waitingTimes.getMean(),
+                waitingTimes.getQuantile(0.99), waitingTimes.getMax());
+    }
+
+    /**
+     * The stats of one algorithm run on one file, or why it could not be run
+     */
+    private static class Result {
+        private final int file;
+        private final String algorithm;
+        private final RunningStatistics turnaroundTimes;
+        private final RunningStatistics waitingTimes;
+        private final String error;
+
+        private Result(int file, String algorithm, RunningStatistics turnaroundTimes, RunningStatistics waitingTimes) {
+            this.file = file;
+            this.algorithm = algorithm;
+            this.turnaroundTimes = turnaroundTimes;
+            this.waitingTimes = waitingTimes;
+            this.error = null;
+        }
+
+        private Result(int file, String algorithm, String error) {
+            this.file = file;
+            this.algorithm = algorithm;
+            this.turnaroundTimes = null;
+            this.waitingTimes = null;
+            this.error = error;
+        }
+    }
+}
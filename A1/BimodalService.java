@@ -0,0 +1,37 @@
+import java.util.Random;
+
+/**
+ * File: BimodalService.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * A {@link ServiceDistribution} with two kinds of job, for example short interactive jobs mixed with long batch jobs. Each job is short with the given probability,
+ * otherwise it is long.
+ */
+public class BimodalService implements ServiceDistribution {
+
+    private final int shortTime;
+    private final int longTime;
+    private final double shortFraction;
+
+    /**
+     * @param shortTime The service time of a short job
+     * @param longTime The service time of a long job
+     * @param shortFraction The probability that a job is short, between 0 and 1
+     * @throws IllegalArgumentException if a service time is not positive or the fraction is not between 0 and 1
+     */
+    public BimodalService(int shortTime, int longTime, double shortFraction) {
+        Distributions.requirePositive("Short time", shortTime);
+        Distributions.requirePositive("Long time", longTime);
+        if(shortFraction<0 || shortFraction>1)
+            throw new IllegalArgumentException("Short fraction must be between 0 and 1, got "+shortFraction);
+        this.shortTime = shortTime;
+        this.longTime = longTime;
+        this.shortFraction = shortFraction;
+    }
+
+    @Override
+    public int nextServiceTime(Random random) {
+        return random.nextDouble() < shortFraction ? shortTime : longTime;
+    }
+}
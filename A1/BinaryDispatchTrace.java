@@ -0,0 +1,278 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * File: BinaryDispatchTrace.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * A {@link DispatchTrace} which appends every arrival, dispatch, block and finish to a compact binary log, the trace must be closed once the simulation
+ * has finished. The log can be read back with a {@link DispatchLog},
+ * which can find which processes were running and ready at any time without reading the whole log. Every so often a checkpoint holding the running
+ * and ready processes is written to the log, and its position is written to an index file next to the log (the log file name followed by .idx).
+ *
+ * The log is in the format (all fixed size values big endian)
+ *
+ * Header (8 bytes)
+ *   magic           int   'A1DL'
+ *   version         int   2
+ * Records, each starting with a type byte
+ *   arrived         time, process id
+ *   dispatched      time, process id, core + 1 (0 for a single core)
+ *   finished        time, process id
+ *   blocked         time, process id
+ *   checkpoint      time, busy cores, (core, process id) for each busy core, ready processes, process id for each ready process
+ *
+ * Every number after the type is a varint (7 bits per byte, lowest first). Times are stored as the zig-zag encoded difference from the time of the
+ * previous record, as records are not always in time order (a dispatch is recorded at the end of its context switch). The time of a checkpoint is
+ * stored in full, so reading can begin at any checkpoint.
+ *
+ * The index is in the format
+ *
+ * Header (8 bytes)
+ *   magic           int   'A1DI'
+ *   version         int   2
+ * Entries (16 bytes each), one for each checkpoint in the order they were written
+ *   latest time     int   the latest time of any record before the checkpoint
+ *   earliest time   int   the earliest time of any record after the checkpoint and before the next one
+ *   offset          long  the position of the checkpoint in the log
+ *
+ * The entry for a checkpoint is written once the next checkpoint is reached, so the last entry is only written when the trace is closed.
+ */
+public class BinaryDispatchTrace implements DispatchTrace, Closeable {
+
+    final static int MAGIC = 0x41314C44;
+    final static int INDEX_MAGIC = 0x41314449;
+    final static int VERSION = 2;
+    final static int HEADER_SIZE = 8;
+    final static int INDEX_ENTRY_SIZE = 16;
+
+    final static byte ARRIVED = 0;
+    final static byte DISPATCHED = 1;
+    final static byte FINISHED = 2;
+    final static byte CHECKPOINT = 3;
+    final static byte BLOCKED = 4;
+
+    private final static int DEFAULT_CHECKPOINT_INTERVAL = 4096;
+    private final static int BUFFER_SIZE = 1 << 16;
+    private final static int MAX_RECORD_SIZE = 16; //a type byte and three varints
+
+    private final FileChannel log;
+    private final FileChannel index;
+    private final ByteBuffer logBuffer;
+    private final ByteBuffer indexBuffer;
+    private final int checkpointInterval;
+    private final DispatchLog.State state;
+    private long written; //the number of bytes of the log written to the file
+    private int lastTime;
+    private int latestTime;
+    private int records; //records since the last checkpoint
+    private long checkpointOffset; //the position of the last checkpoint
+    private int checkpointLatestTime; //the latest time of any record before the last checkpoint
+    private int earliestTime; //the earliest time of any record since the last checkpoint
+
+    /**
+     * Creates a new binary dispatch trace, with a checkpoint every 4096 records
+     *
+     * @param file The log to write to, this is overwritten if it exists
+     * @throws IOException Thrown if the log or its index cannot be created
+     */
+    public BinaryDispatchTrace(Path file) throws IOException {
+        this(file, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Creates a new binary dispatch trace
+     *
+     * @param file The log to write to, this is overwritten if it exists
+     * @param checkpointInterval The number of records between each checkpoint, fewer records make seeking faster but the log larger
+     * @throws IOException Thrown if the log or its index cannot be created
+     */
+    public BinaryDispatchTrace(Path file, int checkpointInterval) throws IOException {
+        if(checkpointInterval<1)
+            throw new IllegalArgumentException("Checkpoint interval must be positive, got "+checkpointInterval);
+        this.checkpointInterval = checkpointInterval;
+        this.log = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            this.index = FileChannel.open(getIndexFile(file), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            log.close();
+            throw e;
+        }
+        this.logBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        this.indexBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        this.state = new DispatchLog.State();
+        this.written = 0;
+        this.lastTime = 0;
+        this.latestTime = Integer.MIN_VALUE;
+        this.records = 0;
+        this.checkpointOffset = -1;
+
+        logBuffer.putInt(MAGIC);
+        logBuffer.putInt(VERSION);
+        indexBuffer.putInt(INDEX_MAGIC);
+        indexBuffer.putInt(VERSION);
+        //reading always starts from a checkpoint, so there is one before any records
+        checkpoint();
+    }
+
+    /**
+     * @param file A dispatch log
+     * @return The index file of the log
+     */
+    static Path getIndexFile(Path file) {
+        return Paths.get(file.toString()+".idx");
+    }
+
+    @Override
+    public void arrived(int time, int processId) {
+        state.arrived(processId);
+        writeRecord(ARRIVED, time, processId);
+        endRecord();
+    }
+
+    @Override
+    public void dispatched(int time, int processId, int core) {
+        state.dispatched(processId, core);
+        writeRecord(DISPATCHED, time, processId);
+        writeVarInt(core + 1);
+        endRecord();
+    }
+
+    @Override
+    public void blocked(int time, int processId) {
+        state.blocked(processId);
+        writeRecord(BLOCKED, time, processId);
+        endRecord();
+    }
+
+    @Override
+    public void finished(int time, int processId) {
+        state.finished(processId);
+        writeRecord(FINISHED, time, processId);
+        endRecord();
+    }
+
+    private void writeRecord(byte type, int time, int processId) {
+        ensureRemaining(MAX_RECORD_SIZE);
+        logBuffer.put(type);
+        writeVarInt(zigZag(time - lastTime));
+        writeVarInt(processId);
+        lastTime = time;
+        latestTime = Math.max(latestTime, time);
+        earliestTime = Math.min(earliestTime, time);
+    }
+
+    private void endRecord() {
+        records++;
+        if(records>=checkpointInterval)
+            checkpoint();
+    }
+
+    /**
+     * Writes the running and ready processes to the log, and where they were written to the index
+     */
+    private void checkpoint() {
+        writeIndexEntry();
+        records = 0;
+        ensureRemaining(MAX_RECORD_SIZE);
+        checkpointOffset = getPosition();
+        checkpointLatestTime = latestTime;
+        earliestTime = Integer.MAX_VALUE;
+
+        logBuffer.put(CHECKPOINT);
+        writeVarInt(zigZag(lastTime));
+        Map<Integer,Integer> running = state.getRunningProcesses();
+        writeVarInt(running.size());
+        for(Map.Entry<Integer,Integer> entry : running.entrySet()) {
+            ensureRemaining(MAX_RECORD_SIZE);
+            writeVarInt(entry.getKey() + 1);
+            writeVarInt(entry.getValue());
+        }
+        ensureRemaining(MAX_RECORD_SIZE);
+        writeVarInt(state.getReadyProcesses().size());
+        for(int processId : state.getReadyProcesses()) {
+            ensureRemaining(MAX_RECORD_SIZE);
+            writeVarInt(processId);
+        }
+    }
+
+    /**
+     * Writes the index entry of the last checkpoint, now that the records after it are known
+     */
+    private void writeIndexEntry() {
+        if(checkpointOffset<0)
+            return;
+        if(indexBuffer.remaining() < INDEX_ENTRY_SIZE)
+            write(index, indexBuffer);
+        indexBuffer.putInt(checkpointLatestTime);
+        indexBuffer.putInt(earliestTime);
+        indexBuffer.putLong(checkpointOffset);
+        checkpointOffset = -1;
+    }
+
+    private long getPosition() {
+        return written + logBuffer.position();
+    }
+
+    private void ensureRemaining(int bytes) {
+        if(logBuffer.remaining() < bytes)
+            flushLog();
+    }
+
+    private void flushLog() {
+        written += logBuffer.position();
+        write(log, logBuffer);
+    }
+
+    private void writeVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            logBuffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        logBuffer.put((byte) value);
+    }
+
+    static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void flush() {
+        flushLog();
+        write(index, indexBuffer);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            writeIndexEntry();
+            flush();
+        } finally {
+            try {
+                log.close();
+            } finally {
+                index.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Collection;
+
+/**
+ * File: BinarySimulationConfig.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Creates a {@link SimulationConfig} from a binary job trace written by {@link TraceConverter}. The trace is memory mapped so nothing is parsed up front,
+ * each job is read straight from the mapped file when it is needed. The file is in the format (all values big endian)
+ *
+ * Header (32 bytes)
+ *   magic           int   'A1JT'
+ *   version         int   3
+ *   flags           int   bit 0 set if the jobs are in order of arrival time, bit 1 set if there are bursts, bit 2 set if there are tickets
+ *   context switch  int
+ *   job count       long
+ *   burst count     long  the number of burst values, 0 if there are no bursts
+ * Columns
+ *   id              int[job count]
+ *   arrival time    int[job count]
+ *   service time    int[job count]
+ *   tickets         int[job count]      only if there are tickets, otherwise every job has {@link Job#DEFAULT_TICKETS}
+ *   burst start     int[job count + 1]  only if there are bursts, where the bursts of each job start in the burst values, the next job's start
+ *                                       is where they end. A job with a single CPU burst has none.
+ *   burst values    int[burst count]    only if there are bursts, the CPU and I/O bursts of each job in turn, see {@link Job#getBursts()}
+ */
+public class BinarySimulationConfig implements SimulationConfig {
+
+    final static int MAGIC = 0x41314A54;
+    final static int VERSION = 3;
+    final static int HEADER_SIZE = 32;
+    final static int FLAG_ARRIVAL_ORDERED = 1;
+    final static int FLAG_BURSTS = 2;
+    final static int FLAG_TICKETS = 4;
+
+    private final int contextSwitchTime;
+    private final boolean arrivalOrdered;
+    private final int jobCount;
+    private final IntBuffer ids;
+    private final IntBuffer arrivalTimes;
+    private final IntBuffer serviceTimes;
+    private final IntBuffer tickets; //null if every job has the default tickets
+    private final IntBuffer burstStarts; //null if no job has bursts
+    private final IntBuffer burstValues;
+
+    /**
+     * Creates a simulation config by memory mapping a binary trace.
+     *
+     * @param file The binary trace
+     * @throws FileNotFoundException Thrown if the file does not exist
+     * @throws IOException Thrown if the file cannot be read or is not a valid binary trace
+     */
+    public BinarySimulationConfig(Path file) throws IOException {
+        if(!Files.isRegularFile(file))
+            throw new FileNotFoundException(file.toString());
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(HEADER_SIZE, channel.size()));
+            if(header.limit() < HEADER_SIZE || header.getInt(0)!=MAGIC)
+                throw new IOException("Not a binary job trace");
+            if(header.getInt(4)!=VERSION)
+                throw new IOException("Unsupported binary job trace version "+header.getInt(4));
+
+            this.arrivalOrdered = (header.getInt(8) & FLAG_ARRIVAL_ORDERED) != 0;
+            this.contextSwitchTime = header.getInt(12);
+            long count = header.getLong(16);
+            if(count < 0 || count >= Integer.MAX_VALUE / Integer.BYTES)
+                throw new IOException("Invalid number of jobs in trace "+count);
+            this.jobCount = (int) count;
+            boolean hasBursts = (header.getInt(8) & FLAG_BURSTS) != 0;
+            boolean hasTickets = (header.getInt(8) & FLAG_TICKETS) != 0;
+            long burstCount = header.getLong(24);
+            if(burstCount < 0 || burstCount > Integer.MAX_VALUE / Integer.BYTES)
+                throw new IOException("Invalid number of bursts in trace "+burstCount);
+            long columnSize = (long) Integer.BYTES * jobCount;
+            long size = HEADER_SIZE + 3 * columnSize;
+            if(hasTickets)
+                size += columnSize;
+            if(hasBursts)
+                size += columnSize + Integer.BYTES * (1 + burstCount);
+            if(channel.size() < size)
+                throw new IOException("Binary job trace is truncated");
+
+            //the mapping stays valid after the channel is closed
+            this.ids = mapColumn(channel, HEADER_SIZE, jobCount);
+            this.arrivalTimes = mapColumn(channel, HEADER_SIZE + columnSize, jobCount);
+            this.serviceTimes = mapColumn(channel, HEADER_SIZE + 2 * columnSize, jobCount);
+            long position = HEADER_SIZE + 3 * columnSize;
+            if(hasTickets) {
+                this.tickets = mapColumn(channel, position, jobCount);
+                position += columnSize;
+            } else {
+                this.tickets = null;
+            }
+            if(hasBursts) {
+                this.burstStarts = mapColumn(channel, position, jobCount + 1);
+                this.burstValues = mapColumn(channel, position + columnSize + Integer.BYTES, (int) burstCount);
+            } else {
+                this.burstStarts = null;
+                this.burstValues = null;
+            }
+        }
+    }
+
+    private static IntBuffer mapColumn(FileChannel channel, long position, int length) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, (long) Integer.BYTES * length).asIntBuffer();
+    }
+
+    /**
+     * Checks whether a file is a binary job trace by looking at the magic number at the start of the file
+     *
+     * @param file The file to check
+     * @return Whether the file starts with the binary job trace magic number
+     * @throws IOException Thrown if the file cannot be read
+     */
+    public static boolean isBinaryTrace(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+            while (magic.hasRemaining() && channel.read(magic) >= 0);
+            return !magic.hasRemaining() && magic.getInt(0)==MAGIC;
+        }
+    }
+
+    @Override
+    public int getContextSwitchTime() {
+        return contextSwitchTime;
+    }
+
+    /**
+     * @return A view of the jobs in the trace, each job is read from the mapped file when it is accessed
+     */
+    @Override
+    public Collection<Job> getJobs() {
+        return new AbstractList<Job>() {
+            @Override
+            public Job get(int index) {
+                int jobTickets = tickets==null ? Job.DEFAULT_TICKETS : tickets.get(index);
+                int[] bursts = getBursts(index);
+                if(bursts!=null)
+                    return new Job(ids.get(index), arrivalTimes.get(index), bursts, jobTickets);
+                return new Job(ids.get(index), arrivalTimes.get(index), serviceTimes.get(index), jobTickets);
+            }
+
+            @Override
+            public int size() {
+                return jobCount;
+            }
+        };
+    }
+
+    /**
+     * @return The bursts of the job at the index, or null if it has a single CPU burst
+     */
+    private int[] getBursts(int index) {
+        if(burstStarts==null)
+            return null;
+        int start = burstStarts.get(index);
+        int end = burstStarts.get(index + 1);
+        if(start==end)
+            return null;
+        if(start<0 || end<start || end>burstValues.limit())
+            throw new IllegalStateException("Invalid bursts for job "+ids.get(index)+" in binary job trace");
+        int[] bursts = new int[end - start];
+        for(int i = 0; i < bursts.length; i++) {
+            bursts[i] = burstValues.get(start + i);
+        }
+        return bursts;
+    }
+
+    @Override
+    public boolean isArrivalOrdered() {
+        return arrivalOrdered;
+    }
+}
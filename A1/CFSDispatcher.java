@@ -0,0 +1,217 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * File: CFSDispatcher.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Represents a dispatcher running a version of the Linux Completely Fair Scheduler. Each process has a virtual runtime, the time it has run scaled
+ * down by its weight, and the process with the lowest virtual runtime is always the one picked. The weight of a process is its tickets, see
+ * {@link Job#getTickets()}, so a process with the default tickets has a virtual runtime equal to the time it has run.
+ *
+ * Rather than a fixed time quanta, each process runs for its share of a target latency, the time in which every runnable process should get to run
+ * once. With many runnable processes the share is never less than a minimum granularity, so processes are not switched more often than is worthwhile.
+ * The time of a context switch is charged to the virtual runtime of the process being switched in, so a process that is switched in often pays for it.
+ * The minimum granularity is never less than {@link #SWITCH_GRANULARITY} context switches, otherwise with slow switches most of a slice would be spent
+ * switching. The slice is worked out once every process arriving at the same time has been admitted, so they all count towards its share.
+ *
+ * The waiting processes are kept in a red-black tree ({@link TreeSet}) ordered by virtual runtime, then by process id, so picking and adding a
+ * process take O(log n) time. A process that arrives starts at the lowest virtual runtime of any runnable process, so it cannot claim the processor
+ * for the time it was not there. A process woken from I/O keeps its own virtual runtime, but is given a sleeper credit of up to half the target
+ * latency behind the lowest, so a process that mostly waits on I/O gets to run soon after it wakes. If an arriving or woken process is more than the
+ * minimum granularity behind the running process then it preempts it.
+ */
+public class CFSDispatcher extends SingleCoreDispatcher {
+
+    final static int TARGET_LATENCY = 20;
+    final static int MIN_GRANULARITY = 2;
+    final static int SWITCH_GRANULARITY = 4; //the minimum granularity is at least this many context switches
+    private final static int SCALE = 1 << 10; //fixed point bits of the virtual runtimes
+
+    private final int targetLatency;
+    private final int minGranularity;
+    private final TreeSet<Process> processTree;
+    private long[] virtualRuntimes; //the virtual runtime of the process in each slot
+    private long minVirtualRuntime; //never goes backwards
+    private long totalWeight; //the weight of every runnable process, including the running process
+    private int deferredTime; //when the slice of the running process was last put off until arrivals at the same time were admitted
+
+    /**
+     * Creates a CFS dispatcher with a target latency of 20 and a minimum granularity of 2, or of 4 context switches if that is longer
+     *
+     * @param contextSwitchTime The time taken to swap processes
+     */
+    public CFSDispatcher(int contextSwitchTime) {
+        this("CFS", contextSwitchTime, TARGET_LATENCY, MIN_GRANULARITY);
+    }
+
+    /**
+     * Creates a CFS dispatcher
+     *
+     * @param name The name of the algorithm being used
+     * @param contextSwitchTime The time taken to swap processes
+     * @param targetLatency The time in which every runnable process should run once
+     * @param minGranularity The least time a process runs before it can be switched out, raised to {@link #SWITCH_GRANULARITY} context switches
+     *                       if that is longer. The target latency is never less than this.
+     * @throws IllegalArgumentException if the target latency or minimum granularity is not positive
+     */
+    public CFSDispatcher(String name, int contextSwitchTime, int targetLatency, int minGranularity) {
+        super(name, contextSwitchTime);
+        if(targetLatency<1 || minGranularity<1)
+            throw new IllegalArgumentException("Target latency and minimum granularity must be positive, got "+targetLatency+" and "+minGranularity);
+        this.minGranularity = Math.max(minGranularity, SWITCH_GRANULARITY * contextSwitchTime);
+        this.targetLatency = Math.max(targetLatency, this.minGranularity);
+        this.virtualRuntimes = new long[16];
+        //a process is only in the tree while its virtual runtime does not change
+        this.processTree = new TreeSet<>((a, b) -> {
+            int compare = Long.compare(getVirtualRuntime(a), getVirtualRuntime(b));
+            return compare!=0 ? compare : Integer.compare(a.getProcessId(), b.getProcessId());
+        });
+        this.minVirtualRuntime = 0;
+        this.totalWeight = 0;
+        this.deferredTime = -1;
+    }
+
+    @Override
+    protected void handleArrival(Process process) {
+        if(process.getResponseTime()>=0) {
+            //woken from I/O, the sleeper credit lets it run before the others but not for all the time it was blocked
+            long sleeperCredit = (long) targetLatency * SCALE / 2;
+            setVirtualRuntime(process, Math.max(getVirtualRuntime(process), minVirtualRuntime - sleeperCredit));
+        } else {
+            setVirtualRuntime(process, minVirtualRuntime);
+        }
+        totalWeight += process.getTickets();
+        processTree.add(process);
+
+        Process runningProcess = getRunningProcess();
+        if(runningProcess!=null) {
+            //the running process has not been charged since it started, so work out where it would be now
+            long ran = Math.max(0, getTime() - runningProcess.getLastStarted());
+            long current = getVirtualRuntime(runningProcess) + toVirtual(runningProcess, ran);
+            if(getVirtualRuntime(process) < current - toVirtual(process, minGranularity))
+                preempt();
+        }
+    }
+
+    @Override
+    protected Process selectProcess() {
+        Process runningProcess = getRunningProcess();
+        if(runningProcess!=null) {
+            //charge the running process for the time it ran
+            charge(runningProcess, getTime() - runningProcess.getLastStarted());
+            if(runningProcess.willFinish(getTime())) {
+                totalWeight -= runningProcess.getTickets();
+            } else if(deferredTime==getTime() && runningProcess.getLastStarted()==getTime()) {
+                //only stopped to work out its slice, it has already paid for being switched in
+                return null;
+            } else if(processTree.isEmpty() || getVirtualRuntime(runningProcess) <= getVirtualRuntime(processTree.first())) {
+                //still the fairest choice, so it carries on without a context switch
+                updateMinVirtualRuntime(runningProcess);
+                return null;
+            }
+        }
+
+        Process process = processTree.pollFirst();
+        if(process==null)
+            return null;
+        updateMinVirtualRuntime(process);
+        charge(process, getContextSwitchTime());
+        return process;
+    }
+
+    @Override
+    protected void readmitProcess(Process process) {
+        //already charged when the next process was picked
+        processTree.add(process);
+    }
+
+    @Override
+    protected void scheduleTask(Process process) {
+        process.setStartExecuting(getTime());
+        if(deferredTime!=getTime() && getNextEventTime()<=getTime()) {
+            //processes arriving now have not been admitted yet, so the slice is worked out after they have been
+            deferredTime = getTime();
+            scheduleInterrupt(process.getProcessId(), getTime());
+            return;
+        }
+        //the share of the target latency of this process, it keeps running for as long as nothing else is waiting
+        long slice = Math.max(minGranularity, targetLatency * process.getTickets() / totalWeight);
+        process.setTimeQuanta((int) slice);
+        int finishTime = getTime() + process.getRemainingTime();
+        int sliceTime = processTree.isEmpty() ? skipQuanta(process) : getTime() + process.getTimeQuanta();
+        scheduleInterrupt(process.getProcessId(), Math.min(finishTime, sliceTime));
+    }
+
+    private void charge(Process process, long time) {
+        setVirtualRuntime(process, getVirtualRuntime(process) + toVirtual(process, time));
+    }
+
+    private static long toVirtual(Process process, long time) {
+        return time * SCALE * Job.DEFAULT_TICKETS / process.getTickets();
+    }
+
+    /**
+     * The lowest virtual runtime moves forward to the lowest of the process about to run and every waiting process
+     */
+    private void updateMinVirtualRuntime(Process running) {
+        long lowest = getVirtualRuntime(running);
+        if(!processTree.isEmpty())
+            lowest = Math.min(lowest, getVirtualRuntime(processTree.first()));
+        minVirtualRuntime = Math.max(minVirtualRuntime, lowest);
+    }
+
+    private long getVirtualRuntime(Process process) {
+        return virtualRuntimes[process.getSlot()];
+    }
+
+    private void setVirtualRuntime(Process process, long virtualRuntime) {
+        int slot = process.getSlot();
+        if(slot>=virtualRuntimes.length)
+            virtualRuntimes = Arrays.copyOf(virtualRuntimes, Math.max(slot + 1, virtualRuntimes.length * 2));
+        virtualRuntimes[slot] = virtualRuntime;
+    }
+
+    @Override
+    protected void writeState(DataOutput out) throws IOException {
+        super.writeState(out);
+        out.writeLong(minVirtualRuntime);
+        out.writeInt(deferredTime);
+        //blocked processes keep their virtual runtime for when they wake, so every slot is saved
+        out.writeInt(virtualRuntimes.length);
+        for(long virtualRuntime : virtualRuntimes) {
+            out.writeLong(virtualRuntime);
+        }
+        writeProcesses(out, new ArrayList<>(processTree));
+    }
+
+    @Override
+    protected void readState(DataInput in) throws IOException {
+        super.readState(in);
+        minVirtualRuntime = in.readLong();
+        deferredTime = in.readInt();
+        int slots = in.readInt();
+        if(slots<0)
+            throw new IOException("Invalid number of virtual runtimes "+slots);
+        virtualRuntimes = new long[Math.max(slots, 16)];
+        for(int i = 0; i < slots; i++) {
+            virtualRuntimes[i] = in.readLong();
+        }
+        totalWeight = 0;
+        Process runningProcess = getRunningProcess();
+        if(runningProcess!=null)
+            totalWeight += runningProcess.getTickets();
+        processTree.clear();
+        List<Process> processes = readProcesses(in);
+        for(Process process : processes) {
+            totalWeight += process.getTickets();
+        }
+        processTree.addAll(processes);
+    }
+}
@@ -0,0 +1,110 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+
+/**
+ * File: CheckpointPlan.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Decides how {@link A1} starts and runs each algorithm with checkpoints, see {@link Dispatcher#checkpoint(Path)}. An algorithm can be started from the
+ * beginning, carried on from its own checkpoint, or forked from any checkpoint. While it runs it can save a checkpoint after every interval of simulated
+ * time, so a long simulation can be carried on if it is stopped.
+ */
+public class CheckpointPlan {
+
+    private final static int DEFAULT_INTERVAL = 100000;
+    private final static String EXTENSION = ".ckpt";
+
+    private final Path directory;
+    private final int interval;
+    private final boolean resume;
+    private final Path forkFile;
+
+    /**
+     * Creates a new checkpoint plan
+     *
+     * @param directory The directory each algorithm saves its checkpoint to and resumes from, or null to not save checkpoints
+     * @param interval The simulated time between each checkpoint
+     * @param resume Whether to carry on each algorithm from its checkpoint in the directory, if there is one
+     * @param forkFile A checkpoint to start every algorithm from, or null to not fork
+     * @throws IllegalArgumentException if the interval is not positive, or resuming without a directory
+     */
+    public CheckpointPlan(Path directory, int interval, boolean resume, Path forkFile) {
+        if(interval<1)
+            throw new IllegalArgumentException("Checkpoint interval must be positive, got "+interval);
+        if(resume && directory==null)
+            throw new IllegalArgumentException("A checkpoint directory is needed to resume");
+        this.directory = directory;
+        this.interval = interval;
+        this.resume = resume;
+        this.forkFile = forkFile;
+    }
+
+    /**
+     * Creates a checkpoint plan from the options given to {@link A1}
+     *   --checkpoints=[directory]  save a checkpoint of each algorithm to the directory
+     *   --checkpoint-every=[time]  the simulated time between each checkpoint, defaults to 100000
+     *   --resume                   carry on each algorithm from its checkpoint in the directory
+     *   --fork=[file]              start every algorithm from the given checkpoint
+     *
+     * @param options The options
+     * @return The checkpoint plan
+     * @throws IllegalArgumentException if an option is not valid
+     */
+    static CheckpointPlan parse(Map<String,String> options) {
+        Path directory = options.containsKey("checkpoints") ? Paths.get(options.get("checkpoints")) : null;
+        int interval = DEFAULT_INTERVAL;
+        if(options.containsKey("checkpoint-every")) {
+            try {
+                interval = Integer.parseInt(options.get("checkpoint-every"));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid checkpoint interval '"+options.get("checkpoint-every")+"'");
+            }
+        }
+        Path forkFile = options.containsKey("fork") ? Paths.get(options.get("fork")) : null;
+        return new CheckpointPlan(directory, interval, options.containsKey("resume"), forkFile);
+    }
+
+    /**
+     * Adds the jobs to a dispatcher and runs it to the end, starting and saving checkpoints as planned.
+     *
+     * @param dispatcher The algorithm to run
+     * @param config The simulation input
+     * @throws IOException Thrown if a checkpoint cannot be read or saved
+     */
+    void run(Dispatcher dispatcher, SimulationConfig config) throws IOException {
+        Path checkpoint = directory==null ? null : directory.resolve(A1.getFileName(dispatcher)+EXTENSION);
+        boolean resuming = resume && Files.isRegularFile(checkpoint);
+        if(resuming || forkFile!=null) {
+            //jobs added one at a time are held in the checkpoint, streamed jobs must be added again
+            if(config.isArrivalOrdered())
+                dispatcher.addJobs(config.getJobs().iterator());
+            if(resuming) {
+                dispatcher.resume(checkpoint);
+            } else {
+                dispatcher.fork(forkFile);
+            }
+        } else {
+            A1.addJobs(dispatcher, config);
+        }
+
+        if(checkpoint==null) {
+            dispatcher.run();
+            return;
+        }
+
+        Files.createDirectories(directory);
+        Path partial = directory.resolve(A1.getFileName(dispatcher)+EXTENSION+".tmp");
+        long endTime = (long) dispatcher.getTime() + interval;
+        while (!dispatcher.runUntil((int) Math.min(endTime, Integer.MAX_VALUE))) {
+            //the old checkpoint is only replaced once the new one is complete
+            dispatcher.checkpoint(partial);
+            Files.move(partial, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            endTime += interval;
+        }
+    }
+}
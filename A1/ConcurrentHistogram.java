@@ -0,0 +1,99 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * File: ConcurrentHistogram.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Counts non-negative values in buckets of powers of two, so it can be read by another thread while values are being recorded. Bucket 0 counts zeros
+ * and bucket i counts values from 2^(i-1) to 2^i - 1. Values must only be recorded by one thread, which lets each count be updated with a plain
+ * ordered write rather than a lock or an atomic add. Reading from any thread sees counts that are at most a few values behind.
+ *
+ * Unlike a {@link QuantileSketch} quantiles are only accurate to within a factor of two, in exchange for a small fixed size and no locking.
+ */
+public class ConcurrentHistogram {
+
+    private final static int BUCKETS = Long.SIZE;
+
+    private final AtomicLongArray buckets;
+    private final AtomicLong count;
+    private final AtomicLong sum;
+    private final AtomicLong max;
+
+    /**
+     * Creates an empty histogram
+     */
+    public ConcurrentHistogram() {
+        this.buckets = new AtomicLongArray(BUCKETS);
+        this.count = new AtomicLong();
+        this.sum = new AtomicLong();
+        this.max = new AtomicLong();
+    }
+
+    /**
+     * Records a value, this must only be called by one thread
+     *
+     * @param value The value to record, negative values are recorded as 0
+     */
+    public void record(long value) {
+        value = Math.max(0, value);
+        int bucket = Long.SIZE - Long.numberOfLeadingZeros(value);
+        buckets.lazySet(bucket, buckets.get(bucket) + 1);
+        sum.lazySet(sum.get() + value);
+        if(value > max.get())
+            max.lazySet(value);
+        count.lazySet(count.get() + 1);
+    }
+
+    /**
+     * @return The number of values recorded
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return The mean of the values recorded, or 0 if there are none
+     */
+    public double getMean() {
+        long count = getCount();
+        return count==0 ? 0 : (double) sum.get() / count;
+    }
+
+    /**
+     * @return The largest value recorded, or 0 if there are none
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Estimates the value at a quantile as the largest value of the bucket it falls in, so the true value is at most this and more than half of it.
+     *
+     * @param quantile The quantile between 0 and 1, for example 0.99 for the 99th percentile
+     * @return The estimated value at the quantile, or 0 if there are no values
+     * @throws IllegalArgumentException if the quantile is not between 0 and 1
+     */
+    public long getQuantile(double quantile) {
+        if(quantile<0 || quantile>1)
+            throw new IllegalArgumentException("Quantile must be between 0 and 1, got "+quantile);
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for(int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if(total==0)
+            return 0;
+
+        long rank = (long) (quantile * (total - 1));
+        long seen = 0;
+        for(int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if(seen > rank)
+                return Math.min(getMax(), (1L << i) - 1);
+        }
+        return getMax();
+    }
+}
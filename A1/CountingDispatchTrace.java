@@ -0,0 +1,75 @@
+import java.util.Arrays;
+
+/**
+ * File: CountingDispatchTrace.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * A {@link DispatchTrace} which only keeps running totals of the dispatches, the number made in total and on each core and the time of the
+ * first and last dispatch.
+ */
+public class CountingDispatchTrace implements DispatchTrace {
+
+    private long dispatches;
+    private long[] coreDispatches;
+    private int firstTime;
+    private int lastTime;
+
+    /**
+     * Creates a new counting dispatch trace
+     */
+    public CountingDispatchTrace() {
+        this.dispatches = 0;
+        this.coreDispatches = new long[1];
+        this.firstTime = 0;
+        this.lastTime = 0;
+    }
+
+    @Override
+    public void dispatched(int time, int processId, int core) {
+        if(dispatches==0)
+            firstTime = time;
+        dispatches++;
+        lastTime = time;
+
+        int index = Math.max(core, 0);
+        if(index >= coreDispatches.length)
+            coreDispatches = Arrays.copyOf(coreDispatches, Math.max(index + 1, coreDispatches.length * 2));
+        coreDispatches[index]++;
+    }
+
+    @Override
+    public void flush() {
+        //nothing is buffered
+    }
+
+    /**
+     * @return The total number of dispatches
+     */
+    public long getDispatches() {
+        return dispatches;
+    }
+
+    /**
+     * @param core The core, or {@link #SINGLE_CORE}
+     * @return The number of dispatches to the core
+     */
+    public long getDispatches(int core) {
+        int index = Math.max(core, 0);
+        return index < coreDispatches.length ? coreDispatches[index] : 0;
+    }
+
+    /**
+     * @return The time of the first dispatch, or 0 if there have been none
+     */
+    public int getFirstTime() {
+        return firstTime;
+    }
+
+    /**
+     * @return The time of the last dispatch, or 0 if there have been none
+     */
+    public int getLastTime() {
+        return lastTime;
+    }
+}
@@ -0,0 +1,241 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * File: DeadlineStatistics.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Keeps statistics about the deadlines of the releases of each {@link PeriodicTask}, as each release finishes. For every task this counts the releases
+ * which finished and which missed their deadline, the worst lateness, and a histogram of response times in buckets of powers of two like
+ * {@link ConcurrentHistogram}. Bucket 0 counts zeros and bucket i counts response times from 2^(i-1) to 2^i - 1.
+ *
+ * The statistics of every task are kept together in parallel arrays indexed by the task, the same way as a {@link ProcessTable}, so many thousands of
+ * tasks can be tracked without an object for each.
+ */
+public class DeadlineStatistics {
+
+    /**
+     * The number of buckets in the response time histogram of each task
+     */
+    public final static int BUCKETS = Integer.SIZE;
+
+    private int tasks; //one more than the highest task recorded
+    private int[] releases;
+    private int[] misses;
+    private int[] maxResponses;
+    private int[] maxLateness;
+    private int[] histograms; //BUCKETS counts for each task in turn
+    private long totalReleases;
+    private long totalMisses;
+
+    /**
+     * Creates new statistics with no releases
+     */
+    public DeadlineStatistics() {
+        this.tasks = 0;
+        this.releases = new int[0];
+        this.misses = new int[0];
+        this.maxResponses = new int[0];
+        this.maxLateness = new int[0];
+        this.histograms = new int[0];
+        this.totalReleases = 0;
+        this.totalMisses = 0;
+    }
+
+    /**
+     * Records a release which has finished
+     *
+     * @param task The index of the task which released it
+     * @param responseTime The time from the release to when it finished
+     * @param lateness The time from its deadline to when it finished, positive if the deadline was missed
+     */
+    public void add(int task, int responseTime, int lateness) {
+        if(task>=releases.length)
+            grow(task + 1);
+        tasks = Math.max(tasks, task + 1);
+        releases[task]++;
+        totalReleases++;
+        if(lateness>0) {
+            misses[task]++;
+            totalMisses++;
+        }
+        if(releases[task]==1) {
+            maxResponses[task] = responseTime;
+            maxLateness[task] = lateness;
+        } else {
+            maxResponses[task] = Math.max(maxResponses[task], responseTime);
+            maxLateness[task] = Math.max(maxLateness[task], lateness);
+        }
+        histograms[task * BUCKETS + getBucket(responseTime)]++;
+    }
+
+    private static int getBucket(int responseTime) {
+        return Math.min(BUCKETS - 1, Integer.SIZE - Integer.numberOfLeadingZeros(Math.max(0, responseTime)));
+    }
+
+    private void grow(int capacity) {
+        capacity = Math.max(capacity, releases.length * 2);
+        releases = Arrays.copyOf(releases, capacity);
+        misses = Arrays.copyOf(misses, capacity);
+        maxResponses = Arrays.copyOf(maxResponses, capacity);
+        maxLateness = Arrays.copyOf(maxLateness, capacity);
+        histograms = Arrays.copyOf(histograms, capacity * BUCKETS);
+    }
+
+    /**
+     * @return The number of tasks, one more than the highest task with a release recorded
+     */
+    public int getTasks() {
+        return tasks;
+    }
+
+    /**
+     * @return The number of releases of every task which have finished
+     */
+    public long getReleases() {
+        return totalReleases;
+    }
+
+    /**
+     * @return The number of releases of every task which missed their deadline
+     */
+    public long getMisses() {
+        return totalMisses;
+    }
+
+    /**
+     * @return The fraction of releases which missed their deadline, or 0 if there are none
+     */
+    public double getMissRatio() {
+        return totalReleases==0 ? 0 : (double) totalMisses / totalReleases;
+    }
+
+    /**
+     * @return The number of tasks which missed at least one deadline
+     */
+    public int getTasksMissed() {
+        int missed = 0;
+        for(int task = 0; task < tasks; task++) {
+            if(misses[task]>0)
+                missed++;
+        }
+        return missed;
+    }
+
+    /**
+     * @param task The index of the task
+     * @return The number of releases of the task which have finished
+     */
+    public int getReleases(int task) {
+        return task<tasks ? releases[task] : 0;
+    }
+
+    /**
+     * @param task The index of the task
+     * @return The number of releases of the task which missed their deadline
+     */
+    public int getMisses(int task) {
+        return task<tasks ? misses[task] : 0;
+    }
+
+    /**
+     * @param task The index of the task
+     * @return The longest response time of a release of the task, or 0 if none have finished
+     */
+    public int getMaxResponseTime(int task) {
+        return task<tasks ? maxResponses[task] : 0;
+    }
+
+    /**
+     * @param task The index of the task
+     * @return The latest any release of the task finished after its deadline, negative if every deadline was met, or 0 if none have finished
+     */
+    public int getMaxLateness(int task) {
+        return task<tasks ? maxLateness[task] : 0;
+    }
+
+    /**
+     * @param task The index of the task
+     * @param bucket The bucket of the histogram, see {@link DeadlineStatistics}
+     * @return The number of releases of the task with a response time in the bucket
+     */
+    public int getResponseCount(int task, int bucket) {
+        return task<tasks ? histograms[task * BUCKETS + bucket] : 0;
+    }
+
+    /**
+     * Estimates a quantile of the response times of a task from its histogram. This is the top of the bucket the quantile falls in, so is at most
+     * twice the true value, but never more than the longest response time.
+     *
+     * @param task The index of the task
+     * @param quantile The quantile between 0 and 1, for example 0.99 for the 99th percentile
+     * @return The estimated response time at the quantile, or 0 if no releases have finished
+     */
+    public int getResponseQuantile(int task, double quantile) {
+        int count = getReleases(task);
+        if(count==0)
+            return 0;
+        long rank = (long) Math.ceil(quantile * count);
+        long seen = 0;
+        for(int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += histograms[task * BUCKETS + bucket];
+            if(seen>=rank)
+                return (int) Math.min(maxResponses[task], (1L << bucket) - 1);
+        }
+        return maxResponses[task];
+    }
+
+    /**
+     * Writes the statistics so they can be carried on with later
+     *
+     * @param out Where to write the statistics
+     * @throws IOException Thrown if the statistics cannot be written
+     */
+    void write(DataOutput out) throws IOException {
+        out.writeInt(tasks);
+        for(int task = 0; task < tasks; task++) {
+            out.writeInt(releases[task]);
+            out.writeInt(misses[task]);
+            out.writeInt(maxResponses[task]);
+            out.writeInt(maxLateness[task]);
+            for(int bucket = 0; bucket < BUCKETS; bucket++) {
+                out.writeInt(histograms[task * BUCKETS + bucket]);
+            }
+        }
+    }
+
+    /**
+     * Replaces the statistics with ones written by {@link #write(DataOutput)}
+     *
+     * @param in Where to read the statistics from
+     * @throws IOException Thrown if the statistics cannot be read
+     */
+    void read(DataInput in) throws IOException {
+        int tasks = in.readInt();
+        if(tasks<0)
+            throw new IOException("Invalid number of tasks "+tasks);
+        this.tasks = 0;
+        this.releases = new int[tasks];
+        this.misses = new int[tasks];
+        this.maxResponses = new int[tasks];
+        this.maxLateness = new int[tasks];
+        this.histograms = new int[tasks * BUCKETS];
+        this.totalReleases = 0;
+        this.totalMisses = 0;
+        for(int task = 0; task < tasks; task++) {
+            releases[task] = in.readInt();
+            misses[task] = in.readInt();
+            maxResponses[task] = in.readInt();
+            maxLateness[task] = in.readInt();
+            for(int bucket = 0; bucket < BUCKETS; bucket++) {
+                histograms[task * BUCKETS + bucket] = in.readInt();
+            }
+            totalReleases += releases[task];
+            totalMisses += misses[task];
+        }
+        this.tasks = tasks;
+    }
+}
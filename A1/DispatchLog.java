@@ -0,0 +1,300 @@
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * File: DispatchLog.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Reads a binary log written by a {@link BinaryDispatchTrace}. The log can be seeked to any time to find which processes were running and which were
+ * ready at that time. Rather than reading the log from the start, reading begins at the latest checkpoint before the time, found with the index,
+ * and only the parts of the log after it with records at or before the time are read.
+ */
+public class DispatchLog implements Closeable {
+
+    private final FileChannel log;
+    private final int[] latestTimes;
+    private final int[] earliestTimes; //the earliest time of any record from each checkpoint onwards
+    private final long[] offsets;
+
+    /**
+     * Opens a dispatch log and reads its index
+     *
+     * @param file The log, its index must be next to it
+     * @throws FileNotFoundException Thrown if the log or its index does not exist
+     * @throws IOException Thrown if the log or index cannot be read or are not valid
+     */
+    public DispatchLog(Path file) throws IOException {
+        Path indexFile = BinaryDispatchTrace.getIndexFile(file);
+        if(!Files.isRegularFile(file))
+            throw new FileNotFoundException(file.toString());
+        if(!Files.isRegularFile(indexFile))
+            throw new FileNotFoundException(indexFile.toString());
+
+        ByteBuffer index = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+        if(index.remaining() < BinaryDispatchTrace.HEADER_SIZE || index.getInt()!=BinaryDispatchTrace.INDEX_MAGIC)
+            throw new IOException("Not a dispatch log index");
+        if(index.getInt()!=BinaryDispatchTrace.VERSION)
+            throw new IOException("Unsupported dispatch log index version");
+        int entries = index.remaining() / BinaryDispatchTrace.INDEX_ENTRY_SIZE;
+        if(entries==0)
+            throw new IOException("Dispatch log index has no checkpoints");
+        this.latestTimes = new int[entries];
+        this.earliestTimes = new int[entries];
+        this.offsets = new long[entries];
+        for(int i = 0; i < entries; i++) {
+            latestTimes[i] = index.getInt();
+            earliestTimes[i] = index.getInt();
+            offsets[i] = index.getLong();
+        }
+        for(int i = entries - 2; i >= 0; i--) {
+            earliestTimes[i] = Math.min(earliestTimes[i], earliestTimes[i + 1]);
+        }
+
+        this.log = FileChannel.open(file, StandardOpenOption.READ);
+        ByteBuffer header = ByteBuffer.allocate(BinaryDispatchTrace.HEADER_SIZE);
+        while (header.hasRemaining() && log.read(header) >= 0);
+        header.flip();
+        if(header.remaining() < BinaryDispatchTrace.HEADER_SIZE || header.getInt()!=BinaryDispatchTrace.MAGIC || header.getInt()!=BinaryDispatchTrace.VERSION) {
+            log.close();
+            throw new IOException("Not a dispatch log");
+        }
+    }
+
+    /**
+     * Prints the running and ready processes at a time in a dispatch log.
+     *
+     * @param args args[0] = log file name, args[1] = time
+     */
+    public static void main(String[] args) {
+        if(args.length<2) {
+            System.err.println("Usage: DispatchLog [log file] [time]");
+            return;
+        }
+
+        int time;
+        try {
+            time = Integer.parseInt(args[1]);
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid time '"+args[1]+"'");
+            return;
+        }
+
+        try (DispatchLog log = new DispatchLog(Paths.get(args[0]))) {
+            State state = log.seek(time);
+            System.out.println("Time: "+state.getTime());
+            StringBuilder running = new StringBuilder("Running:");
+            for(Map.Entry<Integer,Integer> entry : state.getRunningProcesses().entrySet()) {
+                running.append(' ');
+                if(entry.getKey()!=DispatchTrace.SINGLE_CORE)
+                    running.append("c").append(entry.getKey()).append('=');
+                running.append('p').append(entry.getValue());
+            }
+            System.out.println(running);
+            StringBuilder ready = new StringBuilder("Ready:");
+            for(int processId : state.getReadyProcesses()) {
+                ready.append(" p").append(processId);
+            }
+            System.out.println(ready);
+        } catch (IOException e) {
+            System.err.println("Could not read '"+args[0]+"': "+e.getMessage());
+        }
+    }
+
+    /**
+     * Finds the running and ready processes at the given time. This is the state after every record at or before the time, in the order they were
+     * written, ignoring every record later than the time.
+     *
+     * @param time The time to seek to
+     * @return The running and ready processes at the time
+     * @throws IOException Thrown if the log cannot be read or is not valid
+     */
+    public State seek(int time) throws IOException {
+        //the last checkpoint where every record before it is at or before the time
+        int low = 0;
+        int high = latestTimes.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if(latestTimes[middle] <= time) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        State state = new State();
+        state.time = time;
+        ByteBuffer records = map(low);
+        if(!records.hasRemaining() || records.get()!=BinaryDispatchTrace.CHECKPOINT)
+            throw new IOException("No checkpoint at offset "+offsets[low]);
+        int lastTime = readCheckpoint(records, state);
+        //records are only slightly out of order, so the rest of the log is skipped once nothing after it is at or before the time
+        for(int checkpoint = low; checkpoint < offsets.length && earliestTimes[checkpoint] <= time; checkpoint++) {
+            if(checkpoint > low) {
+                records = map(checkpoint);
+                records.get();
+                lastTime = readCheckpoint(records, new State());
+            }
+            lastTime = replay(records, lastTime, time, state);
+        }
+        return state;
+    }
+
+    private ByteBuffer map(int checkpoint) throws IOException {
+        long offset = offsets[checkpoint];
+        long end = checkpoint + 1 < offsets.length ? offsets[checkpoint + 1] : log.size();
+        return log.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(end - offset, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Applies each record up to the next checkpoint which is at or before the time
+     *
+     * @return The time of the last record read
+     */
+    private static int replay(ByteBuffer records, int lastTime, int time, State state) throws IOException {
+        while (records.hasRemaining()) {
+            byte type = records.get();
+            if(type==BinaryDispatchTrace.CHECKPOINT)
+                break;
+
+            int recordTime = lastTime + unZigZag(readVarInt(records));
+            int processId = readVarInt(records);
+            int core = type==BinaryDispatchTrace.DISPATCHED ? readVarInt(records) - 1 : 0;
+            lastTime = recordTime;
+            if(recordTime > time)
+                continue;
+            switch (type) {
+                case BinaryDispatchTrace.ARRIVED:
+                    state.arrived(processId);
+                    break;
+                case BinaryDispatchTrace.DISPATCHED:
+                    state.dispatched(processId, core);
+                    break;
+                case BinaryDispatchTrace.FINISHED:
+                    state.finished(processId);
+                    break;
+                case BinaryDispatchTrace.BLOCKED:
+                    state.blocked(processId);
+                    break;
+                default:
+                    throw new IOException("Unknown record type "+type);
+            }
+        }
+        return lastTime;
+    }
+
+    private static int readCheckpoint(ByteBuffer records, State state) {
+        int time = unZigZag(readVarInt(records));
+        int busyCores = readVarInt(records);
+        for(int i = 0; i < busyCores; i++) {
+            int core = readVarInt(records) - 1;
+            state.dispatched(readVarInt(records), core);
+        }
+        int ready = readVarInt(records);
+        for(int i = 0; i < ready; i++) {
+            state.arrived(readVarInt(records));
+        }
+        return time;
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for(int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if(b >= 0)
+                return value;
+        }
+    }
+
+    private static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+
+    /**
+     * The processes running on each core and the processes waiting to run. A process is ready from when it arrives, until it is dispatched,
+     * and again from when another process is dispatched to its core until it is dispatched again. A process blocked on I/O is neither, until it
+     * arrives again. The ready processes are kept in the order
+     * they became ready.
+     */
+    public static class State {
+
+        private int time;
+        private final LinkedHashSet<Integer> ready;
+        private final Map<Integer,Integer> coreProcesses;
+        private final Map<Integer,Integer> processCores;
+
+        State() {
+            this.time = 0;
+            this.ready = new LinkedHashSet<>();
+            this.coreProcesses = new TreeMap<>();
+            this.processCores = new HashMap<>();
+        }
+
+        void arrived(int processId) {
+            ready.add(processId);
+        }
+
+        void dispatched(int processId, int core) {
+            Integer previous = coreProcesses.put(core, processId);
+            if(previous!=null && previous!=processId) {
+                //switched out without finishing
+                processCores.remove(previous);
+                ready.add(previous);
+            }
+            ready.remove(processId);
+            processCores.put(processId, core);
+        }
+
+        void finished(int processId) {
+            ready.remove(processId);
+            Integer core = processCores.remove(processId);
+            if(core!=null)
+                coreProcesses.remove(core);
+        }
+
+        void blocked(int processId) {
+            //neither running nor ready until it arrives again
+            finished(processId);
+        }
+
+        /**
+         * @return The time that was seeked to
+         */
+        public int getTime() {
+            return time;
+        }
+
+        /**
+         * @return The id of each process waiting to run, in the order they became ready
+         */
+        public Collection<Integer> getReadyProcesses() {
+            return Collections.unmodifiableSet(ready);
+        }
+
+        /**
+         * @return The id of the process running on each busy core, by core. A single processor uses {@link DispatchTrace#SINGLE_CORE}
+         */
+        public Map<Integer,Integer> getRunningProcesses() {
+            return Collections.unmodifiableMap(coreProcesses);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * File: DispatchTrace.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Records each time a {@link Dispatcher} admits a process to a processor. What is done with the record is up to the implementation, it could be
+ * written out as text ({@link TextDispatchTrace}), kept in memory ({@link RingBufferDispatchTrace}), counted ({@link CountingDispatchTrace}) or
+ * ignored ({@link NoDispatchTrace}). The trace never changes the result of the simulation.
+ *
+ * Arrivals and finishes are also given to the trace, these are ignored unless the trace needs them, for example {@link BinaryDispatchTrace}
+ * records them so the ready processes at any time can be worked out.
+ */
+public interface DispatchTrace {
+
+    /**
+     * Used as the core for dispatchers that only have a single processor.
+     */
+    int SINGLE_CORE = -1;
+
+    /**
+     * Records that a process has been admitted to a processor
+     *
+     * @param time The time the process starts running, after the context switch
+     * @param processId The id of the process
+     * @param core The core the process was admitted to, or {@link #SINGLE_CORE} if the dispatcher only has one processor
+     */
+    void dispatched(int time, int processId, int core);
+
+    /**
+     * Records that a process has arrived to the dispatcher
+     *
+     * @param time The arrival time
+     * @param processId The id of the process
+     */
+    default void arrived(int time, int processId) {
+        //most traces only record dispatches
+    }
+
+    /**
+     * Records that a process has left the processor to wait for I/O. It is recorded as arriving again when it is woken.
+     *
+     * @param time The time the process blocked
+     * @param processId The id of the process
+     */
+    default void blocked(int time, int processId) {
+        //most traces only record dispatches
+    }
+
+    /**
+     * Records that a process has finished executing
+     *
+     * @param time The time the process finished
+     * @param processId The id of the process
+     */
+    default void finished(int time, int processId) {
+        //most traces only record dispatches
+    }
+
+    /**
+     * Writes out anything that has been buffered. This is called by the dispatcher once the simulation has finished.
+     */
+    void flush();
+}
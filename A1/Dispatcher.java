@@ -1,3 +1,13 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 
 /**
@@ -6,19 +16,45 @@ import java.util.*;
  * Author: Jacob Boyce
  * Course: COMP2240
  * Represents a short term scheduling algorithm. A dispatcher, also known as the short term scheduler decides which process to pick
- * from a pool of available processes to be run on the processor. This is represented using a 'discrete event simulation'. {@link Task} are added to a priority queue.
- * The next task to be run is based on the one with the lowest time.
+ * from a pool of available processes to be run on the processor. This is represented using a 'discrete event simulation'. Events are added to an {@link EventQueue}.
+ * The next event to be run is based on the one with the lowest time. By default each event is a {@link Task} in a priority queue, this can be changed
+ * with {@link #setEventQueue(EventQueue)}.
  *
  * Each dispatcher has a list of jobs that it needs to run over its lifetime. Jobs are added to the dispatcher runtime on their scheduled arrival times. The processes are then 'executed' and
  * once they have been executed then stats will be recorded on them.
  */
 public abstract class Dispatcher {
 
+    private final static int CHECKPOINT_MAGIC = 0x41314B43;
+    private final static int CHECKPOINT_VERSION = 7;
+
     private final String name;
-    private final List<Process> processes;
-    private final PriorityQueue<Task> simulation;
+    private final ProcessTable processes;
+    private EventQueue simulation;
     private int time;
+    private long events;
     private final int contextSwitchTime;
+    private DispatchTrace trace;
+    private Iterator<Job> arrivals;
+    private Job nextArrival;
+    private long[] pendingArrivals; //processes from addJob, packed as [arrival time][slot] and sorted
+    private int nextPending;
+    private long streamedArrivals; //the number of jobs from addJobs that have been added to the simulation
+    private boolean started;
+    private boolean retainProcesses;
+    private final RunningStatistics turnaroundTimes;
+    private final RunningStatistics waitingTimes;
+    private final RunningStatistics responseTimes;
+    private final RunningStatistics waitSegments;
+    private final RunningStatistics preemptions;
+    private final DeadlineStatistics deadlines;
+    private final DispatcherMetrics metrics;
+    private ResultWriter results;
+    private int inSystem; //processes that have arrived but not finished
+    private int blocked; //processes waiting for I/O
+    private long cpuTime; //the service time of every finished process
+    private int firstArrival;
+    private int lastFinish;
 
     /**
      * Creates a new dispatcher
@@ -29,9 +65,24 @@ public abstract class Dispatcher {
     public Dispatcher(String name, int contextSwitchTime) {
         this.name = name;
         this.contextSwitchTime = contextSwitchTime;
-        this.processes = new ArrayList<>();
-        this.simulation = new PriorityQueue<>();
+        this.processes = new ProcessTable();
+        this.simulation = new TaskEventQueue(this);
         this.time = 0;
+        this.events = 0;
+        this.trace = new TextDispatchTrace(System.out);
+        this.retainProcesses = true;
+        this.turnaroundTimes = new RunningStatistics();
+        this.waitingTimes = new RunningStatistics();
+        this.responseTimes = new RunningStatistics();
+        this.waitSegments = new RunningStatistics();
+        this.preemptions = new RunningStatistics();
+        this.deadlines = new DeadlineStatistics();
+        this.metrics = new DispatcherMetrics(name);
+        this.inSystem = 0;
+        this.blocked = 0;
+        this.cpuTime = 0;
+        this.firstArrival = Integer.MAX_VALUE;
+        this.lastFinish = 0;
     }
 
     /**
@@ -42,6 +93,25 @@ public abstract class Dispatcher {
      */
     public abstract void arrive(Process process);
 
+    /**
+     * Runs the arrival of a process, recording it in the trace before the algorithm handles it with {@link #arrive(Process)}. Event queues
+     * should use this when an arrival event is run. If the process is blocked then it is woken, and arrives again for its next CPU burst.
+     *
+     * @param process The process which has arrived
+     */
+    void runArrival(Process process) {
+        if(process.isBlocked()) {
+            blocked--;
+            process.wake();
+            trace.arrived(time, process.getProcessId());
+        } else {
+            trace.arrived(process.getArrivalTime(), process.getProcessId());
+            inSystem++;
+            firstArrival = Math.min(firstArrival, process.getArrivalTime());
+        }
+        arrive(process);
+    }
+
     /**
      * Causes the processor to stop executing the current running task to admit a new one. This could either involve
      *   - The current running process(es) have finished, in that case it should be released
@@ -52,23 +122,217 @@ public abstract class Dispatcher {
      */
     public abstract void interrupt();
 
+    /**
+     * Interrupts the processor running the given process. A single processor only ever runs one process, so by default this is
+     * the same as {@link #interrupt()}. Dispatchers with more than one processor should use the id to find which processor to interrupt.
+     *
+     * @param processId The id of the process that the interrupt was scheduled for
+     */
+    public void interrupt(int processId) {
+        interrupt();
+    }
+
     /**
      * Simulates the dispatcher algorithm being run on the processor(s). This is run using a discrete event simulation
      */
     public void run() {
-        for(Process process : processes) {
-            //add all new arrivals
-            addTask(new ArriveTask(this,process));
+        runUntil(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Runs the simulation up to the given time, every event at or before the time is run. The simulation can then be carried on with another call,
+     * or saved with {@link #checkpoint(Path)}.
+     *
+     * @param endTime The time to run the simulation up to
+     * @return Whether the simulation has finished, that is there are no events left to run
+     * @throws IllegalStateException if the jobs from {@link #addJobs(Iterator)} are not in order of arrival time, the jobs are then closed if they
+     *                               can be, as the simulation cannot carry on
+     */
+    public boolean runUntil(int endTime) {
+        if(!started) {
+            //processes are not queued up front, instead they are fed to the simulation in order of arrival
+            pendingArrivals = new long[processes.size()];
+            for(int slot = 0; slot < pendingArrivals.length; slot++) {
+                pendingArrivals[slot] = ((long) processes.getArrivalTime(slot) << 32) | slot;
+            }
+            Arrays.sort(pendingArrivals);
+            nextPending = 0;
+            started = true;
+        }
+
+        //continue polling events until no more have been added to the queue
+        boolean finished = false;
+        try {
+            while (true) {
+                feedArrivals();
+                if(simulation.isEmpty()) {
+                    finished = true;
+                    break;
+                }
+                if(simulation.nextTime() > endTime)
+                    break;
+                time = simulation.nextTime();
+                simulation.runNext();
+                events++;
+                metrics.eventRun(events, time, simulation.size(), inSystem - blocked - getRunningCount());
+            }
+        } catch (RuntimeException e) {
+            closeArrivals(e);
+            throw e;
         }
+        trace.flush();
+        return finished;
+    }
 
-        //continue polling tasks until no more have been added to the queue
-        while (!simulation.isEmpty()) {
-            Task task = simulation.poll();
-            time = task.getStartTime();
-            task.run();
+    /**
+     * Closes the jobs from {@link #addJobs(Iterator)} when the simulation is aborted, such as a {@link JobReader} which otherwise only closes its
+     * file once every job has been read
+     *
+     * @param cause Why the simulation was aborted, an error closing the jobs is added to it
+     */
+    private void closeArrivals(RuntimeException cause) {
+        if(arrivals instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) arrivals).close();
+            } catch (Exception e) {
+                cause.addSuppressed(e);
+            }
         }
     }
 
+    /**
+     * Queues the arrival of every process which arrives at or before the next event, from both {@link #addJob(Job)} and {@link #addJobs(Iterator)}.
+     * This means the arrivals are run in exactly the same order as if they were all queued up front, while the simulation only holds the events
+     * of processes that have arrived. When the processor is idle the simulation is empty, so it jumps straight to the next arrival.
+     *
+     * @throws IllegalStateException if the jobs from {@link #addJobs(Iterator)} are not in order of arrival time
+     */
+    private void feedArrivals() {
+        while (true) {
+            boolean hasPending = nextPending < pendingArrivals.length;
+            if(!hasPending && nextArrival==null)
+                return;
+            //take whichever of the two arrives first
+            boolean fromPending = hasPending && (nextArrival==null || (int) (pendingArrivals[nextPending] >> 32) <= nextArrival.getArrivalTime());
+            int arrivalTime = fromPending ? (int) (pendingArrivals[nextPending] >> 32) : nextArrival.getArrivalTime();
+            if(!simulation.isEmpty() && arrivalTime > simulation.nextTime())
+                return;
+
+            if(fromPending) {
+                simulation.addArrival(processes.get((int) pendingArrivals[nextPending++]));
+            } else {
+                simulation.addArrival(processes.add(nextArrival));
+                streamedArrivals++;
+
+                Job previous = nextArrival;
+                nextArrival = arrivals.hasNext() ? arrivals.next() : null;
+                if(nextArrival!=null && nextArrival.getArrivalTime() < previous.getArrivalTime())
+                    throw new IllegalStateException("Job "+nextArrival.getId()+" arrives before job "+previous.getId()+", jobs must be in order of arrival time");
+            }
+        }
+    }
+
+    /**
+     * The time of the next thing that could change what the dispatcher does, either the next event in the simulation or the next arrival that has
+     * not been queued yet. This lets an algorithm skip ahead when it knows nothing can happen before then.
+     *
+     * @return The time of the next event or arrival, or {@link Integer#MAX_VALUE} if there are none
+     */
+    protected int getNextEventTime() {
+        int nextTime = simulation.isEmpty() ? Integer.MAX_VALUE : simulation.nextTime();
+        if(pendingArrivals!=null && nextPending < pendingArrivals.length)
+            nextTime = Math.min(nextTime, (int) (pendingArrivals[nextPending] >> 32));
+        if(nextArrival!=null)
+            nextTime = Math.min(nextTime, nextArrival.getArrivalTime());
+        return nextTime;
+    }
+
+    /**
+     * Records the stats of a process once it has finished executing. Implementations must call this exactly once for each process, at the
+     * time the process finishes. If processes are not retained then the process must not be used afterwards.
+     *
+     * @param process The process which has finished
+     */
+    protected void finished(Process process) {
+        turnaroundTimes.add(process.getTurnaroundTime());
+        waitingTimes.add(process.getWaitTime());
+        preemptions.add(process.getPreemptions());
+        if(process.getTask()!=Job.NO_TASK)
+            deadlines.add(process.getTask(), process.getTurnaroundTime(), time - process.getDeadline());
+        if(results!=null)
+            writeResult(process);
+        trace.finished(time, process.getProcessId());
+        inSystem--;
+        cpuTime += process.getServiceTime();
+        lastFinish = Math.max(lastFinish, time);
+        if(retainProcesses)
+            processes.finished(process.getSlot());
+        else
+            processes.release(process);
+    }
+
+    /**
+     * @return The columns of the row written for each process which finishes, see {@link #setResults(ResultWriter)}
+     */
+    public static String[] getResultColumns() {
+        return new String[] {"process", "arrival", "service", "io", "finish", "turnaround", "waiting", "response", "preemptions", "task", "deadline"};
+    }
+
+    private void writeResult(Process process) {
+        try {
+            results.field(process.getDisplayID()).field(process.getArrivalTime()).field(process.getServiceTime()).field(process.getIOTime())
+                    .field(time).field(process.getTurnaroundTime()).field(process.getWaitTime()).field(process.getResponseTime())
+                    .field(process.getPreemptions());
+            if(process.getTask()==Job.NO_TASK) {
+                results.empty().empty();
+            } else {
+                results.field(process.getTask()).field(process.getDeadline());
+            }
+            results.endRow();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Records a process being dispatched to a processor in the trace, the metrics and the statistics about how long processes wait. Implementations
+     * must call this every time a process is dispatched, including when the same process is dispatched again after a context switch.
+     *
+     * @param process The process dispatched
+     * @param startTime The time the process starts running, after the context switch
+     * @param core The processor the process runs on, or {@link DispatchTrace#SINGLE_CORE}
+     */
+    protected void dispatched(Process process, int startTime, int core) {
+        trace.dispatched(startTime, process.getProcessId(), core);
+        metrics.dispatched();
+        boolean firstDispatch = process.getResponseTime()<0;
+        waitSegments.add(process.dispatched(startTime));
+        if(firstDispatch)
+            responseTimes.add(process.getResponseTime());
+    }
+
+    /**
+     * Records a process being taken off a processor for another process before its CPU burst has ended. Implementations must call this before
+     * readmitting the process.
+     *
+     * @param process The process preempted
+     */
+    protected void preempted(Process process) {
+        process.preempted();
+    }
+
+    /**
+     * Takes a process off the processor at the end of a CPU burst, see {@link Job}. The process arrives again once its I/O burst has ended.
+     * Implementations must call this instead of readmitting a process once {@link Process#isBlocked()} is true after it stops executing.
+     *
+     * @param process The process which has blocked
+     */
+    protected void blocked(Process process) {
+        trace.blocked(time, process.getProcessId());
+        blocked++;
+        simulation.addArrival(process);
+    }
+
     /**
      * Performs all time related events relating to a context switch. This involves changing the simulation time.
      */
@@ -76,20 +340,166 @@ public abstract class Dispatcher {
         time += contextSwitchTime;
     }
 
+    /**
+     * @return The amount of time taken to switch processes
+     */
+    public int getContextSwitchTime() {
+        return contextSwitchTime;
+    }
+
+    /**
+     * Each time a process is dispatched it is recorded in the trace. By default this is a {@link TextDispatchTrace} writing to {@link System#out}.
+     *
+     * @return The trace the dispatcher records dispatches to
+     */
+    protected DispatchTrace getTrace() {
+        return trace;
+    }
+
+    /**
+     * Changes how dispatches are recorded. For example a {@link NoDispatchTrace} turns off recording, or a {@link TextDispatchTrace} on a
+     * separate stream allows several dispatchers to be run at the same time without their output being mixed together.
+     *
+     * @param trace The trace to record dispatches to
+     */
+    public void setTrace(DispatchTrace trace) {
+        this.trace = trace;
+    }
+
     /**
      * Adds a job to be run by the dispatcher for the simulation.
      *
      * @param job The job to be run
      */
     public void addJob(Job job) {
-        this.processes.add(new Process(job));
+        this.processes.add(job);
+    }
+
+    /**
+     * Adds jobs to be run by the dispatcher which are only read as the simulation reaches their arrival times. This allows simulations
+     * to be run on more jobs than can be held in memory at once.
+     *
+     * @param jobs The jobs to be run, these must be in order of arrival time
+     * @throws IllegalStateException if jobs have already been added this way
+     */
+    public void addJobs(Iterator<Job> jobs) {
+        if(arrivals!=null)
+            throw new IllegalStateException("Jobs have already been added");
+        this.arrivals = jobs;
+        this.nextArrival = jobs.hasNext() ? jobs.next() : null;
     }
 
     /**
-     * @return A list of all processes being run by the simulation
+     * @return A list of all processes being run by the simulation, this will be empty if processes are not retained
      */
     public Collection<Process> getProcesses() {
-        return Collections.unmodifiableList(processes);
+        if(!retainProcesses)
+            return Collections.emptyList();
+        return Collections.unmodifiableList(processes.asList());
+    }
+
+    /**
+     * By default every process is kept so that {@link #getProcesses()} can be used once the simulation has finished. If processes are not retained
+     * then the slot of each process in the {@link ProcessTable} is released once it has finished and given to a later arrival, so memory only grows
+     * with the number of processes in the simulation at once.
+     * {@link #getTurnaroundTimes()} and {@link #getWaitingTimes()} are available either way.
+     *
+     * @param retainProcesses Whether to keep every process after it has finished
+     */
+    public void setRetainProcesses(boolean retainProcesses) {
+        this.retainProcesses = retainProcesses;
+    }
+
+    /**
+     * Writes a row of results for every process as it finishes, so the results of every process can be kept even if processes are not retained.
+     * The rows are in the order processes finish and have the columns from {@link #getResultColumns()}. The writer is not closed by the dispatcher.
+     *
+     * @param results Where to write the results, or null to not write them
+     */
+    public void setResults(ResultWriter results) {
+        this.results = results;
+    }
+
+    /**
+     * @return Statistics about the turnaround time of every process that has finished
+     */
+    public RunningStatistics getTurnaroundTimes() {
+        return turnaroundTimes;
+    }
+
+    /**
+     * @return Statistics about the waiting time of every process that has finished
+     */
+    public RunningStatistics getWaitingTimes() {
+        return waitingTimes;
+    }
+
+    /**
+     * @return Statistics about the response time of every process that has been dispatched, the time from its arrival until it first ran
+     */
+    public RunningStatistics getResponseTimes() {
+        return responseTimes;
+    }
+
+    /**
+     * Each time a process becomes ready to run, when it arrives, is woken from I/O or is preempted, it waits until it is next dispatched. The waiting
+     * time of a process is the total of these waits.
+     *
+     * @return Statistics about every wait of every process, from when it became ready until it was dispatched
+     */
+    public RunningStatistics getWaitSegments() {
+        return waitSegments;
+    }
+
+    /**
+     * @return Statistics about how many times every process that has finished was preempted
+     */
+    public RunningStatistics getPreemptions() {
+        return preemptions;
+    }
+
+    /**
+     * @return Statistics about the deadlines of every release of a {@link PeriodicTask} that has finished
+     */
+    public DeadlineStatistics getDeadlines() {
+        return deadlines;
+    }
+
+    /**
+     * @return The total service time of every process that has finished
+     */
+    public long getCpuTime() {
+        return cpuTime;
+    }
+
+    /**
+     * @return The time from the first arrival to the last process finishing, or 0 if nothing has finished
+     */
+    public int getMakespan() {
+        return lastFinish > firstArrival ? lastFinish - firstArrival : 0;
+    }
+
+    /**
+     * @return The fraction of the time the processors spent executing the processes that have finished, from the first arrival to the last finish
+     */
+    public double getUtilization() {
+        int makespan = getMakespan();
+        return makespan==0 ? 0 : (double) cpuTime / ((long) makespan * getProcessors());
+    }
+
+    /**
+     * @return The number of processes finished for each unit of time, from the first arrival to the last finish
+     */
+    public double getThroughput() {
+        int makespan = getMakespan();
+        return makespan==0 ? 0 : (double) turnaroundTimes.getCount() / makespan;
+    }
+
+    /**
+     * @return The number of processors the dispatcher runs processes on
+     */
+    protected int getProcessors() {
+        return 1;
     }
 
     /**
@@ -108,12 +518,383 @@ public abstract class Dispatcher {
         return time;
     }
 
+    /**
+     * @return The number of events that have been run by the simulation
+     */
+    public long getEvents() {
+        return events;
+    }
+
+    /**
+     * The metrics are recorded as the simulation runs and can be read from any thread, see {@link DispatcherMetrics}.
+     *
+     * @return The metrics of the dispatcher
+     */
+    public DispatcherMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * Adds a task to be run by the discrete event simulation. Tasks will be ordered by the time executed and other factors
      *
      * @param task The new task to be run.
      */
     public void addTask(Task task) {
-        this.simulation.add(task);
+        this.simulation.addTask(task);
+    }
+
+    /**
+     * Schedules the dispatcher to be interrupted. Unlike {@link #addTask(Task)} this lets the event queue decide how the interrupt is represented.
+     *
+     * @param processId The id of the process the interrupt is for
+     * @param time The time the interrupt occurs
+     */
+    protected void scheduleInterrupt(int processId, int time) {
+        this.simulation.addInterrupt(processId, time);
+    }
+
+    /**
+     * Saves the whole state of the simulation, so it can be carried on later with {@link #resume(Path)} by the same algorithm, or
+     * with {@link #fork(Path)} by any algorithm. This should only be called between runs, see {@link #runUntil(int)}. The file is in the
+     * format (all values big endian)
+     *
+     *   magic              int     'A1CK'
+     *   version            int     7
+     *   algorithm          string  the name of the algorithm, modified UTF-8
+     *   time, events       int, long
+     *   retain processes   boolean
+     *   processes          the {@link ProcessTable}, every column in turn, then each side table after a flag saying whether it is used,
+     *                      then the released slots
+     *   pending arrivals   int count, then [arrival time][slot] longs for each job from {@link #addJob(Job)} that has not arrived
+     *   streamed arrivals  long    the number of jobs from {@link #addJobs(Iterator)} that have arrived
+     *   statistics         turnaround, waiting, response times, wait segments and preemptions, then the CPU time, first arrival and last
+     *                      finish, then the deadlines
+     *   events             int count, then for each a type byte (0 arrival, 1 interrupt), the slot or process id, and the time of interrupts
+     *   running processes  int count, then the slot of each
+     *   algorithm state    written by {@link #writeState(DataOutput)}, since version 7 {@link CFSDispatcher} saves the virtual runtime of every
+     *                      slot, as a blocked process keeps its virtual runtime for when it wakes
+     *
+     * Jobs from {@link #addJobs(Iterator)} are not saved, only how many have been read.
+     *
+     * @param file The file to write the checkpoint to, this is overwritten if it exists
+     * @throws IOException Thrown if the file cannot be written
+     */
+    public void checkpoint(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(CHECKPOINT_MAGIC);
+            out.writeInt(CHECKPOINT_VERSION);
+            out.writeUTF(name);
+            out.writeInt(time);
+            out.writeLong(events);
+            out.writeBoolean(retainProcesses);
+            processes.write(out);
+
+            int pending = pendingArrivals==null ? 0 : pendingArrivals.length - nextPending;
+            out.writeInt(pending);
+            for(int i = 0; i < pending; i++) {
+                out.writeLong(pendingArrivals[nextPending + i]);
+            }
+            out.writeLong(streamedArrivals);
+            turnaroundTimes.write(out);
+            waitingTimes.write(out);
+            responseTimes.write(out);
+            waitSegments.write(out);
+            preemptions.write(out);
+            out.writeLong(cpuTime);
+            out.writeInt(firstArrival);
+            out.writeInt(lastFinish);
+            deadlines.write(out);
+
+            //the events are taken out of the queue to be saved, then put back
+            List<Process> arrivals = new ArrayList<>();
+            List<long[]> interrupts = new ArrayList<>();
+            simulation.drain(new EventQueue.Visitor() {
+                @Override
+                public void arrival(Process process) {
+                    arrivals.add(process);
+                }
+
+                @Override
+                public void interrupt(int processId, int time) {
+                    interrupts.add(new long[] {processId, time});
+                }
+            });
+            for(Process process : arrivals) {
+                simulation.addArrival(process);
+            }
+            for(long[] interrupt : interrupts) {
+                simulation.addInterrupt((int) interrupt[0], (int) interrupt[1]);
+            }
+            out.writeInt(arrivals.size() + interrupts.size());
+            for(Process process : arrivals) {
+                out.writeByte(0);
+                out.writeInt(process.getSlot());
+            }
+            for(long[] interrupt : interrupts) {
+                out.writeByte(1);
+                out.writeInt((int) interrupt[0]);
+                out.writeInt((int) interrupt[1]);
+            }
+
+            writeProcesses(out, getRunningProcesses());
+            writeState(out);
+        }
+    }
+
+    /**
+     * Carries on a simulation saved with {@link #checkpoint(Path)} by the same algorithm. This should be called instead of {@link #addJob(Job)}, but
+     * if the simulation used {@link #addJobs(Iterator)} the same jobs must be added with it first. {@link #run()} then carries on from where the
+     * checkpoint was made, giving the same results as if the simulation had never stopped.
+     *
+     * @param file The checkpoint
+     * @throws IOException Thrown if the checkpoint cannot be read, is not valid, or was made by a different algorithm
+     * @throws IllegalStateException if the simulation has already been started
+     */
+    public void resume(Path file) throws IOException {
+        restore(file, false);
+    }
+
+    /**
+     * Carries on a simulation saved with {@link #checkpoint(Path)} by any algorithm, so different algorithms can be tried from the same point.
+     * Processes that have finished, and the statistics about them, are kept. Every process which had arrived but not finished is given to this
+     * algorithm as a new arrival at the time of the checkpoint, in order of arrival. A process that was running is stopped at the time of the
+     * checkpoint. As with {@link #resume(Path)}, jobs from {@link #addJobs(Iterator)} must be added first.
+     *
+     * @param file The checkpoint
+     * @throws IOException Thrown if the checkpoint cannot be read or is not valid
+     * @throws IllegalStateException if the simulation has already been started
+     */
+    public void fork(Path file) throws IOException {
+        restore(file, true);
+    }
+
+    private void restore(Path file, boolean fork) throws IOException {
+        if(started || !simulation.isEmpty())
+            throw new IllegalStateException("Cannot restore a simulation once it has started");
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if(in.readInt()!=CHECKPOINT_MAGIC)
+                throw new IOException("Not a checkpoint");
+            if(in.readInt()!=CHECKPOINT_VERSION)
+                throw new IOException("Unsupported checkpoint version");
+            String algorithm = in.readUTF();
+            if(!fork && !algorithm.equals(name))
+                throw new IOException("Checkpoint was made by "+algorithm+" not "+name+", it can only be forked");
+
+            time = in.readInt();
+            events = in.readLong();
+            boolean retained = in.readBoolean();
+            if(!fork)
+                retainProcesses = retained;
+            processes.read(in);
+
+            int pending = in.readInt();
+            if(pending<0)
+                throw new IOException("Invalid number of pending arrivals "+pending);
+            pendingArrivals = new long[pending];
+            for(int i = 0; i < pending; i++) {
+                pendingArrivals[i] = in.readLong();
+            }
+            nextPending = 0;
+
+            //skip the jobs that had already arrived
+            streamedArrivals = in.readLong();
+            if(streamedArrivals > 0 && arrivals==null)
+                throw new IOException("The checkpoint read "+streamedArrivals+" jobs from addJobs, the same jobs must be added first");
+            if(arrivals!=null) {
+                for(long i = 0; i < streamedArrivals && nextArrival!=null; i++) {
+                    nextArrival = arrivals.hasNext() ? arrivals.next() : null;
+                }
+            }
+
+            turnaroundTimes.read(in);
+            waitingTimes.read(in);
+            responseTimes.read(in);
+            waitSegments.read(in);
+            preemptions.read(in);
+            cpuTime = in.readLong();
+            firstArrival = in.readInt();
+            lastFinish = in.readInt();
+            deadlines.read(in);
+
+            int eventCount = in.readInt();
+            List<Process> queuedArrivals = new ArrayList<>();
+            for(int i = 0; i < eventCount; i++) {
+                byte type = in.readByte();
+                if(type==0) {
+                    Process process = readProcess(in);
+                    queuedArrivals.add(process);
+                    simulation.addArrival(process);
+                } else if(type==1) {
+                    int processId = in.readInt();
+                    int interruptTime = in.readInt();
+                    if(!fork)
+                        scheduleInterrupt(processId, interruptTime);
+                } else {
+                    throw new IOException("Unknown event type "+type);
+                }
+            }
+
+            List<Process> running = readProcesses(in);
+            started = true;
+            blocked = 0;
+            for(Process process : queuedArrivals) {
+                if(process.isBlocked())
+                    blocked++;
+            }
+            if(!fork) {
+                inSystem = blocked + getArrived(queuedArrivals).size();
+                readState(in);
+                return;
+            }
+
+            //stop the running processes at the time of the checkpoint, then give every arrived process to this algorithm
+            for(Process process : running) {
+                if(process.getLastStarted() < time)
+                    process.setFinishExecuting(time);
+                if(process.isBlocked())
+                    blocked(process);
+            }
+            inSystem = blocked;
+            for(Process process : getArrived(queuedArrivals)) {
+                runArrival(process);
+            }
+        }
+    }
+
+    /**
+     * @param queuedArrivals The processes with arrivals waiting in the event queue, these have not arrived yet
+     * @return Every process which has arrived but not finished or blocked, in order of arrival
+     */
+    private List<Process> getArrived(List<Process> queuedArrivals) {
+        BitSet notArrived = new BitSet();
+        for(Process process : queuedArrivals) {
+            notArrived.set(process.getSlot());
+        }
+        for(long pending : pendingArrivals) {
+            notArrived.set((int) pending);
+        }
+
+        List<Process> arrived = new ArrayList<>();
+        for(Process process : processes.asList()) {
+            //released slots are always finished
+            if(!process.isFinished() && !process.isBlocked() && !notArrived.get(process.getSlot()))
+                arrived.add(process);
+        }
+        arrived.sort(Comparator.comparingInt(Process::getArrivalTime).thenComparingInt(Process::getProcessId));
+        return arrived;
+    }
+
+    /**
+     * @return Every process currently running on a processor. This is used to stop them if a checkpoint is forked.
+     */
+    protected abstract Collection<Process> getRunningProcesses();
+
+    /**
+     * Used after every event to find how many processes are waiting to run, implementations should override this if it can be found without
+     * building a collection.
+     *
+     * @return The number of processes currently running on a processor
+     */
+    protected int getRunningCount() {
+        return getRunningProcesses().size();
+    }
+
+    /**
+     * Writes the state of the algorithm to a checkpoint, for example the processes in its queues. Implementations that have state should
+     * call the super method first. Processes should be written with {@link #writeProcess(DataOutput, Process)}.
+     *
+     * @param out Where to write the state
+     * @throws IOException Thrown if the state cannot be written
+     */
+    protected void writeState(DataOutput out) throws IOException {
+        //nothing is kept by a dispatcher without an algorithm
+    }
+
+    /**
+     * Reads the state of the algorithm written by {@link #writeState(DataOutput)}, in the same order. Processes should be read with
+     * {@link #readProcess(DataInput)}.
+     *
+     * @param in Where to read the state from
+     * @throws IOException Thrown if the state cannot be read
+     */
+    protected void readState(DataInput in) throws IOException {
+        //nothing is kept by a dispatcher without an algorithm
+    }
+
+    /**
+     * @param out Where to write the process
+     * @param process The process to write, may be null
+     * @throws IOException Thrown if the process cannot be written
+     */
+    protected static void writeProcess(DataOutput out, Process process) throws IOException {
+        out.writeInt(process==null ? -1 : process.getSlot());
+    }
+
+    /**
+     * @param in Where to read the process from
+     * @return The process written by {@link #writeProcess(DataOutput, Process)}, which may be null
+     * @throws IOException Thrown if the process cannot be read
+     */
+    protected Process readProcess(DataInput in) throws IOException {
+        int slot = in.readInt();
+        if(slot==-1)
+            return null;
+        try {
+            return processes.get(slot);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Invalid process slot "+slot);
+        }
+    }
+
+    /**
+     * @param out Where to write the processes
+     * @param processes The processes to write, in order
+     * @throws IOException Thrown if the processes cannot be written
+     */
+    protected static void writeProcesses(DataOutput out, Collection<Process> processes) throws IOException {
+        out.writeInt(processes.size());
+        for(Process process : processes) {
+            writeProcess(out, process);
+        }
+    }
+
+    /**
+     * @param in Where to read the processes from
+     * @return The processes written by {@link #writeProcesses(DataOutput, Collection)}, in order
+     * @throws IOException Thrown if the processes cannot be read
+     */
+    protected List<Process> readProcesses(DataInput in) throws IOException {
+        int count = in.readInt();
+        if(count<0)
+            throw new IOException("Invalid number of processes "+count);
+        List<Process> processes = new ArrayList<>(count);
+        for(int i = 0; i < count; i++) {
+            processes.add(readProcess(in));
+        }
+        return processes;
+    }
+
+    /**
+     * Used by event queues which store processes by their slot rather than as objects, see {@link PackedEventQueue}
+     *
+     * @param slot The slot of the process in the process table
+     * @return The process in the slot
+     */
+    Process getProcess(int slot) {
+        return processes.get(slot);
+    }
+
+    /**
+     * Changes the event queue that backs the discrete event simulation. This should be called before the simulation is run and the queue
+     * should be bound to this dispatcher.
+     *
+     * @param eventQueue The new event queue, for example a {@link PackedEventQueue}
+     * @throws IllegalStateException if events have already been scheduled
+     */
+    public void setEventQueue(EventQueue eventQueue) {
+        if(!simulation.isEmpty())
+            throw new IllegalStateException("Cannot change the event queue while events are scheduled");
+        this.simulation = eventQueue;
     }
 }
@@ -0,0 +1,193 @@
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * File: DispatcherMetrics.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Counts what a {@link Dispatcher} does while it runs, so a long simulation can be watched from another thread, either through JMX once
+ * {@link #register()} is called, or with {@link #snapshot()} for example from a {@link MetricsReporter}.
+ *
+ * Only the thread running the dispatcher records metrics, so every value is updated with a plain ordered write rather than a lock or an
+ * atomic add, keeping the cost on each event to a few writes. The time taken to select a process is only measured for one selection in every
+ * {@value #SELECT_SAMPLE_INTERVAL}, as reading the clock costs more than most selections.
+ */
+public class DispatcherMetrics implements DispatcherMetricsMBean {
+
+    final static int SELECT_SAMPLE_INTERVAL = 64;
+    private final static AtomicInteger REGISTERED = new AtomicInteger(); //gives each registered bean a unique id
+
+    private final String name;
+    private final AtomicLong events;
+    private final AtomicLong simulationTime;
+    private final AtomicLong contextSwitches;
+    private final AtomicLong eventQueueHighWater;
+    private final ConcurrentHistogram readyQueueLength;
+    private final ConcurrentHistogram selectTime;
+    private int selections; //only used by the recording thread
+    private ObjectName objectName;
+
+    /**
+     * Creates metrics with nothing recorded
+     *
+     * @param name The name of the algorithm
+     */
+    public DispatcherMetrics(String name) {
+        this.name = name;
+        this.events = new AtomicLong();
+        this.simulationTime = new AtomicLong();
+        this.contextSwitches = new AtomicLong();
+        this.eventQueueHighWater = new AtomicLong();
+        this.readyQueueLength = new ConcurrentHistogram();
+        this.selectTime = new ConcurrentHistogram();
+        this.selections = 0;
+    }
+
+    /**
+     * Records that an event has been run
+     *
+     * @param events The number of events run so far
+     * @param time The time of the event
+     * @param eventQueueSize The number of events left waiting in the event queue
+     * @param ready The number of processes waiting to run
+     */
+    void eventRun(long events, int time, int eventQueueSize, int ready) {
+        this.events.lazySet(events);
+        simulationTime.lazySet(time);
+        if(eventQueueSize > eventQueueHighWater.get())
+            eventQueueHighWater.lazySet(eventQueueSize);
+        readyQueueLength.record(ready);
+    }
+
+    /**
+     * Records that a process has been dispatched to a processor
+     */
+    void dispatched() {
+        contextSwitches.lazySet(contextSwitches.get() + 1);
+    }
+
+    /**
+     * Called before the algorithm selects a process
+     *
+     * @return The time the selection started if it is being measured, otherwise -1
+     */
+    long startSelect() {
+        if(++selections < SELECT_SAMPLE_INTERVAL)
+            return -1;
+        selections = 0;
+        return System.nanoTime();
+    }
+
+    /**
+     * Called after the algorithm selects a process
+     *
+     * @param start The value returned by {@link #startSelect()}
+     */
+    void endSelect(long start) {
+        if(start>=0)
+            selectTime.record(System.nanoTime() - start);
+    }
+
+    /**
+     * @return The value of every metric at this moment
+     */
+    public MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(this);
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server, under A1:type=Dispatcher,name=(the algorithm),id=(a unique number). The id allows
+     * several dispatchers running the same algorithm to be registered at once.
+     *
+     * @throws JMException Thrown if the metrics cannot be registered
+     * @throws IllegalStateException if the metrics are already registered
+     */
+    public synchronized void register() throws JMException {
+        if(objectName!=null)
+            throw new IllegalStateException("Metrics are already registered as "+objectName);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        while (true) {
+            ObjectName candidate = new ObjectName("A1:type=Dispatcher,name="+ObjectName.quote(name)+",id="+REGISTERED.incrementAndGet());
+            try {
+                server.registerMBean(this, candidate);
+                objectName = candidate;
+                return;
+            } catch (InstanceAlreadyExistsException e) {
+                //registered by something else, try the next id
+            }
+        }
+    }
+
+    /**
+     * Removes the metrics from the platform MBean server, if they are registered
+     *
+     * @throws JMException Thrown if the metrics cannot be unregistered
+     */
+    public synchronized void unregister() throws JMException {
+        if(objectName==null)
+            return;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (InstanceNotFoundException e) {
+            //already gone
+        }
+        objectName = null;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getEvents() {
+        return events.get();
+    }
+
+    @Override
+    public long getSimulationTime() {
+        return simulationTime.get();
+    }
+
+    @Override
+    public long getContextSwitches() {
+        return contextSwitches.get();
+    }
+
+    @Override
+    public long getEventQueueHighWater() {
+        return eventQueueHighWater.get();
+    }
+
+    @Override
+    public double getReadyQueueMean() {
+        return readyQueueLength.getMean();
+    }
+
+    @Override
+    public long getReadyQueueMax() {
+        return readyQueueLength.getMax();
+    }
+
+    @Override
+    public long getReadyQueueP99() {
+        return readyQueueLength.getQuantile(0.99);
+    }
+
+    @Override
+    public double getSelectTimeMeanNanos() {
+        return selectTime.getMean();
+    }
+
+    @Override
+    public long getSelectTimeP99Nanos() {
+        return selectTime.getQuantile(0.99);
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * File: DispatcherMetricsMBean.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * The management interface of {@link DispatcherMetrics}, so the metrics of a running dispatcher can be watched over JMX, for example with jconsole.
+ */
+public interface DispatcherMetricsMBean {
+
+    /**
+     * @return The name of the algorithm
+     */
+    String getName();
+
+    /**
+     * @return The number of events run by the simulation
+     */
+    long getEvents();
+
+    /**
+     * @return The time of the last event run
+     */
+    long getSimulationTime();
+
+    /**
+     * @return The number of processes dispatched to a processor
+     */
+    long getContextSwitches();
+
+    /**
+     * @return The most events ever waiting in the event queue at once
+     */
+    long getEventQueueHighWater();
+
+    /**
+     * @return The mean number of processes waiting to run, sampled after every event
+     */
+    double getReadyQueueMean();
+
+    /**
+     * @return The most processes ever waiting to run
+     */
+    long getReadyQueueMax();
+
+    /**
+     * @return The 99th percentile of the number of processes waiting to run, to within a factor of two
+     */
+    long getReadyQueueP99();
+
+    /**
+     * @return The mean time taken by the algorithm to select a process, in nanoseconds, from a sample of selections
+     */
+    double getSelectTimeMeanNanos();
+
+    /**
+     * @return The 99th percentile of the time taken by the algorithm to select a process, in nanoseconds, to within a factor of two
+     */
+    long getSelectTimeP99Nanos();
+}
@@ -0,0 +1,63 @@
+import java.util.Random;
+
+/**
+ * File: Distributions.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Helpers shared by the {@link ArrivalProcess} and {@link ServiceDistribution} implementations, for sampling and for parsing descriptions in the form
+ * name(parameter, parameter, ...).
+ */
+final class Distributions {
+
+    private Distributions() {
+    }
+
+    /**
+     * @param random The source of randomness
+     * @param rate The rate of the distribution, must be positive
+     * @return A sample from the exponential distribution with the given rate
+     */
+    static double exponential(Random random, double rate) {
+        //1 - nextDouble() is never 0 so the log is always finite
+        return -Math.log(1 - random.nextDouble()) / rate;
+    }
+
+    static void requirePositive(String name, double value) {
+        if(!(value > 0) || Double.isInfinite(value))
+            throw new IllegalArgumentException(name+" must be positive, got "+value);
+    }
+
+    static String name(String description) {
+        int open = description.indexOf('(');
+        return (open<0 ? description : description.substring(0, open)).trim().toLowerCase();
+    }
+
+    static double[] parameters(String description) {
+        int open = description.indexOf('(');
+        if(open<0)
+            return new double[0];
+        int close = description.lastIndexOf(')');
+        if(close<open)
+            throw new IllegalArgumentException("Missing ')' in '"+description+"'");
+
+        String list = description.substring(open + 1, close).trim();
+        if(list.isEmpty())
+            return new double[0];
+        String[] values = list.split(",");
+        double[] parameters = new double[values.length];
+        for(int i = 0; i < values.length; i++) {
+            try {
+                parameters[i] = Double.parseDouble(values[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid number '"+values[i].trim()+"' in '"+description+"'");
+            }
+        }
+        return parameters;
+    }
+
+    static void expectParameters(String description, double[] parameters, int count) {
+        if(parameters.length!=count)
+            throw new IllegalArgumentException("Expected "+count+" parameters in '"+description+"', got "+parameters.length);
+    }
+}
@@ -0,0 +1,49 @@
+import java.util.Random;
+
+/**
+ * File: DiurnalArrivals.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * An {@link ArrivalProcess} where the arrival rate rises and falls over a period, like the daily cycle of user traffic. The rate at time t is
+ * rate * (1 + amplitude * sin(2 pi t / period)). Arrivals are generated by thinning, candidates are generated at the peak rate and each is kept with
+ * probability (rate at that time) / (peak rate).
+ */
+public class DiurnalArrivals implements ArrivalProcess {
+
+    private final double rate;
+    private final double amplitude;
+    private final double period;
+
+    /**
+     * @param rate The average number of arrivals per unit of time over a period
+     * @param amplitude How far the rate rises and falls, between 0 and 1
+     * @param period The length of the cycle
+     * @throws IllegalArgumentException if the rate or period are not positive or the amplitude is not between 0 and 1
+     */
+    public DiurnalArrivals(double rate, double amplitude, double period) {
+        Distributions.requirePositive("Rate", rate);
+        Distributions.requirePositive("Period", period);
+        if(amplitude<0 || amplitude>1)
+            throw new IllegalArgumentException("Amplitude must be between 0 and 1, got "+amplitude);
+        this.rate = rate;
+        this.amplitude = amplitude;
+        this.period = period;
+    }
+
+    @Override
+    public double nextArrival(double time, Random random) {
+        double peakRate = rate * (1 + amplitude);
+        while (true) {
+            time += Distributions.exponential(random, peakRate);
+            double rateNow = rate * (1 + amplitude * Math.sin(2 * Math.PI * time / period));
+            if(random.nextDouble() * peakRate <= rateNow)
+                return time;
+        }
+    }
+
+    @Override
+    public ArrivalProcess copy() {
+        return this;
+    }
+}
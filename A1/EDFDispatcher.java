@@ -0,0 +1,24 @@
+import java.util.Comparator;
+
+/**
+ * File: EDFDispatcher.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Represents a dispatcher running the EDF (Earliest Deadline First) algorithm. The process with the earliest deadline always runs, preempting the
+ * running process if one arrives with an earlier deadline. On a single processor EDF meets every deadline of any set of tasks that can have all of
+ * its deadlines met, which for periodic tasks with a deadline at the end of each period is any set with a utilization of at most 1.
+ *
+ * Processes without a deadline run only when no process with a deadline is waiting, in order of process id.
+ */
+public class EDFDispatcher extends RealTimeDispatcher {
+
+    /**
+     * Creates a new EDF dispatcher.
+     *
+     * @param contextSwitchTime The time taken to switch processes
+     */
+    public EDFDispatcher(int contextSwitchTime) {
+        super("EDF", contextSwitchTime, Comparator.comparingInt(Process::getDeadline));
+    }
+}
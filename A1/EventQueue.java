@@ -0,0 +1,80 @@
+/**
+ * File: EventQueue.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Represents the event core of the discrete event simulation run by a {@link Dispatcher}. Events are run in the order defined by
+ * {@link Task#compareTo(Task)}, that is by start time, then arrivals before interrupts, then by process id. Each event queue is bound to the
+ * dispatcher whose events it runs.
+ */
+public interface EventQueue {
+
+    /**
+     * Schedules the arrival of a process to the dispatcher at {@link Process#getReadyTime()}, which is the process arrival time or, if the process
+     * is blocked, when it is woken from I/O.
+     *
+     * @param process The process that will arrive
+     */
+    void addArrival(Process process);
+
+    /**
+     * Schedules an interrupt of the dispatcher.
+     *
+     * @param processId The id of the process the interrupt is for
+     * @param time The time the interrupt occurs
+     */
+    void addInterrupt(int processId, int time);
+
+    /**
+     * Schedules an arbitrary task to be run by the simulation.
+     *
+     * @param task The task to be run
+     */
+    void addTask(Task task);
+
+    /**
+     * @return Whether there are no more events left to run
+     */
+    boolean isEmpty();
+
+    /**
+     * @return The time of the next event to be run. This should only be called if the queue is not empty.
+     */
+    int nextTime();
+
+    /**
+     * @return The number of events waiting to be run
+     */
+    int size();
+
+    /**
+     * Removes the next event from the queue and runs it.
+     */
+    void runNext();
+
+    /**
+     * Removes every event from the queue in the order they would be run, without running them. This is used to save the simulation, see
+     * {@link Dispatcher#checkpoint(java.nio.file.Path)}.
+     *
+     * @param visitor Given each event that is removed
+     * @throws IllegalStateException if the queue holds a task which is not an arrival or an interrupt
+     */
+    void drain(Visitor visitor);
+
+    /**
+     * Is given each event removed by {@link #drain(Visitor)}
+     */
+    interface Visitor {
+
+        /**
+         * @param process The process that would have arrived
+         */
+        void arrival(Process process);
+
+        /**
+         * @param processId The id of the process the interrupt is for
+         * @param time The time the interrupt would have occurred
+         */
+        void interrupt(int processId, int time);
+    }
+}
@@ -0,0 +1,27 @@
+import java.util.Random;
+
+/**
+ * File: ExponentialService.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * A {@link ServiceDistribution} where service times are exponentially distributed, rounded up to a whole unit of time.
+ */
+public class ExponentialService implements ServiceDistribution {
+
+    private final double mean;
+
+    /**
+     * @param mean The average service time
+     * @throws IllegalArgumentException if the mean is not positive
+     */
+    public ExponentialService(double mean) {
+        Distributions.requirePositive("Mean", mean);
+        this.mean = mean;
+    }
+
+    @Override
+    public int nextServiceTime(Random random) {
+        return (int) Math.min(Math.ceil(Distributions.exponential(random, 1 / mean)), Integer.MAX_VALUE / 2);
+    }
+}
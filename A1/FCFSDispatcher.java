@@ -1,3 +1,6 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.Queue;
 
@@ -43,8 +46,22 @@ public class FCFSDispatcher extends SingleCoreDispatcher {
 
     @Override
     protected void scheduleTask(Process process) {
-        //schedule the task until completion
-        int finishTime = getTime() + process.getServiceTime();
-        addTask(new InterruptTask(this,process.getProcessId(),finishTime));
+        //schedule the task until completion, or until its CPU burst ends
+        process.setStartExecuting(getTime());
+        int finishTime = getTime() + process.getRemainingTime();
+        scheduleInterrupt(process.getProcessId(),finishTime);
+    }
+
+    @Override
+    protected void writeState(DataOutput out) throws IOException {
+        super.writeState(out);
+        writeProcesses(out, processQueue);
+    }
+
+    @Override
+    protected void readState(DataInput in) throws IOException {
+        super.readState(in);
+        processQueue.clear();
+        processQueue.addAll(readProcesses(in));
     }
 }
@@ -1,5 +1,9 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Queue;
 
@@ -11,12 +15,25 @@ import java.util.Queue;
  * Represents a dispatcher running the Feedback (FB constant) algorithm. This algorithm *typically* does not know the service time of the process. By running the process time and time
  * again it drops priority. When the algorithm is selecting a process is looks through the queue with the highest priority, if nothing is there then it looks at the next highest queue, unless the currently
  * running process has a lower priority. Once a process runs its priority drops until it reaches the lowest priority.
+ *
+ * The number of priorities and the time quanta of each priority can be configured. Which priority queues have processes waiting is tracked in a bitmask, so the highest
+ * priority waiting process is found in constant time no matter how many priorities there are. Optionally every process can be boosted back to the highest priority
+ * at a regular interval, so that long running processes are not starved.
  */
 public class FeedbackDispatcher extends SingleCoreDispatcher {
 
+    final static int MAX_PRIORITIES = 6;
+    final static int TIME_QUANTA = 4;
+    /**
+     * The most priorities supported, one for each bit of the bitmask
+     */
+    public final static int PRIORITY_LIMIT = Long.SIZE;
+
     private final List<Queue<Process>> processQueues;
-    private final static int MAX_PRIORITIES = 6;
-    private final static int TIME_QUANTA = 4;
+    private final int[] timeQuanta;
+    private long waitingPriorities; //bit i is set if the queue of priority i is not empty
+    private final int boostInterval;
+    private int nextBoost;
 
     /**
      * Creates a feedback dispatcher.
@@ -24,66 +41,161 @@ public class FeedbackDispatcher extends SingleCoreDispatcher {
      * @param contextSwitchTime The time taken to swap processes
      */
     public FeedbackDispatcher(int contextSwitchTime) {
-        super("FB (constant)", contextSwitchTime);
+        this("FB (constant)", contextSwitchTime, constantQuanta(MAX_PRIORITIES, TIME_QUANTA), 0);
+    }
+
+    /**
+     * Creates a feedback dispatcher with the given priorities.
+     *
+     * @param name The name of the algorithm being used
+     * @param contextSwitchTime The time taken to swap processes
+     * @param timeQuanta The time quanta of each priority, highest priority first. There is one priority for each time quanta.
+     * @param boostInterval How often every process is boosted back to the highest priority, or 0 to never boost
+     * @throws IllegalArgumentException if there are no priorities or more than {@link #PRIORITY_LIMIT}, or a time quanta is not positive
+     */
+    public FeedbackDispatcher(String name, int contextSwitchTime, int[] timeQuanta, int boostInterval) {
+        super(name, contextSwitchTime);
+        if(timeQuanta.length<1 || timeQuanta.length>PRIORITY_LIMIT)
+            throw new IllegalArgumentException("Number of priorities must be between 1 and "+PRIORITY_LIMIT+", got "+timeQuanta.length);
+        for(int quanta : timeQuanta) {
+            if(quanta<1)
+                throw new IllegalArgumentException("Time quanta must be positive, got "+quanta);
+        }
+        if(boostInterval<0)
+            throw new IllegalArgumentException("Boost interval must not be negative, got "+boostInterval);
+
         this.processQueues = new ArrayList<>();
-        for(int i = 0; i< MAX_PRIORITIES; i++) {
+        for(int i = 0; i< timeQuanta.length; i++) {
             processQueues.add(new ArrayDeque<>()); //add all process queues
         }
+        this.timeQuanta = timeQuanta.clone();
+        this.waitingPriorities = 0;
+        this.boostInterval = boostInterval;
+        this.nextBoost = boostInterval;
+    }
+
+    /**
+     * @param priorities The number of priorities
+     * @param timeQuanta The time quanta used by every priority
+     * @return The time quanta of each priority, all the same
+     */
+    public static int[] constantQuanta(int priorities, int timeQuanta) {
+        int[] quanta = new int[priorities];
+        Arrays.fill(quanta, timeQuanta);
+        return quanta;
     }
 
     @Override
     protected void handleArrival(Process process) {
         //set to highest priority
         process.setPriority(0);
-        process.setTimeQuanta(TIME_QUANTA);
         //add to highest queue!
-        processQueues.get(0).add(process);
+        enqueue(process);
     }
 
     @Override
     protected Process selectProcess() {
+        if(boostInterval>0 && getTime()>=nextBoost)
+            boost();
+
         Process runningProcess = getRunningProcess();
-        int priority = 0;
-        //loop through queues, highest to lowest priority
-        for(Queue<Process> processes : processQueues) {
-            //select the process from the current queue if there is one
-            if(!processes.isEmpty())
-                return processes.poll(); //if it is not empty then
-
-            //otherwise check the running process
-            if(priority > runningProcess.getPriority()) {
-                if(!runningProcess.willFinish(getTime())) {
-                    //up the priority, and return the existing process
-                    nextPriority(runningProcess);
-                    return runningProcess;
-                }
+        //the highest priority with a process waiting, or PRIORITY_LIMIT if nothing is waiting
+        int highest = Long.numberOfTrailingZeros(waitingPriorities);
+        if(runningProcess!=null) {
+            //keep the running process if nothing is waiting at its priority or the priority it would drop to
+            int next = runningProcess.getPriority() + 1;
+            if(next < processQueues.size() && highest > next && !runningProcess.willFinish(getTime())) {
+                //up the priority, and return the existing process
+                nextPriority(runningProcess);
+                return runningProcess;
             }
-
-            priority++;
         }
 
         //if no queues have anything and no process is currently running then make the CPU idle.
-        return null;
+        if(highest>=processQueues.size())
+            return null;
+
+        Queue<Process> processes = processQueues.get(highest);
+        Process process = processes.poll();
+        if(processes.isEmpty())
+            waitingPriorities &= ~(1L << highest);
+        return process;
     }
 
     @Override
     protected void readmitProcess(Process process) {
         //up the priority and admit it to the queue of that priority
         nextPriority(process);
+        enqueue(process);
+    }
+
+    private void enqueue(Process process) {
         processQueues.get(process.getPriority()).add(process);
+        waitingPriorities |= 1L << process.getPriority();
     }
 
     private void nextPriority(Process process) {
-        process.setPriority(Math.min(MAX_PRIORITIES -1,process.getPriority()+1));
+        process.setPriority(Math.min(processQueues.size()-1,process.getPriority()+1));
+    }
+
+    /**
+     * Moves every process back to the highest priority. Processes keep their order, higher priority processes stay in front of lower priority ones.
+     */
+    private void boost() {
+        Queue<Process> highest = processQueues.get(0);
+        for(int priority = 1; priority < processQueues.size(); priority++) {
+            Queue<Process> processes = processQueues.get(priority);
+            for(Process process : processes) {
+                process.setPriority(0);
+                highest.add(process);
+            }
+            processes.clear();
+        }
+        waitingPriorities = highest.isEmpty() ? 0 : 1;
+
+        Process runningProcess = getRunningProcess();
+        if(runningProcess!=null)
+            runningProcess.setPriority(0);
+
+        //skip any intervals that were missed while idle
+        nextBoost += ((getTime() - nextBoost) / boostInterval + 1) * boostInterval;
+    }
+
+    @Override
+    protected void writeState(DataOutput out) throws IOException {
+        super.writeState(out);
+        out.writeInt(nextBoost);
+        out.writeInt(processQueues.size());
+        for(Queue<Process> processes : processQueues) {
+            writeProcesses(out, processes);
+        }
+    }
+
+    @Override
+    protected void readState(DataInput in) throws IOException {
+        super.readState(in);
+        nextBoost = in.readInt();
+        int priorities = in.readInt();
+        if(priorities!=processQueues.size())
+            throw new IOException("Checkpoint has "+priorities+" priorities, not "+processQueues.size());
+        waitingPriorities = 0;
+        for(int priority = 0; priority < priorities; priority++) {
+            Queue<Process> processes = processQueues.get(priority);
+            processes.clear();
+            processes.addAll(readProcesses(in));
+            if(!processes.isEmpty())
+                waitingPriorities |= 1L << priority;
+        }
     }
 
     @Override
     protected void scheduleTask(Process process) {
         process.setStartExecuting(getTime());
+        process.setTimeQuanta(timeQuanta[process.getPriority()]);
         //execute either for the time quanta specified or until the process has finished executing.
         int finishTime = getTime() + process.getRemainingTime();
         int quantaTime = getTime() + process.getTimeQuanta();
         int nextTime = Math.min(finishTime,quantaTime);
-        addTask(new InterruptTask(this,process.getProcessId(),nextTime));
+        scheduleInterrupt(process.getProcessId(),nextTime);
     }
 }
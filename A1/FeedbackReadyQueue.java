@@ -0,0 +1,115 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * File: FeedbackReadyQueue.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * A {@link ReadyQueue} running the same Feedback (FB constant) algorithm as {@link FeedbackDispatcher}. Each time a process runs its priority drops
+ * until it reaches the lowest priority. The running process keeps the processor if every waiting process has a lower priority.
+ */
+public class FeedbackReadyQueue implements ReadyQueue {
+
+    private final List<Deque<Process>> processQueues;
+    private final int timeQuanta;
+    private int size;
+
+    /**
+     * Creates a feedback ready queue with the same priorities and time quanta as {@link FeedbackDispatcher}
+     */
+    public FeedbackReadyQueue() {
+        this(FeedbackDispatcher.MAX_PRIORITIES, FeedbackDispatcher.TIME_QUANTA);
+    }
+
+    /**
+     * Creates a feedback ready queue
+     *
+     * @param priorities The number of priority levels
+     * @param timeQuanta The time quanta given to a process each time it runs
+     */
+    public FeedbackReadyQueue(int priorities, int timeQuanta) {
+        this.processQueues = new ArrayList<>();
+        for(int i = 0; i < priorities; i++) {
+            processQueues.add(new ArrayDeque<>());
+        }
+        this.timeQuanta = timeQuanta;
+        this.size = 0;
+    }
+
+    @Override
+    public void arrive(Process process) {
+        process.setPriority(0);
+        process.setTimeQuanta(timeQuanta);
+        processQueues.get(0).add(process);
+        size++;
+    }
+
+    @Override
+    public void readmit(Process process) {
+        nextPriority(process);
+        processQueues.get(process.getPriority()).add(process);
+        size++;
+    }
+
+    @Override
+    public Process select(Process running, int time) {
+        int priority = 0;
+        //loop through queues, highest to lowest priority
+        for(Deque<Process> processes : processQueues) {
+            if(!processes.isEmpty()) {
+                size--;
+                return processes.poll();
+            }
+
+            //keep the running process if nothing waiting has a higher priority than it
+            if(running!=null && priority > running.getPriority() && !running.willFinish(time)) {
+                nextPriority(running);
+                return running;
+            }
+
+            priority++;
+        }
+        return null;
+    }
+
+    @Override
+    public Process steal() {
+        //steal the lowest priority process
+        for(int i = processQueues.size()-1; i >= 0; i--) {
+            Process process = processQueues.get(i).pollLast();
+            if(process!=null) {
+                size--;
+                return process;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Collection<Process> getWaiting() {
+        List<Process> waiting = new ArrayList<>(size);
+        for(Deque<Process> processes : processQueues) {
+            waiting.addAll(processes);
+        }
+        return waiting;
+    }
+
+    @Override
+    public void restore(Process process) {
+        processQueues.get(process.getPriority()).add(process);
+        size++;
+    }
+
+    private void nextPriority(Process process) {
+        process.setPriority(Math.min(processQueues.size()-1, process.getPriority()+1));
+    }
+}
@@ -1,5 +1,7 @@
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 
 /**
@@ -15,9 +17,14 @@ import java.util.*;
  * ID: p1
  * Arrive: [arrive]
  * ExecSize: [exec time]
+ * Tickets: [tickets] (optional, see {@link Job#getTickets()})
+ * Bursts: [cpu],[io],[cpu],...,[cpu] (optional, in place of ExecSize, see {@link Job})
  * END
  * ... ,
  * EOF
+ *
+ * The file is parsed by a {@link JobReader}, the same as {@link StreamingSimulationConfig}, so a file gives the same jobs whether or not it is
+ * streamed. Unlike streaming, the jobs do not have to be in order of arrival time.
  */
 public class FileSimulationConfig implements SimulationConfig {
 
@@ -28,43 +35,19 @@ public class FileSimulationConfig implements SimulationConfig {
      * Creates a simulation config using the file
      *
      * @param file the name of the file to read
-     * @throws FileNotFoundException Thrown if the file is an error occurs when trying to access the file *cause it does not exist or no permission*
+     * @throws FileNotFoundException Thrown if the file does not exist
+     * @throws IOException Thrown if the file cannot be read or a job is not valid
      */
-    public FileSimulationConfig(File file) throws FileNotFoundException {
-        this.jobs = new ArrayList<>();
-        readFile(file);
-    }
+    public FileSimulationConfig(File file) throws IOException {
+        if(!file.isFile())
+            throw new FileNotFoundException(file.toString());
 
-    private void readFile(File file) throws FileNotFoundException {
-        Scanner scanner = new Scanner(file);
-        //information about the next job
-        int execSize = 0;
-        int arrive = 0;
-        int id = 0;
-        while (scanner.hasNext()) {
-            //get next token
-            String token = scanner.next().toUpperCase(Locale.ROOT);
-            switch (token) {
-                case "DISP:":
-                    this.contextSwitchTime = scanner.nextInt(); //dispatch time is next int
-                    scanner.next(); //skip over end
-                    break;
-                case "END":
-                    Job job = new Job(id,arrive,execSize); //process done, add it to the jobs and go to next
-                    jobs.add(job);
-                    break;
-                case "ID:":
-                    id = Integer.parseInt(scanner.next().substring(1)); //id number is after the "p"
-                    break;
-                case "ARRIVE:":
-                    arrive = scanner.nextInt(); //arrival time is next integer
-                    break;
-                case "EXECSIZE:":
-                    execSize = scanner.nextInt(); //exec size is next integer
-                    break;
-                case "EOF": //we are complete!
-                    return;
-            }
+        this.jobs = new ArrayList<>();
+        try (JobReader reader = new JobReader(file.toPath())) {
+            reader.forEachRemaining(jobs::add);
+            this.contextSwitchTime = reader.getContextSwitchTime();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
     }
 
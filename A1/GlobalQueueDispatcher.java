@@ -0,0 +1,60 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * File: GlobalQueueDispatcher.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Represents a {@link MultiCoreDispatcher} where every core shares a single {@link ReadyQueue}. Whenever a core is interrupted it picks the next
+ * process from the shared queue, so a waiting process is run by whichever core frees up first.
+ */
+public class GlobalQueueDispatcher extends MultiCoreDispatcher {
+
+    private final ReadyQueue readyQueue;
+
+    /**
+     * Creates a new global queue dispatcher
+     *
+     * @param name The name of the algorithm being used
+     * @param contextSwitchTime The time to switch processes on a core
+     * @param cores The number of cores
+     * @param readyQueue The ready queue shared by all cores
+     */
+    public GlobalQueueDispatcher(String name, int contextSwitchTime, int cores, ReadyQueue readyQueue) {
+        super(name, contextSwitchTime, cores);
+        this.readyQueue = readyQueue;
+    }
+
+    @Override
+    protected void handleArrival(Process process) {
+        readyQueue.arrive(process);
+    }
+
+    @Override
+    protected Process selectProcess(int core) {
+        return readyQueue.select(getRunningProcess(core), getTime());
+    }
+
+    @Override
+    protected void readmitProcess(int core, Process process) {
+        readyQueue.readmit(process);
+    }
+
+    @Override
+    protected void writeState(DataOutput out) throws IOException {
+        super.writeState(out);
+        writeProcesses(out, readyQueue.getWaiting());
+    }
+
+    @Override
+    protected void readState(DataInput in) throws IOException {
+        super.readState(in);
+        if(readyQueue.size()>0)
+            throw new IOException("Ready queue already has processes waiting");
+        for(Process process : readProcesses(in)) {
+            readyQueue.restore(process);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * File: HRRNDispatcher.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Represents a dispatcher running the HRRN (Highest Response Ratio Next) algorithm. This algorithm selects the waiting process with the highest response ratio,
+ * (wait time + service time) / service time, so short processes are favoured but long processes are not starved as their ratio grows while they wait.
+ * Processes wait in a {@link ResponseRatioQueue} so each selection does not need to rescan every waiting process.
+ * It is non-preemptive and will run a process to completion.
+ */
+public class HRRNDispatcher extends SingleCoreDispatcher {
+
+    private final ResponseRatioQueue processQueue;
+
+    /**
+     * Creates a new HRRN dispatcher.
+     *
+     * @param contextSwitchTime The time taken switch processes
+     */
+    public HRRNDispatcher(int contextSwitchTime) {
+        super("HRRN", contextSwitchTime);
+        this.processQueue = new ResponseRatioQueue();
+    }
+
+    @Override
+    protected void handleArrival(Process process) {
+        processQueue.add(process);
+    }
+
+    @Override
+    protected Process selectProcess() {
+        //the ratios are compared at the time of the decision
+        processQueue.advance(getTime());
+        return processQueue.poll();
+    }
+
+    @Override
+    protected void readmitProcess(Process process) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected void scheduleTask(Process process) {
+        process.setStartExecuting(getTime());
+        //schedule the task until completion
+        int finishTime = getTime() + process.getRemainingTime();
+        scheduleInterrupt(process.getProcessId(),finishTime);
+    }
+
+    @Override
+    protected void writeState(DataOutput out) throws IOException {
+        super.writeState(out);
+        out.writeLong(processQueue.getTime());
+        writeProcesses(out, processQueue.getProcesses());
+    }
+
+    @Override
+    protected void readState(DataInput in) throws IOException {
+        super.readState(in);
+        while (processQueue.size() > 0) {
+            processQueue.poll();
+        }
+        processQueue.advance(in.readLong());
+        for(Process process : readProcesses(in)) {
+            processQueue.add(process);
+        }
+    }
+}
@@ -18,7 +18,7 @@ public class InterruptTask extends Task {
     @Override
     public void run() {
         //interrupt the dispatcher at the required time
-        dispatcher.interrupt();
+        dispatcher.interrupt(getProcessId());
     }
 
     @Override
@@ -5,12 +5,44 @@
  * Course: COMP2240
  * Represents a task that CAN BE scheduled by a processor. Each job has a unique id, a time at which it arrives and a time of execution. A process is distinct from the job
  * as a process is a job that is being run by a processor
+ *
+ * Each job also holds a number of tickets, its share of the processor under proportional share algorithms such as {@link LotteryDispatcher}
+ * and {@link StrideDispatcher}. Other algorithms ignore it.
+ *
+ * A job can be made of alternating CPU and I/O bursts rather than a single CPU burst. The process runs its first CPU burst, is then blocked
+ * for its first I/O burst, then becomes ready again for its next CPU burst, and so on until its last CPU burst. The service time is the total
+ * of the CPU bursts. The bursts are held in a single int array, which is shared with every process of the job rather than copied.
+ *
+ * A job can be a release of a {@link PeriodicTask}, in which case it has a deadline it should finish by and the period of its task. These are
+ * used by real time algorithms such as {@link EDFDispatcher} and {@link RateMonotonicDispatcher}, and to count the deadlines missed.
  */
 public class Job {
 
+    /**
+     * The tickets held by a job that does not give any
+     */
+    public final static int DEFAULT_TICKETS = 100;
+    /**
+     * The deadline of a job that does not have one, it is never missed
+     */
+    public final static int NO_DEADLINE = Integer.MAX_VALUE;
+    /**
+     * The period of a job that is not released by a periodic task
+     */
+    public final static int NO_PERIOD = Integer.MAX_VALUE;
+    /**
+     * The task of a job that is not released by a periodic task
+     */
+    public final static int NO_TASK = -1;
+
     private final int id;
     private final int arrivalTime;
     private final int serviceTime;
+    private final int tickets;
+    private final int[] bursts; //CPU and I/O bursts alternating, or null for a single CPU burst
+    private final int deadline;
+    private final int period;
+    private final int task;
 
     /**
      * Creates a new job
@@ -20,9 +52,91 @@ public class Job {
      * @param processingTime The amount of time that is required to fully execute the job
      */
     public Job(int id, int arrivalTime, int processingTime) {
+        this(id, arrivalTime, processingTime, DEFAULT_TICKETS);
+    }
+
+    /**
+     * Creates a new job with a share of the processor
+     *
+     * @param id the unique id of the job. No other job should have this number
+     * @param arrivalTime The time at which the job arrives to the processor
+     * @param processingTime The amount of time that is required to fully execute the job
+     * @param tickets The share of the processor the job is given by proportional share algorithms
+     * @throws IllegalArgumentException if the tickets are not positive
+     */
+    public Job(int id, int arrivalTime, int processingTime, int tickets) {
+        if(tickets<1)
+            throw new IllegalArgumentException("Tickets must be positive, got "+tickets+" for job "+id);
         this.id = id;
         this.arrivalTime = arrivalTime;
         this.serviceTime = processingTime;
+        this.tickets = tickets;
+        this.bursts = null;
+        this.deadline = NO_DEADLINE;
+        this.period = NO_PERIOD;
+        this.task = NO_TASK;
+    }
+
+    /**
+     * Creates a new job made of CPU and I/O bursts
+     *
+     * @param id the unique id of the job. No other job should have this number
+     * @param arrivalTime The time at which the job arrives to the processor
+     * @param bursts The length of each burst, CPU and I/O alternating, starting and ending with a CPU burst
+     * @param tickets The share of the processor the job is given by proportional share algorithms
+     * @throws IllegalArgumentException if there is not an odd number of bursts, a CPU burst is not positive, an I/O burst is negative or the tickets
+     *                                  are not positive
+     */
+    public Job(int id, int arrivalTime, int[] bursts, int tickets) {
+        if(tickets<1)
+            throw new IllegalArgumentException("Tickets must be positive, got "+tickets+" for job "+id);
+        if(bursts.length%2==0)
+            throw new IllegalArgumentException("Bursts must start and end with a CPU burst, got "+bursts.length+" bursts for job "+id);
+        int serviceTime = 0;
+        for(int i = 0; i < bursts.length; i++) {
+            if(i%2==0 && bursts[i]<1)
+                throw new IllegalArgumentException("CPU bursts must be positive, got "+bursts[i]+" for job "+id);
+            if(i%2==1 && bursts[i]<0)
+                throw new IllegalArgumentException("I/O bursts must not be negative, got "+bursts[i]+" for job "+id);
+            if(i%2==0)
+                serviceTime += bursts[i];
+        }
+        this.id = id;
+        this.arrivalTime = arrivalTime;
+        this.serviceTime = serviceTime;
+        this.tickets = tickets;
+        this.bursts = bursts.length==1 ? null : bursts.clone();
+        this.deadline = NO_DEADLINE;
+        this.period = NO_PERIOD;
+        this.task = NO_TASK;
+    }
+
+    /**
+     * Creates a new release of a periodic or sporadic task
+     *
+     * @param id the unique id of the job. No other job should have this number
+     * @param task The index of the task which released the job in its task set
+     * @param releaseTime The time at which the job is released, its arrival time
+     * @param executionTime The amount of time that is required to fully execute the job
+     * @param deadline The time the job should finish by
+     * @param period The period of the task which released the job
+     * @throws IllegalArgumentException if the task is negative, the deadline is before the release time or the period is not positive
+     */
+    public Job(int id, int task, int releaseTime, int executionTime, int deadline, int period) {
+        if(task<0)
+            throw new IllegalArgumentException("Task must not be negative, got "+task+" for job "+id);
+        if(deadline<releaseTime)
+            throw new IllegalArgumentException("Deadline "+deadline+" is before the release time "+releaseTime+" of job "+id);
+        if(period<1)
+            throw new IllegalArgumentException("Period must be positive, got "+period+" for job "+id);
+        this.id = id;
+        this.arrivalTime = releaseTime;
+        this.serviceTime = executionTime;
+        this.tickets = DEFAULT_TICKETS;
+        this.bursts = null;
+        this.deadline = deadline;
+        this.period = period;
+        this.task = task;
     }
 
     /**
@@ -40,9 +154,70 @@ public class Job {
     }
 
     /**
-     * @return The amount of time that is required to fully execute the job
+     * @return The amount of time that is required to fully execute the job, the total of every CPU burst
      */
     public int getServiceTime() {
         return serviceTime;
     }
+
+    /**
+     * @return The share of the processor the job is given by proportional share algorithms
+     */
+    public int getTickets() {
+        return tickets;
+    }
+
+    /**
+     * @return The time the job should finish by, or {@link #NO_DEADLINE}
+     */
+    public int getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * @return The period of the task which released the job, or {@link #NO_PERIOD}
+     */
+    public int getPeriod() {
+        return period;
+    }
+
+    /**
+     * @return The index of the task which released the job in its task set, or {@link #NO_TASK}
+     */
+    public int getTask() {
+        return task;
+    }
+
+    /**
+     * @return The length of each burst, CPU and I/O alternating, starting and ending with a CPU burst
+     */
+    public int[] getBursts() {
+        return bursts==null ? new int[] {serviceTime} : bursts.clone();
+    }
+
+    /**
+     * @return The bursts shared with the processes of the job, or null for a single CPU burst. This must not be changed.
+     */
+    int[] getBurstArray() {
+        return bursts;
+    }
+
+    /**
+     * @return The total time the job spends blocked on I/O
+     */
+    public int getIOTime() {
+        return getIOTime(bursts);
+    }
+
+    /**
+     * @param bursts CPU and I/O bursts alternating, or null for a single CPU burst
+     * @return The total of the I/O bursts
+     */
+    static int getIOTime(int[] bursts) {
+        int ioTime = 0;
+        for(int i = 1; bursts!=null && i < bursts.length; i += 2) {
+            ioTime += bursts[i];
+        }
+        return ioTime;
+    }
 }
@@ -0,0 +1,243 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * File: JobReader.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Reads jobs one at a time from a file in the same format as {@link FileSimulationConfig}. Rather than using a {@link java.util.Scanner} the file
+ * is read in blocks into a byte buffer and the tokens are parsed straight from the bytes, so only the next job is ever held in memory. The file is
+ * closed once the last job has been read, or when {@link #close()} is called.
+ *
+ * Every job starts from the defaults, arrival time 0, exec size 0, default tickets and a single CPU burst, so a field left out of a job is never
+ * taken from the job before it. An END which does not follow an ID: is ignored.
+ */
+public class JobReader implements Iterator<Job>, Closeable {
+
+    private final static int BUFFER_SIZE = 1 << 16;
+    private final static int MAX_TOKEN_LENGTH = 1 << 12; //long enough for a list of bursts
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[] token;
+    private int tokenLength;
+    private boolean endOfFile;
+
+    private int contextSwitchTime;
+    private Job next;
+
+    /**
+     * Opens a job reader on a file
+     *
+     * @param file The file to read
+     * @throws IOException If the file cannot be opened
+     */
+    public JobReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        this.buffer.flip(); //start with an empty buffer
+        this.token = new byte[MAX_TOKEN_LENGTH];
+        this.endOfFile = false;
+        this.contextSwitchTime = 0;
+        this.next = null;
+    }
+
+    /**
+     * The context switch time is read from the DISP: entry at the start of the file. This is only known once the first job has been read
+     * or {@link #hasNext()} has been called.
+     *
+     * @return The context switch time in the file
+     */
+    public int getContextSwitchTime() {
+        return contextSwitchTime;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if(next==null && !endOfFile) {
+            try {
+                next = readJob();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next!=null;
+    }
+
+    @Override
+    public Job next() {
+        if(!hasNext())
+            throw new NoSuchElementException();
+        Job job = next;
+        next = null;
+        return job;
+    }
+
+    @Override
+    public void close() throws IOException {
+        endOfFile = true;
+        channel.close();
+    }
+
+    /**
+     * Reads tokens until a job has been completed by an END token
+     *
+     * @return The job read or null if there are no more jobs in the file
+     */
+    private Job readJob() throws IOException {
+        //information about the next job
+        int execSize = 0;
+        int arrive = 0;
+        int id = 0;
+        int tickets = Job.DEFAULT_TICKETS;
+        int[] bursts = null;
+        boolean inJob = false;
+        while (readToken()) {
+            if(matches("DISP:")) {
+                readToken();
+                this.contextSwitchTime = parseInt(0); //dispatch time is next int
+                readToken(); //skip over end
+            } else if(matches("END")) {
+                if(inJob) //process done
+                    return bursts==null ? new Job(id,arrive,execSize,tickets) : new Job(id,arrive,bursts,tickets);
+            } else if(matches("ID:")) {
+                readToken();
+                id = parseInt(1); //id number is after the "p"
+                inJob = true;
+            } else if(matches("ARRIVE:")) {
+                readToken();
+                arrive = parseInt(0); //arrival time is next integer
+            } else if(matches("EXECSIZE:")) {
+                readToken();
+                execSize = parseInt(0); //exec size is next integer
+            } else if(matches("BURSTS:")) {
+                readToken();
+                bursts = parseInts(); //comma separated bursts are next
+            } else if(matches("TICKETS:")) {
+                readToken();
+                tickets = parseInt(0); //tickets is next integer
+            } else if(matches("EOF")) { //we are complete!
+                break;
+            }
+        }
+        close();
+        return null;
+    }
+
+    /**
+     * Reads the next whitespace separated token into the token buffer
+     *
+     * @return Whether a token was read, false if the end of the file was reached
+     */
+    private boolean readToken() throws IOException {
+        tokenLength = 0;
+        int b;
+        //skip whitespace
+        do {
+            b = readByte();
+            if(b<0)
+                return false;
+        } while (isWhitespace(b));
+
+        //read until the next whitespace
+        do {
+            if(tokenLength==MAX_TOKEN_LENGTH)
+                throw new IOException("Token longer than "+MAX_TOKEN_LENGTH+" bytes");
+            token[tokenLength++] = (byte) b;
+            b = readByte();
+        } while (b>=0 && !isWhitespace(b));
+        return true;
+    }
+
+    private int readByte() throws IOException {
+        if(!buffer.hasRemaining()) {
+            buffer.clear();
+            int read;
+            do {
+                read = channel.read(buffer);
+            } while (read==0);
+            buffer.flip();
+            if(read<0)
+                return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    private static boolean isWhitespace(int b) {
+        return b==' ' || b=='\n' || b=='\r' || b=='\t' || b=='\f';
+    }
+
+    /**
+     * @param keyword An upper case keyword
+     * @return Whether the current token is the keyword, ignoring case
+     */
+    private boolean matches(String keyword) {
+        if(tokenLength!=keyword.length())
+            return false;
+        for(int i = 0; i < tokenLength; i++) {
+            int b = token[i];
+            if(b>='a' && b<='z')
+                b -= 'a' - 'A';
+            if(b!=keyword.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Parses the current token as a comma separated list of non-negative integers
+     *
+     * @return The integer values of the token
+     */
+    private int[] parseInts() throws IOException {
+        int[] values = new int[8];
+        int count = 0;
+        long value = 0;
+        for(int i = 0; i <= tokenLength; i++) {
+            if(i==tokenLength || token[i]==',') {
+                if(count==values.length)
+                    values = Arrays.copyOf(values, count * 2);
+                values[count++] = (int) value;
+                value = 0;
+                continue;
+            }
+            int digit = token[i] - '0';
+            if(digit<0 || digit>9)
+                throw new IOException("Expected numbers but got '"+new String(token,0,tokenLength)+"'");
+            value = value * 10 + digit;
+            if(value>Integer.MAX_VALUE)
+                throw new IOException("Number too large '"+new String(token,0,tokenLength)+"'");
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    /**
+     * Parses the current token as a non-negative integer
+     *
+     * @param offset The number of characters to skip at the start of the token
+     * @return The integer value of the token
+     */
+    private int parseInt(int offset) throws IOException {
+        if(offset>=tokenLength)
+            throw new IOException("Expected a number but got '"+new String(token,0,tokenLength)+"'");
+        long value = 0;
+        for(int i = offset; i < tokenLength; i++) {
+            int digit = token[i] - '0';
+            if(digit<0 || digit>9)
+                throw new IOException("Expected a number but got '"+new String(token,0,tokenLength)+"'");
+            value = value * 10 + digit;
+            if(value>Integer.MAX_VALUE)
+                throw new IOException("Number too large '"+new String(token,0,tokenLength)+"'");
+        }
+        return (int) value;
+    }
+}
@@ -0,0 +1,177 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * File: LotteryDispatcher.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Represents a dispatcher running lottery scheduling. Each process holds a number of tickets, see {@link Job#getTickets()}. At the end of every time
+ * quanta a ticket is drawn at random from the tickets of every process that could run, including the running process, and the process holding it
+ * runs next. Over time each process gets a share of the processor in proportion to its tickets.
+ *
+ * The tickets of the waiting processes are held in a {@link TicketTree}, so both a draw and adding or removing a process take O(log n) time. Each
+ * process is given an entry in the tree when it joins the draw, reusing the entry of the last process to leave, so where each process's tickets
+ * are in the tree only depends on the order processes join and leave the draw, not on where they are stored. The draws are made with a seeded
+ * generator, so the same jobs and seed always give the same result however the jobs are read.
+ */
+public class LotteryDispatcher extends SingleCoreDispatcher {
+
+    final static int TIME_QUANTA = 4;
+
+    private final int timeQuanta;
+    private final TicketTree tickets;
+    private Process[] waiting; //the waiting process in each entry of the tree, or null
+    private int waitingCount;
+    private int entries; //the number of entries that have ever been given out
+    private int[] freeEntries; //entries given up by processes leaving the draw, the last is reused first
+    private int freeCount;
+    private long random; //the state of the generator
+
+    /**
+     * Creates a lottery dispatcher with a time quanta of 4 and a seed of 0
+     *
+     * @param contextSwitchTime The time taken to swap processes
+     */
+    public LotteryDispatcher(int contextSwitchTime) {
+        this("LOTTERY", contextSwitchTime, TIME_QUANTA, 0);
+    }
+
+    /**
+     * Creates a lottery dispatcher
+     *
+     * @param name The name of the algorithm being used
+     * @param contextSwitchTime The time taken to swap processes
+     * @param timeQuanta The time a process runs before the next draw
+     * @param seed The seed of the draws
+     * @throws IllegalArgumentException if the time quanta is not positive
+     */
+    public LotteryDispatcher(String name, int contextSwitchTime, int timeQuanta, long seed) {
+        super(name, contextSwitchTime);
+        if(timeQuanta<1)
+            throw new IllegalArgumentException("Time quanta must be positive, got "+timeQuanta);
+        this.timeQuanta = timeQuanta;
+        this.tickets = new TicketTree();
+        this.waiting = new Process[16];
+        this.waitingCount = 0;
+        this.entries = 0;
+        this.freeEntries = new int[16];
+        this.freeCount = 0;
+        this.random = seed;
+    }
+
+    @Override
+    protected void handleArrival(Process process) {
+        process.setTimeQuanta(timeQuanta);
+        enqueue(process);
+    }
+
+    @Override
+    protected Process selectProcess() {
+        //nothing to draw against, the running process carries on without using up a draw
+        if(waitingCount==0)
+            return null;
+
+        Process runningProcess = getRunningProcess();
+        long runningTickets = runningProcess!=null && !runningProcess.willFinish(getTime()) ? runningProcess.getTickets() : 0;
+        long ticket = Long.remainderUnsigned(nextRandom(), tickets.getTotal() + runningTickets);
+        //the running process holds the tickets after every waiting process, if it wins it carries on without a context switch
+        if(ticket>=tickets.getTotal())
+            return null;
+
+        int entry = tickets.find(ticket);
+        Process winner = waiting[entry];
+        dequeue(entry);
+        return winner;
+    }
+
+    @Override
+    protected void readmitProcess(Process process) {
+        enqueue(process);
+    }
+
+    @Override
+    protected void scheduleTask(Process process) {
+        process.setStartExecuting(getTime());
+        //execute either for the time quanta or until the process has finished executing, nothing else can win a draw while nothing is waiting
+        int finishTime = getTime() + process.getRemainingTime();
+        int quantaTime = waitingCount==0 ? skipQuanta(process) : getTime() + process.getTimeQuanta();
+        scheduleInterrupt(process.getProcessId(), Math.min(finishTime, quantaTime));
+    }
+
+    private void enqueue(Process process) {
+        int entry;
+        if(freeCount > 0) {
+            entry = freeEntries[--freeCount];
+        } else {
+            entry = entries++;
+            if(entry==waiting.length)
+                waiting = Arrays.copyOf(waiting, waiting.length * 2);
+        }
+        waiting[entry] = process;
+        tickets.set(entry, process.getTickets());
+        waitingCount++;
+    }
+
+    private void dequeue(int entry) {
+        waiting[entry] = null;
+        tickets.set(entry, 0);
+        waitingCount--;
+        if(freeCount==freeEntries.length)
+            freeEntries = Arrays.copyOf(freeEntries, freeCount * 2);
+        freeEntries[freeCount++] = entry;
+    }
+
+    /**
+     * The next value of a SplitMix64 generator. Unlike {@link java.util.Random} its whole state is one long, so it can be saved in a checkpoint.
+     */
+    private long nextRandom() {
+        long z = (random += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    protected void writeState(DataOutput out) throws IOException {
+        super.writeState(out);
+        out.writeLong(random);
+        //every entry is saved, free ones as null, so the tickets are laid out the same way when the simulation carries on
+        writeProcesses(out, Arrays.asList(waiting).subList(0, entries));
+        out.writeInt(freeCount);
+        for(int i = 0; i < freeCount; i++) {
+            out.writeInt(freeEntries[i]);
+        }
+    }
+
+    @Override
+    protected void readState(DataInput in) throws IOException {
+        super.readState(in);
+        random = in.readLong();
+        for(int entry = 0; entry < entries; entry++) {
+            tickets.set(entry, 0);
+        }
+        List<Process> saved = readProcesses(in);
+        entries = saved.size();
+        waiting = new Process[Math.max(16, entries)];
+        waitingCount = 0;
+        for(int entry = 0; entry < entries; entry++) {
+            Process process = saved.get(entry);
+            waiting[entry] = process;
+            if(process!=null) {
+                tickets.set(entry, process.getTickets());
+                waitingCount++;
+            }
+        }
+        freeCount = in.readInt();
+        if(freeCount<0 || freeCount>entries)
+            throw new IOException("Invalid number of free entries "+freeCount);
+        freeEntries = new int[Math.max(16, freeCount)];
+        for(int i = 0; i < freeCount; i++) {
+            freeEntries[i] = in.readInt();
+        }
+    }
+}
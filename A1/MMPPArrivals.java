@@ -0,0 +1,60 @@
+import java.util.Random;
+
+/**
+ * File: MMPPArrivals.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * An {@link ArrivalProcess} which switches between a normal state and a burst state (a two state Markov modulated Poisson process). In each state jobs arrive
+ * at that state's rate, and the time spent in each state is exponentially distributed. This models traffic that arrives in bursts.
+ */
+public class MMPPArrivals implements ArrivalProcess {
+
+    private final double rate;
+    private final double burstRate;
+    private final double meanGap;
+    private final double meanBurst;
+    private boolean bursting;
+    private double stateEnds;
+
+    /**
+     * @param rate The average number of arrivals per unit of time between bursts
+     * @param burstRate The average number of arrivals per unit of time during a burst
+     * @param meanGap The average time between bursts
+     * @param meanBurst The average length of a burst
+     * @throws IllegalArgumentException if any value is not positive
+     */
+    public MMPPArrivals(double rate, double burstRate, double meanGap, double meanBurst) {
+        Distributions.requirePositive("Rate", rate);
+        Distributions.requirePositive("Burst rate", burstRate);
+        Distributions.requirePositive("Mean gap", meanGap);
+        Distributions.requirePositive("Mean burst", meanBurst);
+        this.rate = rate;
+        this.burstRate = burstRate;
+        this.meanGap = meanGap;
+        this.meanBurst = meanBurst;
+        this.bursting = false;
+        this.stateEnds = Double.NaN;
+    }
+
+    @Override
+    public double nextArrival(double time, Random random) {
+        if(Double.isNaN(stateEnds))
+            stateEnds = Distributions.exponential(random, 1 / meanGap);
+
+        while (true) {
+            double arrival = time + Distributions.exponential(random, bursting ? burstRate : rate);
+            if(arrival <= stateEnds)
+                return arrival;
+            //the state changed first, as arrivals are memoryless start again from the change
+            time = stateEnds;
+            bursting = !bursting;
+            stateEnds = time + Distributions.exponential(random, 1 / (bursting ? meanBurst : meanGap));
+        }
+    }
+
+    @Override
+    public ArrivalProcess copy() {
+        return new MMPPArrivals(rate, burstRate, meanGap, meanBurst);
+    }
+}
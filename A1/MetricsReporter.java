@@ -0,0 +1,63 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * File: MetricsReporter.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Takes a snapshot of the metrics of some dispatchers at a fixed rate on a background thread, and gives each one to a consumer. The reporter
+ * must be closed once the dispatchers have finished, which also reports the final snapshot of each.
+ */
+public class MetricsReporter implements AutoCloseable {
+
+    private final List<DispatcherMetrics> metrics;
+    private final Consumer<MetricsSnapshot> consumer;
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Creates a reporter and starts reporting
+     *
+     * @param metrics The metrics to report
+     * @param periodMillis The time between reports in milliseconds
+     * @param consumer Given each snapshot, on the reporting thread
+     * @throws IllegalArgumentException if the period is not positive
+     */
+    public MetricsReporter(Collection<DispatcherMetrics> metrics, long periodMillis, Consumer<MetricsSnapshot> consumer) {
+        if(periodMillis<1)
+            throw new IllegalArgumentException("Period must be positive, got "+periodMillis);
+        this.metrics = new ArrayList<>(metrics);
+        this.consumer = consumer;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(this::report, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void report() {
+        for(DispatcherMetrics metric : metrics) {
+            consumer.accept(metric.snapshot());
+        }
+    }
+
+    /**
+     * Stops reporting, then reports each dispatcher one last time
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        report();
+    }
+}
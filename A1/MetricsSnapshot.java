@@ -0,0 +1,129 @@
+/**
+ * File: MetricsSnapshot.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * The metrics of a dispatcher at one moment, taken with {@link DispatcherMetrics#snapshot()}. Unlike the metrics themselves a snapshot never changes,
+ * so it can be compared with a later snapshot to find the rate events are being run.
+ */
+public class MetricsSnapshot {
+
+    private final String name;
+    private final long wallTime;
+    private final long events;
+    private final long simulationTime;
+    private final long contextSwitches;
+    private final long eventQueueHighWater;
+    private final double readyQueueMean;
+    private final long readyQueueP99;
+    private final long readyQueueMax;
+    private final double selectTimeMeanNanos;
+    private final long selectTimeP99Nanos;
+
+    MetricsSnapshot(DispatcherMetricsMBean metrics) {
+        this.name = metrics.getName();
+        this.wallTime = System.nanoTime();
+        this.events = metrics.getEvents();
+        this.simulationTime = metrics.getSimulationTime();
+        this.contextSwitches = metrics.getContextSwitches();
+        this.eventQueueHighWater = metrics.getEventQueueHighWater();
+        this.readyQueueMean = metrics.getReadyQueueMean();
+        this.readyQueueP99 = metrics.getReadyQueueP99();
+        this.readyQueueMax = metrics.getReadyQueueMax();
+        this.selectTimeMeanNanos = metrics.getSelectTimeMeanNanos();
+        this.selectTimeP99Nanos = metrics.getSelectTimeP99Nanos();
+    }
+
+    /**
+     * @param earlier A snapshot of the same dispatcher taken before this one
+     * @return The number of events run each second between the two snapshots
+     */
+    public double getEventsPerSecond(MetricsSnapshot earlier) {
+        long nanos = wallTime - earlier.wallTime;
+        return nanos<=0 ? 0 : (events - earlier.events) * 1e9 / nanos;
+    }
+
+    /**
+     * @return The name of the algorithm
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The value of {@link System#nanoTime()} when the snapshot was taken
+     */
+    public long getWallTime() {
+        return wallTime;
+    }
+
+    /**
+     * @return The number of events run by the simulation
+     */
+    public long getEvents() {
+        return events;
+    }
+
+    /**
+     * @return The time of the last event run
+     */
+    public long getSimulationTime() {
+        return simulationTime;
+    }
+
+    /**
+     * @return The number of processes dispatched to a processor
+     */
+    public long getContextSwitches() {
+        return contextSwitches;
+    }
+
+    /**
+     * @return The most events ever waiting in the event queue at once
+     */
+    public long getEventQueueHighWater() {
+        return eventQueueHighWater;
+    }
+
+    /**
+     * @return The mean number of processes waiting to run
+     */
+    public double getReadyQueueMean() {
+        return readyQueueMean;
+    }
+
+    /**
+     * @return The 99th percentile of the number of processes waiting to run
+     */
+    public long getReadyQueueP99() {
+        return readyQueueP99;
+    }
+
+    /**
+     * @return The most processes ever waiting to run
+     */
+    public long getReadyQueueMax() {
+        return readyQueueMax;
+    }
+
+    /**
+     * @return The mean time taken to select a process, in nanoseconds
+     */
+    public double getSelectTimeMeanNanos() {
+        return selectTimeMeanNanos;
+    }
+
+    /**
+     * @return The 99th percentile of the time taken to select a process, in nanoseconds
+     */
+    public long getSelectTimeP99Nanos() {
+        return selectTimeP99Nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: events=%d time=%d switches=%d queue-high=%d ready mean=%.2f p99=%d max=%d select mean=%.0fns p99=%dns",
+                name, events, simulationTime, contextSwitches, eventQueueHighWater, readyQueueMean, readyQueueP99, readyQueueMax,
+                selectTimeMeanNanos, selectTimeP99Nanos);
+    }
+}
@@ -0,0 +1,264 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * File: MultiCoreDispatcher.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Represents a {@link Dispatcher} for an algorithm that runs on several processors (cores) at once. Each core runs at most one process. Unlike
+ * {@link SingleCoreDispatcher} the simulation time is not moved forward by a context switch, as the other cores carry on while one core is switching.
+ * Instead the process is started once the context switch on its core has finished. Context switches and the time spent executing processes
+ * are recorded per core.
+ *
+ * Where processes wait while they are not running is left to the implementation, see {@link GlobalQueueDispatcher} and {@link WorkStealingDispatcher}.
+ */
+public abstract class MultiCoreDispatcher extends Dispatcher {
+
+    private final Process[] runningProcesses;
+    private final int[] contextSwitches;
+    private final long[] busyTime;
+    private int idleCores;
+
+    /**
+     * Creates a new multi core dispatcher
+     *
+     * @param name The name of the algorithm being used
+     * @param contextSwitchTime The time to switch processes on a core
+     * @param cores The number of cores
+     * @throws IllegalArgumentException if there is not at least one core
+     */
+    protected MultiCoreDispatcher(String name, int contextSwitchTime, int cores) {
+        super(name, contextSwitchTime);
+        if(cores < 1)
+            throw new IllegalArgumentException("A dispatcher needs at least one core, got "+cores);
+
+        this.runningProcesses = new Process[cores];
+        this.contextSwitches = new int[cores];
+        this.busyTime = new long[cores];
+        this.idleCores = cores;
+    }
+
+    @Override
+    public void arrive(Process process) {
+        handleArrival(process);
+        //give any idle cores a chance to pick up the new arrival
+        dispatchIdleCores();
+    }
+
+    /**
+     * Interrupts every idle core, giving them the chance to pick up a waiting process.
+     */
+    @Override
+    public void interrupt() {
+        dispatchIdleCores();
+    }
+
+    @Override
+    public void interrupt(int processId) {
+        for(int core = 0; core < runningProcesses.length; core++) {
+            Process process = runningProcesses[core];
+            if(process!=null && process.getProcessId()==processId) {
+                dispatch(core);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Stops executing the current running process on the core and admits a new one. This follows the same rules as
+     * {@link SingleCoreDispatcher#interrupt()} but only for the one core.
+     *
+     * @param core The core being interrupted
+     */
+    private void dispatch(int core) {
+        Process running = runningProcesses[core];
+        //algorithm should select the process
+        long selectStart = getMetrics().startSelect();
+        Process process = selectProcess(core);
+        getMetrics().endSelect(selectStart);
+        if(running!=null) {
+            running.setFinishExecuting(getTime());
+            if(running.isFinished()) {
+                finished(running);
+            } else if(running.isBlocked()) {
+                blocked(running);
+            } else {
+                //nothing else is waiting for this core, so keep running without a context switch
+                if(process==null) {
+                    scheduleTask(core, running, getTime());
+                    return;
+                }
+
+                if(!process.equals(running)) {
+                    preempted(running);
+                    readmitProcess(core, running);
+                    //readmitting may have given work to a core that has gone idle
+                    runningProcesses[core] = process;
+                    dispatchIdleCores();
+                }
+            }
+        }
+
+        //now perform a context switch on the core
+        setRunningProcess(core, process);
+        if(process==null) //the core is now idle
+            return;
+
+        contextSwitches[core]++;
+        int startTime = getTime() + getContextSwitchTime();
+        dispatched(process, startTime, core);
+        scheduleTask(core, process, startTime);
+    }
+
+    private void dispatchIdleCores() {
+        for(int core = 0; core < runningProcesses.length && idleCores > 0; core++) {
+            if(runningProcesses[core]==null)
+                dispatch(core);
+        }
+    }
+
+    private void setRunningProcess(int core, Process process) {
+        Process previous = runningProcesses[core];
+        if(previous==null && process!=null)
+            idleCores--;
+        else if(previous!=null && process==null)
+            idleCores++;
+        runningProcesses[core] = process;
+    }
+
+    /**
+     * Schedules the process to run on the core either to completion or until its time quanta expires, whichever is the shorter.
+     *
+     * @param core The core the process runs on
+     * @param process The process to run
+     * @param startTime The time the process starts executing
+     */
+    private void scheduleTask(int core, Process process, int startTime) {
+        process.setStartExecuting(startTime);
+        int runTime = Math.min(process.getRemainingTime(), process.getTimeQuanta());
+        busyTime[core] += runTime;
+        scheduleInterrupt(process.getProcessId(), startTime + runTime);
+    }
+
+    /**
+     * Logic for what the algorithm should do when a new process arrives to the dispatcher. This should set up the time quanta of the process.
+     *
+     * @param process The process which has arrived.
+     */
+    protected abstract void handleArrival(Process process);
+
+    /**
+     * Logic for picking a new process for a core after an interrupt. If there are no processes then return null.
+     *
+     * @param core The core that needs a process
+     * @return The selected process or null if there is no new process to select
+     */
+    protected abstract Process selectProcess(int core);
+
+    /**
+     * Logic for readmitting a process back into a queue after it has been preempted from a core. This will only be called if the process has not finished.
+     *
+     * @param core The core the process was running on
+     * @param process The process to readmit
+     */
+    protected abstract void readmitProcess(int core, Process process);
+
+    @Override
+    protected Collection<Process> getRunningProcesses() {
+        List<Process> running = new ArrayList<>();
+        for(Process process : runningProcesses) {
+            if(process!=null)
+                running.add(process);
+        }
+        return running;
+    }
+
+    @Override
+    protected int getProcessors() {
+        return runningProcesses.length;
+    }
+
+    @Override
+    protected int getRunningCount() {
+        return runningProcesses.length - idleCores;
+    }
+
+    @Override
+    protected void writeState(DataOutput out) throws IOException {
+        super.writeState(out);
+        out.writeInt(runningProcesses.length);
+        for(int core = 0; core < runningProcesses.length; core++) {
+            writeProcess(out, runningProcesses[core]);
+            out.writeInt(contextSwitches[core]);
+            out.writeLong(busyTime[core]);
+        }
+    }
+
+    @Override
+    protected void readState(DataInput in) throws IOException {
+        super.readState(in);
+        int cores = in.readInt();
+        if(cores!=runningProcesses.length)
+            throw new IOException("Checkpoint has "+cores+" cores, not "+runningProcesses.length);
+        idleCores = 0;
+        for(int core = 0; core < cores; core++) {
+            runningProcesses[core] = readProcess(in);
+            if(runningProcesses[core]==null)
+                idleCores++;
+            contextSwitches[core] = in.readInt();
+            busyTime[core] = in.readLong();
+        }
+    }
+
+    /**
+     * @return The number of cores
+     */
+    public int getCores() {
+        return runningProcesses.length;
+    }
+
+    /**
+     * @param core The core
+     * @return The process currently being executed by the core, or null if it is idle
+     */
+    protected Process getRunningProcess(int core) {
+        return runningProcesses[core];
+    }
+
+    /**
+     * @param core The core
+     * @return Whether the core is not running a process
+     */
+    protected boolean isIdle(int core) {
+        return runningProcesses[core]==null;
+    }
+
+    /**
+     * @param core The core
+     * @return The number of context switches performed by the core
+     */
+    public int getContextSwitches(int core) {
+        return contextSwitches[core];
+    }
+
+    /**
+     * @param core The core
+     * @return The total time the core has spent context switching
+     */
+    public long getContextSwitchingTime(int core) {
+        return (long) contextSwitches[core] * getContextSwitchTime();
+    }
+
+    /**
+     * @param core The core
+     * @return The total time the core has spent executing processes
+     */
+    public long getBusyTime(int core) {
+        return busyTime[core];
+    }
+}
@@ -8,17 +8,31 @@
  */
 public class NRRDispatcher extends AbstractRRDispatcher {
 
-    private final static int MIN_TIME_QUANTA = 2;
-    private final static int BASE_TIME_QUANTA = 4;
+    final static int MIN_TIME_QUANTA = 2;
+    final static int BASE_TIME_QUANTA = 4;
+
+    private final int minTimeQuanta;
 
     protected NRRDispatcher(int contextSwitchTime) {
-        super("NRR",contextSwitchTime, BASE_TIME_QUANTA);
+        this(contextSwitchTime, BASE_TIME_QUANTA, MIN_TIME_QUANTA);
+    }
+
+    /**
+     * Creates a new NRR dispatcher
+     *
+     * @param contextSwitchTime The time taken switch processes
+     * @param baseTimeQuanta The time quanta a process starts with
+     * @param minTimeQuanta The smallest the time quanta can be made
+     */
+    public NRRDispatcher(int contextSwitchTime, int baseTimeQuanta, int minTimeQuanta) {
+        super("NRR",contextSwitchTime, baseTimeQuanta);
+        this.minTimeQuanta = minTimeQuanta;
     }
 
     @Override
     protected void modifyQuanta(Process process) {
         //modify the quanta to be one less
-        int newTimeQuanta = Math.max(process.getTimeQuanta()-1,MIN_TIME_QUANTA);
+        int newTimeQuanta = Math.max(process.getTimeQuanta()-1,minTimeQuanta);
         process.setTimeQuanta(newTimeQuanta);
     }
 }
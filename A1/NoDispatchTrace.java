@@ -0,0 +1,19 @@
+/**
+ * File: NoDispatchTrace.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * A {@link DispatchTrace} which ignores every dispatch. Use this when only the final stats of a simulation are wanted.
+ */
+public class NoDispatchTrace implements DispatchTrace {
+
+    @Override
+    public void dispatched(int time, int processId, int core) {
+        //nothing to record
+    }
+
+    @Override
+    public void flush() {
+        //nothing to write
+    }
+}
@@ -0,0 +1,214 @@
+import java.util.Arrays;
+
+/**
+ * File: PackedEventQueue.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * An {@link EventQueue} which does not allocate an object per event. Each event is packed into a single long key which is stored in a
+ * 4-ary heap of primitives. The key is laid out as
+ *
+ *   [start time : 32 bits][is interrupt : 1 bit][process id : 31 bits]
+ *
+ * so comparing two keys gives exactly the same ordering as {@link Task#compareTo(Task)}. Interrupts carry no other data and arrivals only
+ * carry the slot of the process in the dispatcher's {@link ProcessTable}, so neither creates an object. Any other task added stores its object
+ * in a slot table which is recycled once the event has been run, so once the arrays have grown to size the simulation runs without allocating.
+ */
+public class PackedEventQueue implements EventQueue {
+
+    private final static int ARITY = 4;
+    private final static int INITIAL_CAPACITY = 16;
+    private final static int NO_SLOT = -1;
+    private final static int FIRST_ARRIVAL = -2; //arrivals are stored as FIRST_ARRIVAL - process slot
+    private final static long INTERRUPT_BIT = 1L << 31;
+    private final static long PROCESS_ID_MASK = INTERRUPT_BIT - 1;
+
+    private final Dispatcher dispatcher;
+    //heap of event keys, and for each key the slot holding the task object, NO_SLOT for an interrupt or the process slot of an arrival
+    private long[] keys;
+    private int[] slotOf;
+    private int size;
+    //slot table, free slots are chained together through nextFree
+    private Object[] slots;
+    private int[] nextFree;
+    private int freeHead;
+    private int slotCount;
+
+    /**
+     * Creates a new packed event queue
+     *
+     * @param dispatcher The dispatcher that the events are run on
+     */
+    public PackedEventQueue(Dispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+        this.keys = new long[INITIAL_CAPACITY];
+        this.slotOf = new int[INITIAL_CAPACITY];
+        this.size = 0;
+        this.slots = new Object[INITIAL_CAPACITY];
+        this.nextFree = new int[INITIAL_CAPACITY];
+        this.freeHead = NO_SLOT;
+        this.slotCount = 0;
+    }
+
+    @Override
+    public void addArrival(Process process) {
+        push(pack(process.getReadyTime(), true, process.getProcessId()), FIRST_ARRIVAL - process.getSlot());
+    }
+
+    @Override
+    public void addInterrupt(int processId, int time) {
+        push(pack(time, false, processId), NO_SLOT);
+    }
+
+    @Override
+    public void addTask(Task task) {
+        push(pack(task.getStartTime(), task.isArrival(), task.getProcessId()), allocateSlot(task));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int nextTime() {
+        return (int) (keys[0] >> 32);
+    }
+
+    @Override
+    public void runNext() {
+        long key = keys[0];
+        int slot = slotOf[0];
+        pop();
+        //interrupts and arrivals have no slot
+        if(slot==NO_SLOT) {
+            dispatcher.interrupt((int) (key & PROCESS_ID_MASK));
+            return;
+        }
+        if(slot<=FIRST_ARRIVAL) {
+            dispatcher.runArrival(dispatcher.getProcess(FIRST_ARRIVAL - slot));
+            return;
+        }
+
+        Object event = slots[slot];
+        freeSlot(slot);
+        ((Task) event).run();
+    }
+
+    @Override
+    public void drain(Visitor visitor) {
+        while (size > 0) {
+            long key = keys[0];
+            int slot = slotOf[0];
+            pop();
+            if(slot==NO_SLOT) {
+                visitor.interrupt((int) (key & PROCESS_ID_MASK), (int) (key >> 32));
+                continue;
+            }
+            if(slot<=FIRST_ARRIVAL) {
+                visitor.arrival(dispatcher.getProcess(FIRST_ARRIVAL - slot));
+                continue;
+            }
+
+            Object event = slots[slot];
+            freeSlot(slot);
+            throw new IllegalStateException("Cannot drain task "+event.getClass().getName());
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Packs an event into a key. Keys compare in the same order as {@link Task#compareTo(Task)}
+     *
+     * @param time The time the event is run
+     * @param isArrival Whether the event is an arrival, arrivals are run before interrupts at the same time
+     * @param processId The id of the process the event is for
+     * @return The packed key
+     * @throws IllegalArgumentException If the process id is negative
+     */
+    static long pack(int time, boolean isArrival, int processId) {
+        if(processId<0)
+            throw new IllegalArgumentException("Process id must not be negative, got "+processId);
+
+        long key = ((long) time << 32) | processId;
+        if(!isArrival)
+            key |= INTERRUPT_BIT;
+        return key;
+    }
+
+    private void push(long key, int slot) {
+        if(size==keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            slotOf = Arrays.copyOf(slotOf, size * 2);
+        }
+        //sift up from the new leaf
+        int index = size++;
+        while (index > 0) {
+            int parent = (index - 1) / ARITY;
+            if(keys[parent] <= key)
+                break;
+            keys[index] = keys[parent];
+            slotOf[index] = slotOf[parent];
+            index = parent;
+        }
+        keys[index] = key;
+        slotOf[index] = slot;
+    }
+
+    private void pop() {
+        size--;
+        if(size==0)
+            return;
+
+        //move the last leaf to the root and sift it down
+        long key = keys[size];
+        int slot = slotOf[size];
+        int index = 0;
+        while (true) {
+            int first = index * ARITY + 1;
+            if(first >= size)
+                break;
+            //find the smallest child
+            int smallest = first;
+            int last = Math.min(first + ARITY, size);
+            for(int child = first + 1; child < last; child++) {
+                if(keys[child] < keys[smallest])
+                    smallest = child;
+            }
+            if(key <= keys[smallest])
+                break;
+            keys[index] = keys[smallest];
+            slotOf[index] = slotOf[smallest];
+            index = smallest;
+        }
+        keys[index] = key;
+        slotOf[index] = slot;
+    }
+
+    private int allocateSlot(Object event) {
+        int slot;
+        if(freeHead!=NO_SLOT) {
+            //reuse a slot from an event that has already been run
+            slot = freeHead;
+            freeHead = nextFree[slot];
+        } else {
+            if(slotCount==slots.length) {
+                slots = Arrays.copyOf(slots, slotCount * 2);
+                nextFree = Arrays.copyOf(nextFree, slotCount * 2);
+            }
+            slot = slotCount++;
+        }
+        slots[slot] = event;
+        return slot;
+    }
+
+    private void freeSlot(int slot) {
+        slots[slot] = null;
+        nextFree[slot] = freeHead;
+        freeHead = slot;
+    }
+}
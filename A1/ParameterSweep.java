@@ -0,0 +1,183 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * File: ParameterSweep.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Runs every combination of algorithm, time quanta and context switch time on the same jobs, to find the best settings for a workload. The jobs are read
+ * once and shared by every simulation, as jobs are never changed by a dispatcher. The simulations are run at the same time on all available processors.
+ *
+ * Produces output in the following format, one row for each combination, followed by the best combination of each algorithm
+ *
+ * Algorithm  Quanta  Switch  Avg Turnaround  Avg Waiting  p99 Waiting  Max Waiting
+ * RR         2       1       16.00           12.20        30.00        31
+ * ..... for each combination
+ *
+ * For NRR the quanta is the starting quanta and the smallest it can be made is half of it. Algorithms without a time quanta are run once for each context
+ * switch time.
+ */
+public class ParameterSweep {
+
+    private final static String ROW_FORMAT = "%-15s%-8s%-8s%-16.2f%-16.2f%-14.2f%-12d%n";
+    private final static String HEADER_FORMAT = "%-15s%-8s%-8s%-16s%-16s%-14s%-12s%n";
+    private final static int NO_QUANTA = -1;
+
+    /**
+     * Runs the sweep. The jobs are given in the same way as {@link A1}, as a file name or with the generate option.
+     *   --algorithms=[names]  comma separated algorithms, defaults to FCFS,RR,NRR,FB
+     *   --quanta=[values]     comma separated time quanta, defaults to 2,4,8,16
+     *   --switch=[values]     comma separated context switch times, defaults to the one in the input
+     *
+     * @param args args[0] = file name, and the options
+     */
+    public static void main(String[] args) {
+        List<String> arguments = new ArrayList<>();
+        Map<String,String> options = A1.parseOptions(args, arguments);
+        SimulationConfig config = A1.getConfig(arguments, options);
+        if(config==null)
+            return;
+
+        List<String> algorithms = Arrays.asList(options.getOrDefault("algorithms", "FCFS,RR,NRR,FB").split(","));
+        int[] quanta;
+        int[] switchTimes;
+        try {
+            quanta = parseInts(options.getOrDefault("quanta", "2,4,8,16"));
+            switchTimes = parseInts(options.getOrDefault("switch", String.valueOf(config.getContextSwitchTime())));
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid number "+e.getMessage());
+            return;
+        }
+
+        //read the jobs once, every simulation shares them
+        List<Job> jobs = Collections.unmodifiableList(new ArrayList<>(config.getJobs()));
+        boolean arrivalOrdered = config.isArrivalOrdered();
+
+        List<Callable<Result>> simulations = new ArrayList<>();
+        for(String algorithm : algorithms) {
+            boolean hasQuanta = usesQuanta(algorithm);
+            for(int switchTime : switchTimes) {
+                for(int timeQuanta : hasQuanta ? quanta : new int[] {NO_QUANTA}) {
+                    //check the settings before anything is run
+                    try {
+                        createDispatcher(algorithm, switchTime, timeQuanta);
+                    } catch (IllegalArgumentException e) {
+                        System.err.println(e.getMessage());
+                        return;
+                    }
+                    simulations.add(() -> run(algorithm, switchTime, timeQuanta, jobs, arrivalOrdered));
+                }
+            }
+        }
+
+        List<Result> results = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            for(Future<Result> result : executor.invokeAll(simulations)) {
+                results.add(result.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Simulation failed", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+
+        System.out.printf(HEADER_FORMAT, "Algorithm", "Quanta", "Switch", "Avg Turnaround", "Avg Waiting", "p99 Waiting", "Max Waiting");
+        for(Result result : results) {
+            result.print();
+        }
+
+        //the best settings of each algorithm, by average turnaround time
+        System.out.println();
+        System.out.println("Best");
+        System.out.printf(HEADER_FORMAT, "Algorithm", "Quanta", "Switch", "Avg Turnaround", "Avg Waiting", "p99 Waiting", "Max Waiting");
+        for(String algorithm : algorithms) {
+            Result best = null;
+            for(Result result : results) {
+                if(result.algorithm.equals(algorithm) && (best==null || result.turnaroundTimes.getMean() < best.turnaroundTimes.getMean()))
+                    best = result;
+            }
+            if(best!=null)
+                best.print();
+        }
+    }
+
+    /**
+     * The stats of a single simulation
+     */
+    private static class Result {
+        private final String algorithm;
+        private final int switchTime;
+        private final int timeQuanta;
+        private final RunningStatistics turnaroundTimes;
+        private final RunningStatistics waitingTimes;
+
+        private Result(String algorithm, int switchTime, int timeQuanta, RunningStatistics turnaroundTimes, RunningStatistics waitingTimes) {
+            this.algorithm = algorithm;
+            this.switchTime = switchTime;
+            this.timeQuanta = timeQuanta;
+            this.turnaroundTimes = turnaroundTimes;
+            this.waitingTimes = waitingTimes;
+        }
+
+        private void print() {
+            System.out.printf(ROW_FORMAT, algorithm, timeQuanta==NO_QUANTA ? "-" : String.valueOf(timeQuanta), switchTime,
+                    turnaroundTimes.getMean(), waitingTimes.getMean(), waitingTimes.getQuantile(0.99), waitingTimes.getMax());
+        }
+    }
+
+    private static Result run(String algorithm, int switchTime, int timeQuanta, List<Job> jobs, boolean arrivalOrdered) {
+        Dispatcher dispatcher = createDispatcher(algorithm, switchTime, timeQuanta);
+        dispatcher.setTrace(new NoDispatchTrace());
+        dispatcher.setRetainProcesses(false);
+        if(arrivalOrdered) {
+            dispatcher.addJobs(jobs.iterator());
+        } else {
+            for(Job job : jobs) {
+                dispatcher.addJob(job);
+            }
+        }
+        dispatcher.run();
+        return new Result(algorithm, switchTime, timeQuanta, dispatcher.getTurnaroundTimes(), dispatcher.getWaitingTimes());
+    }
+
+    private static boolean usesQuanta(String algorithm) {
+        return algorithm.equals("RR") || algorithm.equals("NRR") || algorithm.equals("FB") || algorithm.equals("LOTTERY") || algorithm.equals("STRIDE");
+    }
+
+    private static Dispatcher createDispatcher(String algorithm, int switchTime, int timeQuanta) {
+        if(usesQuanta(algorithm) && timeQuanta<1)
+            throw new IllegalArgumentException("Time quanta must be positive, got "+timeQuanta);
+        switch (algorithm) {
+            case "FCFS": return new FCFSDispatcher(switchTime);
+            case "RR": return new RRDispatcher(switchTime, timeQuanta);
+            case "NRR": return new NRRDispatcher(switchTime, timeQuanta, Math.max(1, timeQuanta / 2));
+            case "FB": return new FeedbackDispatcher("FB", switchTime, FeedbackDispatcher.constantQuanta(FeedbackDispatcher.MAX_PRIORITIES, timeQuanta), 0);
+            case "SPN": return new SPNDispatcher(switchTime);
+            case "SRT": return new SRTDispatcher(switchTime);
+            case "HRRN": return new HRRNDispatcher(switchTime);
+            case "LOTTERY": return new LotteryDispatcher("LOTTERY", switchTime, timeQuanta, 0);
+            case "STRIDE": return new StrideDispatcher("STRIDE", switchTime, timeQuanta);
+            case "CFS": return new CFSDispatcher(switchTime);
+            case "EDF": return new EDFDispatcher(switchTime);
+            case "RM": return new RateMonotonicDispatcher(switchTime);
+            default: throw new IllegalArgumentException("Unknown algorithm '"+algorithm+"'");
+        }
+    }
+
+    private static int[] parseInts(String values) {
+        return Arrays.stream(values.split(",")).mapToInt(value -> Integer.parseInt(value.trim())).toArray();
+    }
+}
@@ -0,0 +1,33 @@
+import java.util.Random;
+
+/**
+ * File: ParetoService.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * A {@link ServiceDistribution} where service times follow a Pareto distribution. This is heavy tailed, most jobs are close to the minimum but a small number
+ * are very long. The smaller the shape, the heavier the tail.
+ */
+public class ParetoService implements ServiceDistribution {
+
+    private final double shape;
+    private final double minimum;
+
+    /**
+     * @param shape The shape of the distribution, the mean only exists when this is above 1
+     * @param minimum The smallest service time
+     * @throws IllegalArgumentException if either value is not positive
+     */
+    public ParetoService(double shape, double minimum) {
+        Distributions.requirePositive("Shape", shape);
+        Distributions.requirePositive("Minimum", minimum);
+        this.shape = shape;
+        this.minimum = minimum;
+    }
+
+    @Override
+    public int nextServiceTime(Random random) {
+        double sample = minimum / Math.pow(1 - random.nextDouble(), 1 / shape);
+        return (int) Math.min(Math.ceil(sample), Integer.MAX_VALUE / 2);
+    }
+}
@@ -0,0 +1,278 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.*;
+
+/**
+ * File: PeriodicSimulationConfig.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Creates a {@link SimulationConfig} whose jobs are the releases of a set of {@link PeriodicTask}s, up to a horizon. Releases are generated one at a time
+ * in order of release time, so only the tasks are held in memory no matter how long the horizon is. The next release of every task is kept in a heap
+ * ordered by release time then by task, so each release takes O(log n) time for n tasks. Every pass over the jobs starts from the same seed, so each
+ * dispatcher is given exactly the same releases of sporadic tasks.
+ *
+ * The tasks can be read from a file in the format
+ * BEGIN
+ * DISP: [context switch time]
+ * END
+ *
+ * ID: t1
+ * Period: [period]
+ * WCET: [worst case execution time]
+ * Deadline: [relative deadline] (optional, defaults to the period)
+ * Offset: [first release] (optional, defaults to 0)
+ * Jitter: [most extra time between releases] (optional, defaults to 0 for a periodic task)
+ * END
+ * ... ,
+ * EOF
+ */
+public class PeriodicSimulationConfig implements SimulationConfig {
+
+    /**
+     * The default horizon is the hyperperiod of the tasks, but no more than this many of the longest period
+     */
+    public final static int MAX_DEFAULT_PERIODS = 100;
+
+    private final List<PeriodicTask> tasks;
+    private int contextSwitchTime;
+    private final int horizon;
+    private final long seed;
+    private long releases; //the number of releases, counted the first time it is needed
+
+    /**
+     * Creates a new periodic simulation config
+     *
+     * @param contextSwitchTime The context switch time for all dispatchers
+     * @param tasks The tasks to release jobs, the index of each task is its position in the list
+     * @param horizon Only releases before this time are run, or 0 for the default horizon, see {@link #getDefaultHorizon(Collection)}
+     * @param seed The seed for the random numbers used by sporadic tasks
+     * @throws IllegalArgumentException if the horizon is negative
+     */
+    public PeriodicSimulationConfig(int contextSwitchTime, List<PeriodicTask> tasks, int horizon, long seed) {
+        if(horizon<0)
+            throw new IllegalArgumentException("Horizon must not be negative, got "+horizon);
+        this.contextSwitchTime = contextSwitchTime;
+        this.tasks = new ArrayList<>(tasks);
+        this.horizon = horizon==0 ? getDefaultHorizon(tasks) : horizon;
+        this.seed = seed;
+        this.releases = -1;
+    }
+
+    /**
+     * Creates a periodic simulation config using the tasks in a file
+     *
+     * @param file the name of the file to read
+     * @param horizon Only releases before this time are run, or 0 for the default horizon, see {@link #getDefaultHorizon(Collection)}
+     * @param seed The seed for the random numbers used by sporadic tasks
+     * @throws FileNotFoundException Thrown if the file does not exist or cannot be read
+     * @throws IllegalArgumentException if the horizon is negative or a task is not valid
+     */
+    public PeriodicSimulationConfig(File file, int horizon, long seed) throws FileNotFoundException {
+        if(horizon<0)
+            throw new IllegalArgumentException("Horizon must not be negative, got "+horizon);
+        this.tasks = new ArrayList<>();
+        readFile(file);
+        this.horizon = horizon==0 ? getDefaultHorizon(tasks) : horizon;
+        this.seed = seed;
+        this.releases = -1;
+    }
+
+    private void readFile(File file) throws FileNotFoundException {
+        Scanner scanner = new Scanner(file);
+        //information about the next task
+        int id = 0;
+        int period = 0;
+        int wcet = 0;
+        int deadline = 0;
+        int offset = 0;
+        int jitter = 0;
+        boolean inTask = false;
+        while (scanner.hasNext()) {
+            //get next token
+            String token = scanner.next().toUpperCase(Locale.ROOT);
+            switch (token) {
+                case "DISP:":
+                    this.contextSwitchTime = scanner.nextInt(); //dispatch time is next int
+                    scanner.next(); //skip over end
+                    break;
+                case "END":
+                    //task done, add it to the tasks and go to next
+                    if(!inTask)
+                        break;
+                    tasks.add(new PeriodicTask(id, offset, period, deadline==0 ? period : deadline, wcet, jitter));
+                    deadline = 0;
+                    offset = 0;
+                    jitter = 0;
+                    inTask = false;
+                    break;
+                case "ID:":
+                    id = Integer.parseInt(scanner.next().substring(1)); //id number is after the "t"
+                    inTask = true;
+                    break;
+                case "PERIOD:":
+                    period = scanner.nextInt();
+                    break;
+                case "WCET:":
+                    wcet = scanner.nextInt();
+                    break;
+                case "DEADLINE:":
+                    deadline = scanner.nextInt();
+                    break;
+                case "OFFSET:":
+                    offset = scanner.nextInt();
+                    break;
+                case "JITTER:":
+                    jitter = scanner.nextInt();
+                    break;
+                case "EOF": //we are complete!
+                    return;
+            }
+        }
+    }
+
+    /**
+     * Running for a whole hyperperiod shows every way the releases of periodic tasks line up, but the hyperperiod of many tasks is far too long to
+     * run, so it is limited to {@link #MAX_DEFAULT_PERIODS} of the longest period.
+     *
+     * @param tasks The tasks
+     * @return The default horizon for the tasks
+     */
+    public static int getDefaultHorizon(Collection<PeriodicTask> tasks) {
+        long longest = 1;
+        long offset = 0;
+        for(PeriodicTask task : tasks) {
+            longest = Math.max(longest, task.getPeriod());
+            offset = Math.max(offset, task.getOffset());
+        }
+        long horizon = Math.min(PeriodicTask.getHyperperiod(tasks), longest * MAX_DEFAULT_PERIODS);
+        return (int) Math.min(Integer.MAX_VALUE / 2, offset + horizon);
+    }
+
+    @Override
+    public int getContextSwitchTime() {
+        return contextSwitchTime;
+    }
+
+    /**
+     * @return A view of the releases of every task before the horizon, each iterator generates the releases again from the start
+     */
+    @Override
+    public Collection<Job> getJobs() {
+        return new AbstractCollection<Job>() {
+            @Override
+            public Iterator<Job> iterator() {
+                return new ReleaseGenerator();
+            }
+
+            @Override
+            public int size() {
+                if(releases<0) {
+                    long count = 0;
+                    for(Iterator<Job> iterator = iterator(); iterator.hasNext(); iterator.next()) {
+                        count++;
+                    }
+                    releases = count;
+                }
+                return (int) Math.min(Integer.MAX_VALUE, releases);
+            }
+        };
+    }
+
+    @Override
+    public boolean isArrivalOrdered() {
+        return true;
+    }
+
+    /**
+     * @return The tasks, the index of each task is its position in the list
+     */
+    public List<PeriodicTask> getTasks() {
+        return Collections.unmodifiableList(tasks);
+    }
+
+    /**
+     * @return The time before which jobs are released
+     */
+    public int getHorizon() {
+        return horizon;
+    }
+
+    /**
+     * Generates the releases in order of release time, tasks released at the same time are released in order of their index. The job ids count
+     * up from 1.
+     */
+    private class ReleaseGenerator implements Iterator<Job> {
+
+        private final Random random;
+        private long[] heap; //the next release of each task, packed as [release time][task index]
+        private int size;
+        private int released;
+
+        private ReleaseGenerator() {
+            this.random = new Random(seed);
+            this.heap = new long[tasks.size()];
+            this.size = 0;
+            this.released = 0;
+            for(int task = 0; task < tasks.size(); task++) {
+                schedule(tasks.get(task).getOffset(), task);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return size > 0;
+        }
+
+        @Override
+        public Job next() {
+            if(!hasNext())
+                throw new NoSuchElementException();
+            long next = heap[0];
+            heap[0] = heap[--size];
+            siftDown(0);
+
+            int releaseTime = (int) (next >> 32);
+            int index = (int) next;
+            PeriodicTask task = tasks.get(index);
+            released++;
+            Job job = task.release(released, index, releaseTime);
+
+            //a sporadic task releases again some time after its period
+            long nextRelease = (long) releaseTime + task.getPeriod() + (task.getJitter()==0 ? 0 : random.nextInt(task.getJitter() + 1));
+            schedule(nextRelease, index);
+            return job;
+        }
+
+        private void schedule(long releaseTime, int task) {
+            if(releaseTime>=horizon)
+                return;
+            int child = size++;
+            long packed = (releaseTime << 32) | task;
+            //sift up
+            while (child > 0) {
+                int parent = (child - 1) >>> 1;
+                if(heap[parent] <= packed)
+                    break;
+                heap[child] = heap[parent];
+                child = parent;
+            }
+            heap[child] = packed;
+        }
+
+        private void siftDown(int parent) {
+            long packed = heap[parent];
+            int half = size >>> 1;
+            while (parent < half) {
+                int child = 2 * parent + 1;
+                if(child + 1 < size && heap[child + 1] < heap[child])
+                    child++;
+                if(packed <= heap[child])
+                    break;
+                heap[parent] = heap[child];
+                parent = child;
+            }
+            heap[parent] = packed;
+        }
+    }
+}
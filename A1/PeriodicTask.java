@@ -0,0 +1,269 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * File: PeriodicTask.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Represents a real time task which releases a job over and over again. The first job is released at the offset of the task, and each job after
+ * that one period after the last. Each job runs for the worst case execution time (WCET) of the task and should finish within the relative deadline
+ * of its release.
+ *
+ * A sporadic task does not release exactly every period, instead the period is the least time between releases and each release can be up to the
+ * jitter of the task later than that. A task with no jitter is periodic.
+ */
+public class PeriodicTask {
+
+    private final static double UTILIZATION_TOLERANCE = 1e-9; //allows for the rounding error of adding up the utilization of each task
+
+    private final int id;
+    private final int offset;
+    private final int period;
+    private final int deadline;
+    private final int wcet;
+    private final int jitter;
+
+    /**
+     * Creates a periodic task with a deadline at the end of each period, which first releases at time 0
+     *
+     * @param id The unique id of the task
+     * @param period The time between releases
+     * @param wcet The time each release runs for
+     */
+    public PeriodicTask(int id, int period, int wcet) {
+        this(id, 0, period, period, wcet, 0);
+    }
+
+    /**
+     * Creates a new periodic or sporadic task
+     *
+     * @param id The unique id of the task
+     * @param offset The time of the first release
+     * @param period The time between releases, or the least time between releases of a sporadic task
+     * @param deadline The time each release should finish by, from when it is released
+     * @param wcet The time each release runs for
+     * @param jitter The most time a release can be later than one period after the last, 0 for a periodic task
+     * @throws IllegalArgumentException if the offset or jitter are negative, or the period, deadline or WCET are not positive
+     */
+    public PeriodicTask(int id, int offset, int period, int deadline, int wcet, int jitter) {
+        if(offset<0)
+            throw new IllegalArgumentException("Offset must not be negative, got "+offset+" for task "+id);
+        if(period<1)
+            throw new IllegalArgumentException("Period must be positive, got "+period+" for task "+id);
+        if(deadline<1)
+            throw new IllegalArgumentException("Deadline must be positive, got "+deadline+" for task "+id);
+        if(wcet<1)
+            throw new IllegalArgumentException("WCET must be positive, got "+wcet+" for task "+id);
+        if(jitter<0)
+            throw new IllegalArgumentException("Jitter must not be negative, got "+jitter+" for task "+id);
+        this.id = id;
+        this.offset = offset;
+        this.period = period;
+        this.deadline = deadline;
+        this.wcet = wcet;
+        this.jitter = jitter;
+    }
+
+    /**
+     * Generates a set of periodic tasks with a total utilization, using the UUniFast algorithm to split the utilization evenly between the tasks.
+     * Periods are spread evenly over the logarithm of the range, so there are as many tasks with short periods as with long ones. Every task
+     * has its deadline at the end of its period and first releases at time 0, so the first release of every task is at the same time.
+     *
+     * @param count The number of tasks
+     * @param utilization The total of the WCET over the period of every task. Each WCET is rounded down to a whole number, then the time lost is
+     *                    given back a tick at a time to the tasks which lost the most, so the utilization of the generated tasks is as close to
+     *                    this as whole WCETs allow without going over. A task whose share is less than one tick a period has its period
+     *                    lengthened, up to the longest period, so that a WCET of 1 fits
+     * @param minPeriod The shortest period
+     * @param maxPeriod The longest period
+     * @param random Generates the tasks
+     * @return The generated tasks, with ids counting up from 1
+     * @throws IllegalArgumentException if the count is negative, the utilization is not positive, the periods are not a valid range, or the
+     *                                  utilization is too low for every task to have a WCET of at least 1
+     */
+    public static List<PeriodicTask> generate(int count, double utilization, int minPeriod, int maxPeriod, Random random) {
+        if(count<0)
+            throw new IllegalArgumentException("Task count must not be negative, got "+count);
+        if(!(utilization>0))
+            throw new IllegalArgumentException("Utilization must be positive, got "+utilization);
+        if(minPeriod<1 || maxPeriod<minPeriod)
+            throw new IllegalArgumentException("Invalid periods "+minPeriod+" to "+maxPeriod);
+
+        int[] periods = new int[count];
+        int[] wcets = new int[count];
+        double[] exactWcets = new double[count];
+        double total = 0;
+        double remaining = utilization;
+        for(int i = 0; i < count; i++) {
+            //UUniFast, the utilization left for the other tasks is spread as if it were the sum of uniform random values
+            double next = i==count-1 ? 0 : remaining * Math.pow(random.nextDouble(), 1.0 / (count - i - 1));
+            double taskUtilization = remaining - next;
+            remaining = next;
+
+            double logPeriod = Math.log(minPeriod) + random.nextDouble() * (Math.log(maxPeriod + 1.0) - Math.log(minPeriod));
+            periods[i] = Math.min(maxPeriod, (int) Math.exp(logPeriod));
+            //a share of less than a tick each period would be rounded up to a whole tick, so the period is lengthened until one tick fits
+            if(taskUtilization * periods[i] < 1)
+                periods[i] = (int) Math.min(maxPeriod, Math.max(periods[i], Math.ceil(1 / taskUtilization)));
+            exactWcets[i] = taskUtilization * periods[i];
+            wcets[i] = (int) Math.max(1, Math.min(periods[i], Math.floor(exactWcets[i])));
+            total += (double) wcets[i] / periods[i];
+        }
+
+        //a WCET of at least 1 can go over, so take a tick back from whichever task has the most more than its share
+        while (total > utilization + UTILIZATION_TOLERANCE) {
+            int most = -1;
+            for(int i = 0; i < count; i++) {
+                if(wcets[i]>1 && (most==-1 || wcets[i] - exactWcets[i] > wcets[most] - exactWcets[most]))
+                    most = i;
+            }
+            if(most==-1)
+                throw new IllegalArgumentException("Utilization "+utilization+" is too low for "+count+" tasks with a WCET of at least 1");
+            wcets[most]--;
+            total -= 1.0 / periods[most];
+        }
+
+        //give the time lost by rounding down back to the tasks which lost the most, as long as it fits
+        Integer[] order = new Integer[count];
+        for(int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble((Integer i) -> exactWcets[i] - wcets[i]).reversed());
+        for(int i : order) {
+            if(wcets[i]<periods[i] && total + 1.0 / periods[i] <= utilization + UTILIZATION_TOLERANCE) {
+                wcets[i]++;
+                total += 1.0 / periods[i];
+            }
+        }
+
+        List<PeriodicTask> tasks = new ArrayList<>(count);
+        for(int i = 0; i < count; i++) {
+            tasks.add(new PeriodicTask(i + 1, periods[i], wcets[i]));
+        }
+        return tasks;
+    }
+
+    /**
+     * The hyperperiod is the time after which the releases of periodic tasks repeat, the least common multiple of their periods.
+     *
+     * @param tasks The tasks
+     * @return The hyperperiod of the tasks, or {@link Long#MAX_VALUE} if it is too large to be held
+     */
+    public static long getHyperperiod(Collection<PeriodicTask> tasks) {
+        long hyperperiod = 1;
+        for(PeriodicTask task : tasks) {
+            long gcd = gcd(hyperperiod, task.getPeriod());
+            long multiple = hyperperiod / gcd;
+            if(multiple > Long.MAX_VALUE / task.getPeriod())
+                return Long.MAX_VALUE;
+            hyperperiod = multiple * task.getPeriod();
+        }
+        return hyperperiod;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b!=0) {
+            long remainder = a % b;
+            a = b;
+            b = remainder;
+        }
+        return a;
+    }
+
+    /**
+     * @param tasks The tasks
+     * @return The total utilization of the tasks, the fraction of the processor they need
+     */
+    public static double getUtilization(Collection<PeriodicTask> tasks) {
+        return getUtilization(tasks, 0);
+    }
+
+    /**
+     * Every release is switched in at least once, so with a context switch time the tasks need more of the processor than their WCETs alone.
+     *
+     * @param tasks The tasks
+     * @param contextSwitchTime The time taken to swap processes
+     * @return The total utilization of the tasks including one context switch for every release
+     */
+    public static double getUtilization(Collection<PeriodicTask> tasks, int contextSwitchTime) {
+        double utilization = 0;
+        for(PeriodicTask task : tasks) {
+            utilization += (double) (task.getWCET() + contextSwitchTime) / task.getPeriod();
+        }
+        return utilization;
+    }
+
+    /**
+     * Creates a release of the task
+     *
+     * @param jobId The unique id of the job released
+     * @param task The index of the task in its task set
+     * @param releaseTime The time the job is released
+     * @return The released job
+     */
+    public Job release(int jobId, int task, int releaseTime) {
+        long deadlineTime = (long) releaseTime + deadline;
+        return new Job(jobId, task, releaseTime, wcet, (int) Math.min(Job.NO_DEADLINE - 1, deadlineTime), period);
+    }
+
+    /**
+     * @return The unique id of the task
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return The id of the task to display in the output. This is a 't' prepended by the id number
+     */
+    public String getDisplayID() {
+        return "t"+id;
+    }
+
+    /**
+     * @return The time of the first release
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return The time between releases, or the least time between releases of a sporadic task
+     */
+    public int getPeriod() {
+        return period;
+    }
+
+    /**
+     * @return The time each release should finish by, from when it is released
+     */
+    public int getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * @return The time each release runs for
+     */
+    public int getWCET() {
+        return wcet;
+    }
+
+    /**
+     * @return The most time a release can be later than one period after the last, 0 for a periodic task
+     */
+    public int getJitter() {
+        return jitter;
+    }
+
+    /**
+     * @return The fraction of the processor the task needs, its WCET over its period
+     */
+    public double getUtilization() {
+        return (double) wcet / period;
+    }
+}
@@ -0,0 +1,32 @@
+import java.util.Random;
+
+/**
+ * File: PoissonArrivals.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * An {@link ArrivalProcess} where jobs arrive at a constant average rate, independently of each other. The time between arrivals is exponentially distributed.
+ */
+public class PoissonArrivals implements ArrivalProcess {
+
+    private final double rate;
+
+    /**
+     * @param rate The average number of arrivals per unit of time
+     * @throws IllegalArgumentException if the rate is not positive
+     */
+    public PoissonArrivals(double rate) {
+        Distributions.requirePositive("Rate", rate);
+        this.rate = rate;
+    }
+
+    @Override
+    public double nextArrival(double time, Random random) {
+        return time + Distributions.exponential(random, rate);
+    }
+
+    @Override
+    public ArrivalProcess copy() {
+        return this;
+    }
+}
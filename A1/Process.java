@@ -5,37 +5,47 @@
  * Course: COMP2240
  * Represents a task that has is currently being executed or has fully been executed by a processor. This is distinct from a job as a job represents a task that the processor
  * can run while this represents one that is actively being run
+ *
+ * The state of the process is held in a {@link ProcessTable}, a process is a view of one slot in the table.
  */
 public class Process {
 
-    private final Job job;
-    private int finishTime;
-    private int timeExecuted;
-    private int lastStarted;
-    private int timeQuanta;
-    private int priority;
-    private boolean isFinished;
+    private final ProcessTable table;
+    private final int slot;
 
     /**
-     * Creates a new process
+     * Creates a new process which is stored by itself rather than in a shared {@link ProcessTable}
      *
      * @param job The job this process represents
      */
     public Process(Job job) {
-        this.job = job;
-        this.finishTime = 0;
-        this.timeExecuted = 0;
-        this.lastStarted = 0;
-        this.timeQuanta = 0;
-        this.isFinished = false;
-        this.priority = 0;
+        this(new ProcessTable(1), 0);
+        table.add(job);
+    }
+
+    /**
+     * Creates a view of a process stored in a table. New processes should be added with {@link ProcessTable#add(Job)}
+     *
+     * @param table The table the process is stored in
+     * @param slot The slot of the process in the table
+     */
+    Process(ProcessTable table, int slot) {
+        this.table = table;
+        this.slot = slot;
+    }
+
+    /**
+     * @return The slot of the process in its {@link ProcessTable}
+     */
+    int getSlot() {
+        return slot;
     }
 
     /**
      * @return The unique numerical id of the process
      */
     public int getProcessId() {
-        return job.getId();
+        return table.getProcessId(slot);
     }
 
     /**
@@ -52,23 +62,72 @@ public class Process {
      * @return The amount of time required to fully execute the process
      */
     public int getServiceTime() {
-        return job.getServiceTime();
+        return table.getServiceTime(slot);
     }
 
     /**
-     * The time remaining is the (service time) - (time executed).
+     * The time remaining is the (service time) - (time executed). For a job made of CPU and I/O bursts this is the time remaining in the current
+     * CPU burst, after which the process either finishes or blocks.
      *
-     * @return The total amount of time remaining for the process to be fully executed
+     * @return The total amount of time remaining for the process to be fully executed, or for its current CPU burst to end
      */
     public int getRemainingTime() {
-        return getServiceTime() - timeExecuted;
+        return table.getBurstEnd(slot) - table.getTimeExecuted(slot);
+    }
+
+    /**
+     * The time remaining at the given time, assuming the process has been executing since it last started. Time before the process last started
+     * is not counted.
+     *
+     * @param time The time to check
+     * @return The total amount of time remaining for the process to be fully executed at the given time
+     */
+    public int getRemainingTime(int time) {
+        return getRemainingTime() - Math.max(0, time - getLastStarted());
+    }
+
+    /**
+     * @return The time the process last started executing
+     */
+    public int getLastStarted() {
+        return table.getLastStarted(slot);
     }
 
     /**
      * @return The time that the job arrived to the processor
      */
     public int getArrivalTime() {
-        return job.getArrivalTime();
+        return table.getArrivalTime(slot);
+    }
+
+    /**
+     * @return The time the process is next ready to run, the end of its I/O burst if it is blocked, otherwise its arrival time
+     */
+    public int getReadyTime() {
+        return isBlocked() ? table.getBlockedUntil(slot) : getArrivalTime();
+    }
+
+    /**
+     * A process is blocked from the end of a CPU burst until it is woken at the end of the I/O burst after it, see {@link Job}.
+     *
+     * @return Whether the process is blocked on I/O
+     */
+    public boolean isBlocked() {
+        return table.isBlocked(slot);
+    }
+
+    /**
+     * Marks the process as ready for its next CPU burst, once its I/O burst has ended
+     */
+    void wake() {
+        table.wake(slot);
+    }
+
+    /**
+     * @return The total time the process spends blocked on I/O
+     */
+    public int getIOTime() {
+        return table.getIOTime(slot);
     }
 
     /**
@@ -79,39 +138,35 @@ public class Process {
      * @param time the time execution begin
      */
     public void setStartExecuting(int time) {
-        this.lastStarted = time;
+        table.setLastStarted(slot, time);
     }
 
     /**
-     * Marks that the process is no longer executing. If the process is completed then the process will now be marked as finished.
+     * Marks that the process is no longer executing. If the process is completed then the process will now be marked as finished, otherwise if
+     * its CPU burst is over it is now blocked, see {@link #isBlocked()}.
      *
      * @param time The time execution finished.
      */
     public void setFinishExecuting(int time) {
-        int netTime = time - lastStarted;
-        timeExecuted += netTime;
-        if(timeExecuted>=getServiceTime()) {
-            finishTime = time;
-            this.isFinished = true;
-        }
+        table.addTimeExecuted(slot, time - getLastStarted(), time);
     }
 
     /**
-     * Checks whether the process will finish at the given time. This assumes that the process
-     * is currently executing.
+     * Checks whether the process will finish at the given time, or for a job made of CPU and I/O bursts whether its current CPU burst will end.
+     * Either way the process will leave the processor. This assumes that the process is currently executing.
      *
      * @param time The time to check if the process finishes
      * @return Whether the process will finish at the given time or not.
      */
     public boolean willFinish(int time) {
-        return time - lastStarted + timeExecuted >= getServiceTime();
+        return time - getLastStarted() + table.getTimeExecuted(slot) >= table.getBurstEnd(slot);
     }
 
     /**
      * @return Whether the process has finished executing.
      */
     public boolean isFinished() {
-        return isFinished;
+        return table.isFinished(slot);
     }
 
     /**
@@ -123,7 +178,7 @@ public class Process {
      * @return The process turnaround time
      */
     public int getTurnaroundTime() {
-        return finishTime - getArrivalTime();
+        return table.getFinishTime(slot) - getArrivalTime();
     }
 
     /**
@@ -132,7 +187,42 @@ public class Process {
      * @return The wait time of this process
      */
     public int getWaitTime() {
-        return finishTime - getArrivalTime() - getServiceTime();
+        return table.getFinishTime(slot) - getArrivalTime() - getServiceTime() - getIOTime();
+    }
+
+    /**
+     * The response time is the amount of time from when the process arrived until it was first dispatched to a processor.
+     *
+     * @return The response time of this process, or -1 if it has not been dispatched
+     */
+    public int getResponseTime() {
+        return table.hasStarted(slot) ? table.getFirstStarted(slot) - getArrivalTime() : -1;
+    }
+
+    /**
+     * @return The number of times the process has been taken off a processor for another process, before its CPU burst ended
+     */
+    public int getPreemptions() {
+        return table.getPreemptions(slot);
+    }
+
+    /**
+     * Records that the process has been dispatched to a processor, see {@link Dispatcher#dispatched(Process, int, int)}.
+     *
+     * @param time The time the process starts running
+     * @return How long the process waited to run, from when it last became ready
+     */
+    int dispatched(int time) {
+        if(!table.hasStarted(slot))
+            table.setFirstStarted(slot, time);
+        return time - table.getReadySince(slot);
+    }
+
+    /**
+     * Records that the process has been taken off a processor for another process
+     */
+    void preempted() {
+        table.addPreemption(slot);
     }
 
     /**
@@ -141,7 +231,7 @@ public class Process {
      * @return The time quanta of this process
      */
     public int getTimeQuanta() {
-        return timeQuanta;
+        return table.getTimeQuanta(slot);
     }
 
     /**
@@ -151,7 +241,7 @@ public class Process {
      * @param timeQuanta the new time quanta of the process
      */
     public void setTimeQuanta(int timeQuanta) {
-        this.timeQuanta = timeQuanta;
+        table.setTimeQuanta(slot, timeQuanta);
     }
 
     /**
@@ -160,7 +250,7 @@ public class Process {
      * @return The priority of the process.
      */
     public int getPriority() {
-        return priority;
+        return table.getPriority(slot);
     }
 
     /**
@@ -169,6 +259,55 @@ public class Process {
      * @param priority The new priority of the process
      */
     public void setPriority(int priority) {
-        this.priority = priority;
+        table.setPriority(slot, priority);
+    }
+
+    /**
+     * @return The share of the processor the process is given by proportional share algorithms, see {@link Job#getTickets()}
+     */
+    public int getTickets() {
+        return table.getTickets(slot);
+    }
+
+    /**
+     * @return The time the process should finish by, see {@link Job#getDeadline()}
+     */
+    public int getDeadline() {
+        return table.getDeadline(slot);
+    }
+
+    /**
+     * @return The period of the task which released the process, see {@link Job#getPeriod()}
+     */
+    public int getPeriod() {
+        return table.getPeriod(slot);
+    }
+
+    /**
+     * @return The index of the task which released the process, see {@link Job#getTask()}
+     */
+    public int getTask() {
+        return table.getTask(slot);
+    }
+
+    /**
+     * Two processes are equal if they are views of the same slot in the same table
+     *
+     * @param o The object to compare to
+     * @return Whether the object is the same process
+     */
+    @Override
+    public boolean equals(Object o) {
+        if(this==o)
+            return true;
+        if(!(o instanceof Process))
+            return false;
+        Process process = (Process) o;
+        return table==process.table && slot==process.slot;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(table) + slot;
     }
 }
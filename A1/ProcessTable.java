@@ -0,0 +1,499 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * File: ProcessTable.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Stores the state of many processes in parallel arrays, one entry in each array for each process. Each process is given a slot which
+ * is its index into the arrays, and a {@link Process} is a view of a single slot. A view is created the first time a slot is looked up and reused
+ * from then on, so looking up a process does not allocate. A view holds nothing but its slot, so a released slot keeps its view for the next
+ * process given the slot. When processes are retained rather than released, the view of a process is dropped once it finishes, see
+ * {@link #finished(int)}, and a new one is made only if the process is looked up again, such as for the output.
+ *
+ * Every process uses 44 bytes for its state, and the state of processes is kept next to each other in memory. Each slot in use by a process that
+ * has not finished also has its view, about 24 bytes for the object and 4 to 8 for its reference, so about 72 bytes for each of these processes.
+ * A retained process which has finished uses 44 bytes, and a table whose slots are released only ever has as many views as the most processes
+ * it held at once. State that only some workloads use is kept in side tables which are only created once a job needs them
+ *   - I/O bursts, for jobs made of CPU and I/O bursts (12 bytes, plus the bursts shared with the job)
+ *   - tickets, for jobs with other than {@link Job#DEFAULT_TICKETS}
+ *   - the deadline, period and task, for releases of a {@link PeriodicTask} (12 bytes)
+ *
+ * A slot can be released once its process has finished and is no longer needed, after which it is given to the next process added.
+ */
+public class ProcessTable {
+
+    private final static int DEFAULT_CAPACITY = 16;
+    private final static int NOT_FINISHED = -1;
+    private final static int NOT_BLOCKED = -1;
+    private final static int NOT_STARTED = -1;
+
+    //the state of the process in each slot
+    private int[] processIds;
+    private int[] arrivalTimes;
+    private int[] serviceTimes;
+    private int[] finishTimes;
+    private int[] timesExecuted;
+    private int[] lastStarted;
+    private int[] timeQuanta;
+    private int[] priorities;
+    private int[] firstStarted; //when the process was first dispatched, or NOT_STARTED
+    private int[] readySince; //when the process last became ready to run
+    private int[] preemptions;
+    private Process[] views;
+    //I/O side table, null until a job with I/O bursts is added
+    private int[] burstEnds; //the time executed at which the current CPU burst ends
+    private int[] burstIndexes; //the index of the current CPU burst
+    private int[] blockedUntil; //when the current I/O burst ends, or NOT_BLOCKED
+    private int[][] bursts; //shared with the job, null for a single CPU burst
+    //tickets side table, null until a job with other than the default tickets is added
+    private int[] tickets;
+    //periodic side table, null until a release of a periodic task is added
+    private int[] deadlines;
+    private int[] periods;
+    private int[] tasks;
+
+    private int slots; //the number of slots that have ever been given out
+    private int[] freeSlots; //released slots waiting to be given out again
+    private int freeCount;
+
+    /**
+     * Creates a new empty process table
+     */
+    public ProcessTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new empty process table
+     *
+     * @param capacity The number of processes the table can hold before it grows
+     */
+    public ProcessTable(int capacity) {
+        capacity = Math.max(1, capacity);
+        this.processIds = new int[capacity];
+        this.arrivalTimes = new int[capacity];
+        this.serviceTimes = new int[capacity];
+        this.finishTimes = new int[capacity];
+        this.timesExecuted = new int[capacity];
+        this.lastStarted = new int[capacity];
+        this.timeQuanta = new int[capacity];
+        this.priorities = new int[capacity];
+        this.firstStarted = new int[capacity];
+        this.readySince = new int[capacity];
+        this.preemptions = new int[capacity];
+        this.views = new Process[capacity];
+        this.slots = 0;
+        this.freeSlots = new int[0];
+        this.freeCount = 0;
+    }
+
+    /**
+     * Adds a new process to the table for the given job. A released slot is used if there is one.
+     *
+     * @param job The job the process represents
+     * @return A view of the new process
+     */
+    public Process add(Job job) {
+        int slot;
+        if(freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if(slots==processIds.length)
+                grow();
+            slot = slots++;
+        }
+        processIds[slot] = job.getId();
+        arrivalTimes[slot] = job.getArrivalTime();
+        serviceTimes[slot] = job.getServiceTime();
+        finishTimes[slot] = NOT_FINISHED;
+        timesExecuted[slot] = 0;
+        lastStarted[slot] = 0;
+        timeQuanta[slot] = 0;
+        priorities[slot] = 0;
+        firstStarted[slot] = NOT_STARTED;
+        readySince[slot] = job.getArrivalTime();
+        preemptions[slot] = 0;
+
+        int[] jobBursts = job.getBurstArray();
+        if(jobBursts!=null && bursts==null)
+            createIOTable();
+        if(bursts!=null) {
+            bursts[slot] = jobBursts;
+            burstEnds[slot] = jobBursts==null ? job.getServiceTime() : jobBursts[0];
+            burstIndexes[slot] = 0;
+            blockedUntil[slot] = NOT_BLOCKED;
+        }
+        if(job.getTickets()!=Job.DEFAULT_TICKETS && tickets==null)
+            tickets = filled(Job.DEFAULT_TICKETS);
+        if(tickets!=null)
+            tickets[slot] = job.getTickets();
+        if(job.getTask()!=Job.NO_TASK && tasks==null)
+            createPeriodicTable();
+        if(tasks!=null) {
+            deadlines[slot] = job.getDeadline();
+            periods[slot] = job.getPeriod();
+            tasks[slot] = job.getTask();
+        }
+        return get(slot);
+    }
+
+    private void createIOTable() {
+        burstEnds = Arrays.copyOf(serviceTimes, processIds.length);
+        burstIndexes = new int[processIds.length];
+        blockedUntil = filled(NOT_BLOCKED);
+        bursts = new int[processIds.length][];
+    }
+
+    private void createPeriodicTable() {
+        deadlines = filled(Job.NO_DEADLINE);
+        periods = filled(Job.NO_PERIOD);
+        tasks = filled(Job.NO_TASK);
+    }
+
+    /**
+     * @param value The value of every slot
+     * @return A side table as large as the other columns
+     */
+    private int[] filled(int value) {
+        int[] column = new int[processIds.length];
+        Arrays.fill(column, value);
+        return column;
+    }
+
+    /**
+     * Releases the slot of a process so it can be given to a new process. The process must not be used afterwards.
+     *
+     * @param process The process to release
+     */
+    public void release(Process process) {
+        if(freeCount==freeSlots.length)
+            freeSlots = Arrays.copyOf(freeSlots, Math.max(DEFAULT_CAPACITY, freeCount * 2));
+        freeSlots[freeCount++] = process.getSlot();
+        //the bursts belong to the job, so are not kept alive by a released slot
+        if(bursts!=null)
+            bursts[process.getSlot()] = null;
+    }
+
+    /**
+     * Drops the view of a process which has finished but is retained rather than released, so a retained table does not keep a view of every
+     * process. Views hold no state, so one which is still referenced carries on working.
+     *
+     * @param slot The slot of the process which has finished
+     */
+    void finished(int slot) {
+        views[slot] = null;
+    }
+
+    /**
+     * @return The number of processes in the table that have not been released
+     */
+    public int size() {
+        return slots - freeCount;
+    }
+
+    /**
+     * @param slot The slot of the process
+     * @return The view of the process in the given slot
+     */
+    public Process get(int slot) {
+        if(slot<0 || slot>=slots)
+            throw new IndexOutOfBoundsException("Slot: "+slot+", Size: "+slots);
+        Process view = views[slot];
+        if(view==null) {
+            view = new Process(this, slot);
+            views[slot] = view;
+        }
+        return view;
+    }
+
+    /**
+     * Lists the processes in every slot in the order the slots were first given out. This should only be used if no slots have been released.
+     *
+     * @return A list of views of every process in the table
+     */
+    public List<Process> asList() {
+        return new AbstractList<Process>() {
+            @Override
+            public Process get(int index) {
+                return ProcessTable.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return slots;
+            }
+        };
+    }
+
+    /**
+     * Writes every slot of the table, including released slots. Each side table is written after a flag saying whether it has been created.
+     *
+     * @param out Where to write the table
+     * @throws IOException Thrown if the table cannot be written
+     */
+    void write(DataOutput out) throws IOException {
+        out.writeInt(slots);
+        writeColumns(out, processIds, arrivalTimes, serviceTimes, finishTimes, timesExecuted, lastStarted, timeQuanta, priorities,
+                firstStarted, readySince, preemptions);
+        out.writeBoolean(bursts!=null);
+        if(bursts!=null) {
+            writeColumns(out, burstEnds, burstIndexes, blockedUntil);
+            for(int slot = 0; slot < slots; slot++) {
+                int[] slotBursts = bursts[slot];
+                out.writeInt(slotBursts==null ? 0 : slotBursts.length);
+                for(int i = 0; slotBursts!=null && i < slotBursts.length; i++) {
+                    out.writeInt(slotBursts[i]);
+                }
+            }
+        }
+        out.writeBoolean(tickets!=null);
+        if(tickets!=null)
+            writeColumns(out, tickets);
+        out.writeBoolean(tasks!=null);
+        if(tasks!=null)
+            writeColumns(out, deadlines, periods, tasks);
+        out.writeInt(freeCount);
+        for(int i = 0; i < freeCount; i++) {
+            out.writeInt(freeSlots[i]);
+        }
+    }
+
+    private void writeColumns(DataOutput out, int[]... columns) throws IOException {
+        for(int[] column : columns) {
+            for(int slot = 0; slot < slots; slot++) {
+                out.writeInt(column[slot]);
+            }
+        }
+    }
+
+    /**
+     * Replaces every slot of the table with ones written by {@link #write(DataOutput)}.
+     *
+     * @param in Where to read the table from
+     * @throws IOException Thrown if the table cannot be read
+     */
+    void read(DataInput in) throws IOException {
+        int slots = in.readInt();
+        if(slots<0)
+            throw new IOException("Invalid number of processes "+slots);
+        this.slots = 0;
+        while (processIds.length < slots) {
+            grow();
+        }
+        readColumns(in, slots, processIds, arrivalTimes, serviceTimes, finishTimes, timesExecuted, lastStarted, timeQuanta, priorities,
+                firstStarted, readySince, preemptions);
+        if(in.readBoolean()) {
+            if(bursts==null)
+                createIOTable();
+            readColumns(in, slots, burstEnds, burstIndexes, blockedUntil);
+            for(int slot = 0; slot < slots; slot++) {
+                int length = in.readInt();
+                if(length<0)
+                    throw new IOException("Invalid number of bursts "+length);
+                bursts[slot] = length==0 ? null : new int[length];
+                for(int i = 0; i < length; i++) {
+                    bursts[slot][i] = in.readInt();
+                }
+            }
+        } else {
+            burstEnds = null;
+            burstIndexes = null;
+            blockedUntil = null;
+            bursts = null;
+        }
+        if(in.readBoolean()) {
+            if(tickets==null)
+                tickets = filled(Job.DEFAULT_TICKETS);
+            readColumns(in, slots, tickets);
+        } else {
+            tickets = null;
+        }
+        if(in.readBoolean()) {
+            if(tasks==null)
+                createPeriodicTable();
+            readColumns(in, slots, deadlines, periods, tasks);
+        } else {
+            deadlines = null;
+            periods = null;
+            tasks = null;
+        }
+        this.slots = slots;
+        int freeCount = in.readInt();
+        if(freeCount<0 || freeCount>slots)
+            throw new IOException("Invalid number of released processes "+freeCount);
+        this.freeSlots = new int[freeCount];
+        for(int i = 0; i < freeCount; i++) {
+            freeSlots[i] = in.readInt();
+        }
+        this.freeCount = freeCount;
+    }
+
+    private static void readColumns(DataInput in, int slots, int[]... columns) throws IOException {
+        for(int[] column : columns) {
+            for(int slot = 0; slot < slots; slot++) {
+                column[slot] = in.readInt();
+            }
+        }
+    }
+
+    private void grow() {
+        int capacity = processIds.length * 2;
+        processIds = Arrays.copyOf(processIds, capacity);
+        arrivalTimes = Arrays.copyOf(arrivalTimes, capacity);
+        serviceTimes = Arrays.copyOf(serviceTimes, capacity);
+        finishTimes = Arrays.copyOf(finishTimes, capacity);
+        timesExecuted = Arrays.copyOf(timesExecuted, capacity);
+        lastStarted = Arrays.copyOf(lastStarted, capacity);
+        timeQuanta = Arrays.copyOf(timeQuanta, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+        firstStarted = Arrays.copyOf(firstStarted, capacity);
+        readySince = Arrays.copyOf(readySince, capacity);
+        preemptions = Arrays.copyOf(preemptions, capacity);
+        views = Arrays.copyOf(views, capacity);
+        if(bursts!=null) {
+            burstEnds = Arrays.copyOf(burstEnds, capacity);
+            burstIndexes = Arrays.copyOf(burstIndexes, capacity);
+            blockedUntil = Arrays.copyOf(blockedUntil, capacity);
+            bursts = Arrays.copyOf(bursts, capacity);
+        }
+        if(tickets!=null)
+            tickets = Arrays.copyOf(tickets, capacity);
+        if(tasks!=null) {
+            deadlines = Arrays.copyOf(deadlines, capacity);
+            periods = Arrays.copyOf(periods, capacity);
+            tasks = Arrays.copyOf(tasks, capacity);
+        }
+    }
+
+    int getProcessId(int slot) {
+        return processIds[slot];
+    }
+
+    int getArrivalTime(int slot) {
+        return arrivalTimes[slot];
+    }
+
+    int getServiceTime(int slot) {
+        return serviceTimes[slot];
+    }
+
+    int getTimeExecuted(int slot) {
+        return timesExecuted[slot];
+    }
+
+    int getLastStarted(int slot) {
+        return lastStarted[slot];
+    }
+
+    void setLastStarted(int slot, int time) {
+        lastStarted[slot] = time;
+    }
+
+    /**
+     * Adds to the time a process has executed, marking it as finished at the given time if it has now executed for its full service time.
+     * Otherwise if its CPU burst is over it is blocked until the end of the I/O burst after it, or if not it is ready to run again from the given time.
+     */
+    void addTimeExecuted(int slot, int netTime, int time) {
+        timesExecuted[slot] += netTime;
+        readySince[slot] = time;
+        if(timesExecuted[slot]>=serviceTimes[slot]) {
+            finishTimes[slot] = time;
+        } else if(bursts!=null && timesExecuted[slot]>=burstEnds[slot]) {
+            int index = burstIndexes[slot];
+            blockedUntil[slot] = time + bursts[slot][index + 1];
+            burstIndexes[slot] = index + 2;
+            burstEnds[slot] += bursts[slot][index + 2];
+        }
+    }
+
+    int getBurstEnd(int slot) {
+        return bursts==null ? serviceTimes[slot] : burstEnds[slot];
+    }
+
+    boolean isBlocked(int slot) {
+        return blockedUntil!=null && blockedUntil[slot]!=NOT_BLOCKED;
+    }
+
+    int getBlockedUntil(int slot) {
+        return blockedUntil[slot];
+    }
+
+    void wake(int slot) {
+        readySince[slot] = blockedUntil[slot];
+        blockedUntil[slot] = NOT_BLOCKED;
+    }
+
+    int getIOTime(int slot) {
+        return bursts==null ? 0 : Job.getIOTime(bursts[slot]);
+    }
+
+    boolean isFinished(int slot) {
+        return finishTimes[slot]!=NOT_FINISHED;
+    }
+
+    int getFinishTime(int slot) {
+        return isFinished(slot) ? finishTimes[slot] : 0;
+    }
+
+    int getTimeQuanta(int slot) {
+        return timeQuanta[slot];
+    }
+
+    void setTimeQuanta(int slot, int quanta) {
+        timeQuanta[slot] = quanta;
+    }
+
+    int getPriority(int slot) {
+        return priorities[slot];
+    }
+
+    void setPriority(int slot, int priority) {
+        priorities[slot] = priority;
+    }
+
+    int getTickets(int slot) {
+        return tickets==null ? Job.DEFAULT_TICKETS : tickets[slot];
+    }
+
+    int getDeadline(int slot) {
+        return tasks==null ? Job.NO_DEADLINE : deadlines[slot];
+    }
+
+    int getPeriod(int slot) {
+        return tasks==null ? Job.NO_PERIOD : periods[slot];
+    }
+
+    int getTask(int slot) {
+        return tasks==null ? Job.NO_TASK : tasks[slot];
+    }
+
+    boolean hasStarted(int slot) {
+        return firstStarted[slot]!=NOT_STARTED;
+    }
+
+    int getFirstStarted(int slot) {
+        return firstStarted[slot];
+    }
+
+    void setFirstStarted(int slot, int time) {
+        firstStarted[slot] = time;
+    }
+
+    int getReadySince(int slot) {
+        return readySince[slot];
+    }
+
+    int getPreemptions(int slot) {
+        return preemptions[slot];
+    }
+
+    void addPreemption(int slot) {
+        preemptions[slot]++;
+    }
+}
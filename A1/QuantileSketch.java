@@ -0,0 +1,213 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * File: QuantileSketch.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Estimates quantiles (for example the median or 99th percentile) of a stream of non-negative values using a fixed amount of memory. Values are counted
+ * in buckets whose boundaries grow geometrically, so any quantile is estimated to within the relative accuracy of the sketch. Two sketches with the
+ * same accuracy can be merged by adding their bucket counts, giving the same result as if every value had been added to one sketch.
+ */
+public class QuantileSketch {
+
+    /**
+     * The default relative accuracy, quantiles are within 1% of the true value.
+     */
+    public final static double DEFAULT_ACCURACY = 0.01;
+    /**
+     * Values below this have their bucket looked up rather than calculated with a logarithm, when the sketch has the default accuracy
+     */
+    private final static int LOOKUP_VALUES = 1 << 12;
+    private final static int[] DEFAULT_LOOKUP = createLookup(DEFAULT_ACCURACY);
+
+    private final double accuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final long[] buckets; //bucket i counts values in (gamma^(i-1), gamma^i]
+    private final int[] lookup; //the bucket of each small value, or null
+    private long zeroCount;
+    private long count;
+
+    /**
+     * Creates a sketch with the default relative accuracy
+     */
+    public QuantileSketch() {
+        this(DEFAULT_ACCURACY);
+    }
+
+    /**
+     * Creates a new sketch
+     *
+     * @param accuracy The relative accuracy of the quantiles, between 0 and 1 exclusive
+     * @throws IllegalArgumentException if the accuracy is not between 0 and 1
+     */
+    public QuantileSketch(double accuracy) {
+        if(!(accuracy > 0 && accuracy < 1))
+            throw new IllegalArgumentException("Accuracy must be between 0 and 1, got "+accuracy);
+        this.accuracy = accuracy;
+        this.gamma = (1 + accuracy) / (1 - accuracy);
+        this.logGamma = Math.log(gamma);
+        //enough buckets to cover every positive long value
+        this.buckets = new long[bucketOf(Long.MAX_VALUE, logGamma) + 1];
+        this.lookup = accuracy==DEFAULT_ACCURACY ? DEFAULT_LOOKUP : null;
+        this.zeroCount = 0;
+        this.count = 0;
+    }
+
+    /**
+     * Adds a value to the sketch
+     *
+     * @param value The value to add
+     * @throws IllegalArgumentException if the value is negative
+     */
+    public void add(long value) {
+        if(value<0)
+            throw new IllegalArgumentException("Value must not be negative, got "+value);
+        if(value==0) {
+            zeroCount++;
+        } else {
+            buckets[bucketOf(value)]++;
+        }
+        count++;
+    }
+
+    /**
+     * Adds every value from another sketch to this sketch
+     *
+     * @param other The sketch to merge in
+     * @throws IllegalArgumentException if the other sketch has a different accuracy
+     */
+    public void merge(QuantileSketch other) {
+        if(other.accuracy!=accuracy)
+            throw new IllegalArgumentException("Cannot merge sketches with different accuracy");
+        for(int i = 0; i < buckets.length; i++) {
+            buckets[i] += other.buckets[i];
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+    }
+
+    /**
+     * Estimates the value at the quantile, the value with the nearest rank, see {@link #rankOf(double, long)}. The estimate is within the relative
+     * accuracy of the true value. It is the middle of the bucket the value is in, so it can be a little below or above the true value, even for
+     * the smallest or largest value.
+     *
+     * @param quantile The quantile between 0 and 1, for example 0.99 for the 99th percentile
+     * @return The estimated value at the quantile, or 0 if the sketch is empty
+     * @throws IllegalArgumentException if the quantile is not between 0 and 1
+     */
+    public double getQuantile(double quantile) {
+        if(quantile<0 || quantile>1)
+            throw new IllegalArgumentException("Quantile must be between 0 and 1, got "+quantile);
+        if(count==0)
+            return 0;
+
+        long rank = rankOf(quantile, count);
+        if(rank < zeroCount)
+            return 0;
+        long seen = zeroCount;
+        for(int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if(seen > rank)
+                return 2 * Math.pow(gamma, i) / (gamma + 1);
+        }
+        return 2 * Math.pow(gamma, buckets.length - 1) / (gamma + 1);
+    }
+
+    /**
+     * The nearest rank of a quantile is the smallest rank with at least that fraction of the values at or below it, so for example the 99th
+     * percentile of 5 values is the largest value rather than the 4th.
+     *
+     * @param quantile The quantile between 0 and 1
+     * @param count The number of values
+     * @return The rank of the value at the quantile, counting from 0 for the smallest value
+     */
+    static long rankOf(double quantile, long count) {
+        return Math.max(0, (long) Math.ceil(quantile * count) - 1);
+    }
+
+    /**
+     * @return The number of values added to the sketch
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return The relative accuracy of the sketch
+     */
+    public double getAccuracy() {
+        return accuracy;
+    }
+
+    /**
+     * Writes the counts of the sketch, only the buckets with values are written
+     *
+     * @param out Where to write the sketch
+     * @throws IOException Thrown if the sketch cannot be written
+     */
+    void write(DataOutput out) throws IOException {
+        out.writeDouble(accuracy);
+        out.writeLong(zeroCount);
+        out.writeLong(count);
+        int used = 0;
+        for(long bucket : buckets) {
+            if(bucket!=0)
+                used++;
+        }
+        out.writeInt(used);
+        for(int i = 0; i < buckets.length; i++) {
+            if(buckets[i]!=0) {
+                out.writeInt(i);
+                out.writeLong(buckets[i]);
+            }
+        }
+    }
+
+    /**
+     * Replaces the counts of the sketch with ones written by {@link #write(DataOutput)}
+     *
+     * @param in Where to read the sketch from
+     * @throws IOException Thrown if the sketch cannot be read or has a different accuracy
+     */
+    void read(DataInput in) throws IOException {
+        if(in.readDouble()!=accuracy)
+            throw new IOException("Sketch has a different accuracy");
+        zeroCount = in.readLong();
+        count = in.readLong();
+        Arrays.fill(buckets, 0);
+        int used = in.readInt();
+        for(int i = 0; i < used; i++) {
+            int bucket = in.readInt();
+            if(bucket<0 || bucket>=buckets.length)
+                throw new IOException("Invalid sketch bucket "+bucket);
+            buckets[bucket] = in.readLong();
+        }
+    }
+
+    private int bucketOf(long value) {
+        if(lookup!=null && value < LOOKUP_VALUES)
+            return lookup[(int) value];
+        return bucketOf(value, logGamma);
+    }
+
+    private static int bucketOf(long value, double logGamma) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    /**
+     * Most values added are small times, so working out their buckets once saves a logarithm for almost every value added
+     */
+    private static int[] createLookup(double accuracy) {
+        double logGamma = Math.log((1 + accuracy) / (1 - accuracy));
+        int[] lookup = new int[LOOKUP_VALUES];
+        for(int value = 1; value < LOOKUP_VALUES; value++) {
+            lookup[value] = bucketOf(value, logGamma);
+        }
+        return lookup;
+    }
+}
@@ -7,10 +7,20 @@
  */
 public class RRDispatcher extends AbstractRRDispatcher {
 
-    private final static int TIME_QUANTA = 4;
+    final static int TIME_QUANTA = 4;
 
     protected RRDispatcher(int contextSwitchTime) {
-        super("RR", contextSwitchTime, TIME_QUANTA);
+        this(contextSwitchTime, TIME_QUANTA);
+    }
+
+    /**
+     * Creates a new RR dispatcher
+     *
+     * @param contextSwitchTime The time taken switch processes
+     * @param timeQuanta The time quanta given to every process
+     */
+    public RRDispatcher(int contextSwitchTime, int timeQuanta) {
+        super("RR", contextSwitchTime, timeQuanta);
     }
 
     @Override
@@ -0,0 +1,89 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+
+/**
+ * File: RRReadyQueue.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * A first in first out {@link ReadyQueue}. Each process starts with the base time quanta, every time it is readmitted the quanta is made one smaller
+ * until it reaches the minimum. This covers the FCFS (unbounded quanta), RR (base equal to minimum) and NRR algorithms.
+ */
+public class RRReadyQueue implements ReadyQueue {
+
+    private final Deque<Process> processQueue;
+    private final int baseTimeQuanta;
+    private final int minTimeQuanta;
+
+    /**
+     * Creates a new round robin ready queue
+     *
+     * @param baseTimeQuanta The time quanta a process starts with
+     * @param minTimeQuanta The smallest time quanta a process can be reduced to
+     */
+    public RRReadyQueue(int baseTimeQuanta, int minTimeQuanta) {
+        this.processQueue = new ArrayDeque<>();
+        this.baseTimeQuanta = baseTimeQuanta;
+        this.minTimeQuanta = minTimeQuanta;
+    }
+
+    /**
+     * @return A ready queue that runs every process to completion, in order of arrival
+     */
+    public static RRReadyQueue fcfs() {
+        return new RRReadyQueue(Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return A ready queue with the same time quanta as {@link RRDispatcher}
+     */
+    public static RRReadyQueue rr() {
+        return new RRReadyQueue(RRDispatcher.TIME_QUANTA, RRDispatcher.TIME_QUANTA);
+    }
+
+    /**
+     * @return A ready queue with the same time quanta as {@link NRRDispatcher}
+     */
+    public static RRReadyQueue nrr() {
+        return new RRReadyQueue(NRRDispatcher.BASE_TIME_QUANTA, NRRDispatcher.MIN_TIME_QUANTA);
+    }
+
+    @Override
+    public void arrive(Process process) {
+        process.setTimeQuanta(baseTimeQuanta);
+        processQueue.add(process);
+    }
+
+    @Override
+    public void readmit(Process process) {
+        process.setTimeQuanta(Math.max(process.getTimeQuanta()-1, minTimeQuanta));
+        processQueue.add(process);
+    }
+
+    @Override
+    public Process select(Process running, int time) {
+        return processQueue.poll();
+    }
+
+    @Override
+    public Process steal() {
+        return processQueue.pollLast();
+    }
+
+    @Override
+    public int size() {
+        return processQueue.size();
+    }
+
+    @Override
+    public Collection<Process> getWaiting() {
+        return new ArrayList<>(processQueue);
+    }
+
+    @Override
+    public void restore(Process process) {
+        processQueue.add(process);
+    }
+}
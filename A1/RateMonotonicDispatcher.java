@@ -0,0 +1,36 @@
+import java.util.Comparator;
+
+/**
+ * File: RateMonotonicDispatcher.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Represents a dispatcher running the RM (Rate Monotonic) algorithm. Each task is given a fixed priority by its period, the shorter the period the
+ * higher the priority, and the process of the highest priority task always runs, preempting the running process if a higher priority one arrives.
+ * RM meets every deadline of n periodic tasks with deadlines at the end of each period if their utilization is at most n(2^(1/n) - 1), see
+ * {@link #getUtilizationBound(int)}, and often of sets with a higher utilization.
+ *
+ * Processes which were not released by a task have the lowest priority, and run in order of process id.
+ */
+public class RateMonotonicDispatcher extends RealTimeDispatcher {
+
+    /**
+     * Creates a new rate monotonic dispatcher.
+     *
+     * @param contextSwitchTime The time taken to switch processes
+     */
+    public RateMonotonicDispatcher(int contextSwitchTime) {
+        super("RM", contextSwitchTime, Comparator.comparingInt(Process::getPeriod));
+    }
+
+    /**
+     * The Liu and Layland bound, any set of periodic tasks with a utilization at or below this is schedulable by rate monotonic. This tends to ln 2,
+     * about 0.693, as the number of tasks grows.
+     *
+     * @param tasks The number of tasks
+     * @return The highest utilization of the tasks that is always schedulable
+     */
+    public static double getUtilizationBound(int tasks) {
+        return tasks<1 ? 1 : tasks * (Math.pow(2, 1.0 / tasks) - 1);
+    }
+}
@@ -0,0 +1,62 @@
+import java.util.Collection;
+
+/**
+ * File: ReadyQueue.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Represents the ready queue of a scheduling algorithm run by a {@link MultiCoreDispatcher}. The ready queue decides the order processes are
+ * picked in and how long each process is allowed to run before it is preempted, using {@link Process#getTimeQuanta()}. A multi core dispatcher
+ * may share one ready queue between every processor, or give each processor its own.
+ */
+public interface ReadyQueue {
+
+    /**
+     * Adds a newly arrived process to the queue. This should set up the starting time quanta and priority of the process.
+     *
+     * @param process The process which has arrived.
+     */
+    void arrive(Process process);
+
+    /**
+     * Readmits a process back into the queue after it has been preempted. This will only be called if the process has not finished.
+     *
+     * @param process The process to readmit back into the queue.
+     */
+    void readmit(Process process);
+
+    /**
+     * Picks the next process to run on a processor.
+     *
+     * @param running The process currently running on the processor, or null if the processor is idle
+     * @param time The current time of the simulation
+     * @return The selected process, which may be the running process, or null if there is nothing to select
+     */
+    Process select(Process running, int time);
+
+    /**
+     * Removes the process that the owning processor would run last. This is used by idle processors to steal work.
+     *
+     * @return The stolen process or null if the queue is empty
+     */
+    Process steal();
+
+    /**
+     * @return The number of processes waiting in the queue
+     */
+    int size();
+
+    /**
+     * Lists the waiting processes so they can be saved. Putting each one back with {@link #restore(Process)}, in the same order, must give the same queue.
+     *
+     * @return Every waiting process
+     */
+    Collection<Process> getWaiting();
+
+    /**
+     * Puts back a process listed by {@link #getWaiting()}, without changing its time quanta or priority.
+     *
+     * @param process The process to put back
+     */
+    void restore(Process process);
+}
@@ -0,0 +1,77 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+
+/**
+ * File: RealTimeDispatcher.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Represents a preemptive priority dispatcher for real time tasks, see {@link PeriodicTask}. The waiting processes are kept in a heap in order of
+ * priority, then by process id, and the most urgent process always runs. When a process arrives that is more urgent than the running process, the
+ * running process is preempted and readmitted to the heap. The priority of a process never changes, so the heap never needs to be reordered.
+ *
+ * How urgent each process is depends on the algorithm, for example {@link EDFDispatcher} runs the process with the earliest deadline.
+ */
+public abstract class RealTimeDispatcher extends SingleCoreDispatcher {
+
+    private final Comparator<Process> order;
+    private final Queue<Process> processQueue;
+
+    /**
+     * Creates a new real time dispatcher
+     *
+     * @param name The name of the algorithm being used
+     * @param contextSwitchTime The time taken to switch processes
+     * @param priority Orders processes from the most to the least urgent, ties are broken by the process id
+     */
+    protected RealTimeDispatcher(String name, int contextSwitchTime, Comparator<Process> priority) {
+        super(name, contextSwitchTime);
+        this.order = priority.thenComparingInt(Process::getProcessId);
+        this.processQueue = new PriorityQueue<>(order);
+    }
+
+    @Override
+    protected void handleArrival(Process process) {
+        processQueue.add(process);
+        //preempt the running process if the arrival is more urgent
+        Process runningProcess = getRunningProcess();
+        if(runningProcess!=null && process.equals(processQueue.peek()) && order.compare(process, runningProcess) < 0)
+            preempt();
+    }
+
+    @Override
+    protected Process selectProcess() {
+        //take the most urgent process
+        return processQueue.poll();
+    }
+
+    @Override
+    protected void readmitProcess(Process process) {
+        processQueue.add(process);
+    }
+
+    @Override
+    protected void scheduleTask(Process process) {
+        process.setStartExecuting(getTime());
+        //run until the end of the burst, unless preempted by a more urgent arrival
+        int finishTime = getTime() + process.getRemainingTime();
+        scheduleInterrupt(process.getProcessId(), finishTime);
+    }
+
+    @Override
+    protected void writeState(DataOutput out) throws IOException {
+        super.writeState(out);
+        writeProcesses(out, processQueue);
+    }
+
+    @Override
+    protected void readState(DataInput in) throws IOException {
+        super.readState(in);
+        processQueue.clear();
+        processQueue.addAll(readProcesses(in));
+    }
+}
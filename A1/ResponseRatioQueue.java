@@ -0,0 +1,204 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * File: ResponseRatioQueue.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Holds waiting processes so that the process with the highest response ratio can be found without rescanning every process. The response ratio of a process
+ * at time t is (wait time + service time) / service time, which is 1 + (t - arrival) / service. As every ratio grows at a different rate the order of the
+ * processes changes over time, so a normal heap cannot be used.
+ *
+ * Instead this is a kinetic tournament tree. Each leaf holds a process and each internal node holds the winner of its two children, along with the time at which
+ * the loser will overtake the winner. When time moves forward only the nodes whose winner has been overtaken are replayed. Adding and removing a process
+ * takes O(log n) time, and moving time forward takes O(log n) time for each change in the order. Ties are broken using the process ID.
+ */
+public class ResponseRatioQueue {
+
+    private final static int NONE = -1;
+    private final static long NEVER = Long.MAX_VALUE;
+
+    private Process[] leaves;
+    private int[] winners; //the leaf index of the winner of each node, node 1 is the root
+    private long[] failures; //the earliest time any winner in the subtree of each node is overtaken
+    private int[] freeLeaves;
+    private int freeCount;
+    private int capacity;
+    private int size;
+    private long time;
+
+    /**
+     * Creates an empty response ratio queue
+     */
+    public ResponseRatioQueue() {
+        this.time = 0;
+        allocate(16);
+    }
+
+    private void allocate(int capacity) {
+        Process[] old = leaves;
+        this.capacity = capacity;
+        this.leaves = new Process[capacity];
+        this.winners = new int[2 * capacity];
+        this.failures = new long[2 * capacity];
+        Arrays.fill(winners, NONE);
+        Arrays.fill(failures, NEVER);
+        this.freeLeaves = new int[capacity];
+        this.freeCount = 0;
+        this.size = 0;
+        //free leaves are handed out from the front
+        for(int leaf = capacity - 1; leaf >= 0; leaf--) {
+            freeLeaves[freeCount++] = leaf;
+        }
+        if(old!=null) {
+            for(Process process : old) {
+                if(process!=null)
+                    add(process);
+            }
+        }
+    }
+
+    /**
+     * Moves the queue forward to the given time, replaying any node whose winner has been overtaken since the last time.
+     *
+     * @param time The current time, an earlier time than the last is ignored
+     */
+    public void advance(long time) {
+        if(time<this.time)
+            return;
+        this.time = time;
+        if(failures[1]<=time)
+            replay(1);
+    }
+
+    private void replay(int node) {
+        if(node>=capacity)
+            return;
+        if(failures[2*node]<=time)
+            replay(2*node);
+        if(failures[2*node+1]<=time)
+            replay(2*node+1);
+        update(node);
+    }
+
+    /**
+     * Adds a process to the queue. The process must have arrived by the current time of the queue.
+     *
+     * @param process The process to add
+     */
+    public void add(Process process) {
+        if(freeCount==0)
+            allocate(capacity * 2);
+        int leaf = freeLeaves[--freeCount];
+        leaves[leaf] = process;
+        size++;
+        int node = leaf + capacity;
+        winners[node] = leaf;
+        failures[node] = NEVER;
+        updatePath(node);
+    }
+
+    /**
+     * Removes the process with the highest response ratio at the current time of the queue
+     *
+     * @return The removed process or null if the queue is empty
+     */
+    public Process poll() {
+        int leaf = winners[1];
+        if(leaf==NONE)
+            return null;
+
+        Process process = leaves[leaf];
+        leaves[leaf] = null;
+        freeLeaves[freeCount++] = leaf;
+        size--;
+        int node = leaf + capacity;
+        winners[node] = NONE;
+        updatePath(node);
+        return process;
+    }
+
+    /**
+     * @return The time the queue has been moved forward to
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * @return Every waiting process, in no particular order
+     */
+    public List<Process> getProcesses() {
+        List<Process> processes = new ArrayList<>(size);
+        for(Process process : leaves) {
+            if(process!=null)
+                processes.add(process);
+        }
+        return processes;
+    }
+
+    /**
+     * @return The number of processes waiting
+     */
+    public int size() {
+        return size;
+    }
+
+    private void updatePath(int node) {
+        for(node /= 2; node >= 1; node /= 2) {
+            update(node);
+        }
+    }
+
+    /**
+     * Plays the match between the two children of a node at the current time
+     */
+    private void update(int node) {
+        int left = winners[2*node];
+        int right = winners[2*node+1];
+        long failure = Math.min(failures[2*node], failures[2*node+1]);
+        if(left==NONE || right==NONE) {
+            winners[node] = left==NONE ? right : left;
+        } else {
+            int winner = beats(left, right) ? left : right;
+            int loser = winner==left ? right : left;
+            winners[node] = winner;
+            failure = Math.min(failure, overtakes(loser, winner));
+        }
+        failures[node] = failure;
+    }
+
+    /**
+     * @return Whether process a has a higher response ratio than process b at the current time, or the same ratio and a lower ID
+     */
+    private boolean beats(int a, int b) {
+        long difference = difference(leaves[a], leaves[b], time);
+        return difference > 0 || (difference==0 && leaves[a].getProcessId() < leaves[b].getProcessId());
+    }
+
+    /**
+     * Compares (t - arrival) / service of two processes without division. This is positive when a has the higher ratio.
+     */
+    private static long difference(Process a, Process b, long time) {
+        return (time - a.getArrivalTime()) * b.getServiceTime() - (time - b.getArrivalTime()) * a.getServiceTime();
+    }
+
+    /**
+     * @return The first time after now at which the loser beats the winner, or {@link #NEVER}
+     */
+    private long overtakes(int loser, int winner) {
+        Process l = leaves[loser];
+        Process w = leaves[winner];
+        //difference(l, w, t) = slope * t - offset, it only catches up if it grows
+        long slope = w.getServiceTime() - l.getServiceTime();
+        if(slope<=0)
+            return NEVER;
+        long offset = (long) l.getArrivalTime() * w.getServiceTime() - (long) w.getArrivalTime() * l.getServiceTime();
+        long overtake = l.getProcessId() < w.getProcessId()
+                ? -Math.floorDiv(-offset, slope) //first t where the difference is at least 0
+                : Math.floorDiv(offset, slope) + 1; //first t where the difference is above 0
+        return Math.max(overtake, time + 1);
+    }
+}
@@ -0,0 +1,104 @@
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * File: RingBufferDispatchTrace.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * A {@link DispatchTrace} which keeps the most recent dispatches in a fixed size ring buffer of primitives. Once the buffer is full the oldest dispatch
+ * is overwritten, so recording never allocates. The contents can be read back oldest first or written out in binary.
+ */
+public class RingBufferDispatchTrace implements DispatchTrace {
+
+    private final long[] dispatches; //time in the high 32 bits, process id in the low 32 bits
+    private final int[] cores;
+    private long total;
+
+    /**
+     * Creates a new ring buffer dispatch trace
+     *
+     * @param capacity The number of dispatches to keep
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public RingBufferDispatchTrace(int capacity) {
+        if(capacity<1)
+            throw new IllegalArgumentException("Capacity must be positive, got "+capacity);
+        this.dispatches = new long[capacity];
+        this.cores = new int[capacity];
+        this.total = 0;
+    }
+
+    @Override
+    public void dispatched(int time, int processId, int core) {
+        int index = (int) (total % dispatches.length);
+        dispatches[index] = ((long) time << 32) | (processId & 0xFFFFFFFFL);
+        cores[index] = core;
+        total++;
+    }
+
+    @Override
+    public void flush() {
+        //everything is already in memory
+    }
+
+    /**
+     * @return The number of dispatches currently held, at most the capacity
+     */
+    public int size() {
+        return (int) Math.min(total, dispatches.length);
+    }
+
+    /**
+     * @return The total number of dispatches recorded, including those that have been overwritten
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * @param i The index of the dispatch, 0 is the oldest dispatch held
+     * @return The time of the dispatch
+     */
+    public int getTime(int i) {
+        return (int) (dispatches[slot(i)] >> 32);
+    }
+
+    /**
+     * @param i The index of the dispatch, 0 is the oldest dispatch held
+     * @return The id of the process dispatched
+     */
+    public int getProcessId(int i) {
+        return (int) dispatches[slot(i)];
+    }
+
+    /**
+     * @param i The index of the dispatch, 0 is the oldest dispatch held
+     * @return The core the process was dispatched to
+     */
+    public int getCore(int i) {
+        return cores[slot(i)];
+    }
+
+    /**
+     * Writes the dispatches held, oldest first. The count is written first followed by the time, process id and core of each dispatch.
+     *
+     * @param output Where to write the dispatches
+     * @throws IOException If the output cannot be written to
+     */
+    public void writeTo(DataOutput output) throws IOException {
+        int size = size();
+        output.writeInt(size);
+        for(int i = 0; i < size; i++) {
+            output.writeInt(getTime(i));
+            output.writeInt(getProcessId(i));
+            output.writeInt(getCore(i));
+        }
+    }
+
+    private int slot(int i) {
+        if(i<0 || i>=size())
+            throw new IndexOutOfBoundsException("Index "+i+" out of bounds for size "+size());
+        return (int) ((total - size() + i) % dispatches.length);
+    }
+}
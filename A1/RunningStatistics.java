@@ -0,0 +1,174 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * File: RunningStatistics.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Keeps statistics about a stream of values as each value is added, rather than storing the values and scanning them afterwards. The mean, variance,
+ * minimum and maximum are exact, quantiles are estimated with a {@link QuantileSketch}. Statistics from separate streams can be merged.
+ */
+public class RunningStatistics {
+
+    private long count;
+    private long sum;
+    private double mean;
+    private double squaredDifferences; //sum of squared differences from the mean
+    private long min;
+    private long max;
+    private final QuantileSketch sketch;
+
+    /**
+     * Creates a new set of statistics with no values
+     */
+    public RunningStatistics() {
+        this.count = 0;
+        this.sum = 0;
+        this.mean = 0;
+        this.squaredDifferences = 0;
+        this.min = Long.MAX_VALUE;
+        this.max = Long.MIN_VALUE;
+        this.sketch = new QuantileSketch();
+    }
+
+    /**
+     * Adds a value to the statistics
+     *
+     * @param value The value to add, must not be negative
+     */
+    public void add(long value) {
+        sketch.add(value);
+        count++;
+        sum += value;
+        //Welford's method keeps the variance accurate without storing the values
+        double delta = value - mean;
+        mean += delta / count;
+        squaredDifferences += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds every value from another set of statistics to this one
+     *
+     * @param other The statistics to merge in
+     */
+    public void merge(RunningStatistics other) {
+        if(other.count==0)
+            return;
+
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        squaredDifferences += other.squaredDifferences + delta * delta * ((double) count * other.count / total);
+        mean += delta * other.count / total;
+        count = total;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        sketch.merge(other.sketch);
+    }
+
+    /**
+     * @return The number of values added
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return The sum of all values added
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * The mean is calculated from the exact sum, so it is the same as adding up every value and dividing by the count.
+     *
+     * @return The mean of the values, or NaN if there are none
+     */
+    public double getMean() {
+        return (double) sum / count;
+    }
+
+    /**
+     * @return The population variance of the values, or 0 if there are none
+     */
+    public double getVariance() {
+        return count==0 ? 0 : squaredDifferences / count;
+    }
+
+    /**
+     * @return The population standard deviation of the values, or 0 if there are none
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * @return The smallest value added, or 0 if there are none
+     */
+    public long getMin() {
+        return count==0 ? 0 : min;
+    }
+
+    /**
+     * @return The largest value added, or 0 if there are none
+     */
+    public long getMax() {
+        return count==0 ? 0 : max;
+    }
+
+    /**
+     * The sketch only knows which bucket a value is in, so its estimate is clamped to the exact minimum and maximum, and a quantile whose nearest
+     * rank is the smallest or largest value is exact. This means no percentile is ever outside the values added, and for example the 99th
+     * percentile of fewer than 100 values is the maximum.
+     *
+     * @param quantile The quantile between 0 and 1, for example 0.99 for the 99th percentile
+     * @return The estimated value at the quantile, or 0 if there are no values
+     * @throws IllegalArgumentException if the quantile is not between 0 and 1
+     */
+    public double getQuantile(double quantile) {
+        double estimate = sketch.getQuantile(quantile);
+        long rank = QuantileSketch.rankOf(quantile, count);
+        if(rank==0)
+            return getMin();
+        if(rank==count-1)
+            return getMax();
+        return Math.max(getMin(), Math.min(getMax(), estimate));
+    }
+
+    /**
+     * Writes the statistics so they can be carried on with later
+     *
+     * @param out Where to write the statistics
+     * @throws IOException Thrown if the statistics cannot be written
+     */
+    void write(DataOutput out) throws IOException {
+        out.writeLong(count);
+        out.writeLong(sum);
+        out.writeDouble(mean);
+        out.writeDouble(squaredDifferences);
+        out.writeLong(min);
+        out.writeLong(max);
+        sketch.write(out);
+    }
+
+    /**
+     * Replaces the statistics with ones written by {@link #write(DataOutput)}
+     *
+     * @param in Where to read the statistics from
+     * @throws IOException Thrown if the statistics cannot be read
+     */
+    void read(DataInput in) throws IOException {
+        count = in.readLong();
+        sum = in.readLong();
+        mean = in.readDouble();
+        squaredDifferences = in.readDouble();
+        min = in.readLong();
+        max = in.readLong();
+        sketch.read(in);
+    }
+}
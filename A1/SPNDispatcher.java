@@ -0,0 +1,82 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+
+/**
+ * File: SPNDispatcher.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Represents a dispatcher running the SPN (Shortest Process Next) algorithm. This algorithm always selects the waiting process with the least time remaining,
+ * the tie between two processes is broken using their ID. Processes wait in a heap ordered by remaining time, so each selection takes O(log n) time. The remaining
+ * time of a process does not change while it waits so the heap never needs to be reordered.
+ * It is non-preemptive and will run a process to completion.
+ */
+public class SPNDispatcher extends SingleCoreDispatcher {
+
+    private final static Comparator<Process> SHORTEST_REMAINING = Comparator.comparingInt((Process process) -> process.getRemainingTime())
+            .thenComparingInt(Process::getProcessId);
+
+    private final Queue<Process> processQueue;
+
+    /**
+     * Creates a new SPN dispatcher.
+     *
+     * @param contextSwitchTime The time taken switch processes
+     */
+    public SPNDispatcher(int contextSwitchTime) {
+        this("SPN", contextSwitchTime);
+    }
+
+    protected SPNDispatcher(String name, int contextSwitchTime) {
+        super(name, contextSwitchTime);
+        this.processQueue = new PriorityQueue<>(SHORTEST_REMAINING);
+    }
+
+    @Override
+    protected void handleArrival(Process process) {
+        processQueue.add(process);
+    }
+
+    @Override
+    protected Process selectProcess() {
+        //take the process with the least time remaining
+        return processQueue.poll();
+    }
+
+    /**
+     * @return The waiting process with the least time remaining, or null if no process is waiting
+     */
+    protected Process peekProcess() {
+        return processQueue.peek();
+    }
+
+    @Override
+    protected void readmitProcess(Process process) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected void scheduleTask(Process process) {
+        process.setStartExecuting(getTime());
+        //schedule the task until completion
+        int finishTime = getTime() + process.getRemainingTime();
+        scheduleInterrupt(process.getProcessId(),finishTime);
+    }
+
+    @Override
+    protected void writeState(DataOutput out) throws IOException {
+        super.writeState(out);
+        writeProcesses(out, processQueue);
+    }
+
+    @Override
+    protected void readState(DataInput in) throws IOException {
+        super.readState(in);
+        processQueue.clear();
+        processQueue.addAll(readProcesses(in));
+    }
+}
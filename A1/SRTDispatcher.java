@@ -0,0 +1,37 @@
+/**
+ * File: SRTDispatcher.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Represents a dispatcher running the SRT (Shortest Remaining Time) algorithm. This is the preemptive version of {@link SPNDispatcher}. When a process arrives
+ * with less time remaining than the running process, the running process is preempted and readmitted to the heap with the time it has left.
+ */
+public class SRTDispatcher extends SPNDispatcher {
+
+    /**
+     * Creates a new SRT dispatcher.
+     *
+     * @param contextSwitchTime The time taken switch processes
+     */
+    public SRTDispatcher(int contextSwitchTime) {
+        super("SRT", contextSwitchTime);
+    }
+
+    @Override
+    protected void handleArrival(Process process) {
+        super.handleArrival(process);
+        //preempt the running process if the arrival will finish sooner
+        Process runningProcess = getRunningProcess();
+        if(runningProcess!=null && process.equals(peekProcess())) {
+            int time = Math.max(getTime(), runningProcess.getLastStarted());
+            if(process.getRemainingTime() < runningProcess.getRemainingTime(time))
+                preempt();
+        }
+    }
+
+    @Override
+    protected void readmitProcess(Process process) {
+        //the process waits with the time it has left
+        super.handleArrival(process);
+    }
+}
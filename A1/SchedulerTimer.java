@@ -0,0 +1,231 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+/**
+ * File: SchedulerTimer.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Times how fast each dispatcher runs its discrete event simulation, as a rough check that changes to the scheduling engine have not slowed it down. Each dispatcher
+ * is run on synthetic workloads of increasing size, with a few untimed runs first so the JIT has compiled the engine, and repeated to show the spread.
+ *
+ * This is an ad-hoc timer for a quick look without a build. Every run happens in the same JVM without forking, so earlier algorithms and workloads change how later
+ * ones are compiled, and the number of untimed runs is not checked against when the JIT settles. The JMH benchmarks in jmh/ run the same workloads through
+ * {@link #prepare(String, String, int, String)} with forking, warmup and dead code elimination handled, and should be used to catch regressions. For each run the
+ * following is recorded
+ *   - events per second run by {@link Dispatcher#run()}
+ *   - bytes allocated per event by the running thread
+ *   - the time taken for the whole run
+ *
+ * Dispatch traces are turned off and processes are released as they finish, so only the engine itself is measured. Jobs are generated as the simulation
+ * reaches them, so the largest workloads do not need to fit in memory.
+ *
+ * The workloads are generated by a {@link SyntheticSimulationConfig}
+ *   uniform  Poisson arrivals and exponentially distributed service times
+ *   heavy    Poisson arrivals but Pareto distributed (heavy tailed) service times, most jobs are short but a few are very long
+ *   bursty   arrivals come in bursts of many jobs at once separated by quiet gaps (MMPP)
+ * or by a {@link PeriodicSimulationConfig}
+ *   periodic one periodic task for every 100 jobs with a total utilization of 0.6, run for about as long as it takes to release the jobs
+ */
+public class SchedulerTimer {
+
+    private final static long SEED = 2240;
+
+    /**
+     * Runs the timer. Options are in the form --name=value
+     *   --jobs=[sizes]        comma separated numbers of jobs, defaults to 1000,10000,100000,1000000
+     *   --workloads=[names]   comma separated workloads, defaults to uniform,heavy,bursty
+     *   --algorithms=[names]  comma separated algorithms, defaults to FCFS,RR,NRR,FB,SPN,SRT,HRRN, LOTTERY, STRIDE, CFS, EDF and RM are also
+     *                         available
+     *   --queue=[type]        the event queue, task (default) or packed
+     *   --warmup=[runs]       untimed runs before timing, defaults to 3
+     *   --iterations=[runs]   timed runs, defaults to 5
+     *
+     * @param args The options
+     */
+    public static void main(String[] args) {
+        Map<String,String> options = new HashMap<>();
+        for(String arg : args) {
+            int split = arg.indexOf('=');
+            if(!arg.startsWith("--") || split<0) {
+                System.err.println("Options must be in the form --name=value, got '"+arg+"'");
+                return;
+            }
+            options.put(arg.substring(2, split), arg.substring(split+1));
+        }
+
+        List<String> workloads = Arrays.asList(options.getOrDefault("workloads", "uniform,heavy,bursty").split(","));
+        List<String> algorithms = Arrays.asList(options.getOrDefault("algorithms", "FCFS,RR,NRR,FB,SPN,SRT,HRRN").split(","));
+        String queue = options.getOrDefault("queue", "task");
+        int[] sizes;
+        int warmup;
+        int iterations;
+        try {
+            sizes = Arrays.stream(options.getOrDefault("jobs", "1000,10000,100000,1000000").split(",")).mapToInt(Integer::parseInt).toArray();
+            warmup = Integer.parseInt(options.getOrDefault("warmup", "3"));
+            iterations = Integer.parseInt(options.getOrDefault("iterations", "5"));
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid number "+e.getMessage());
+            return;
+        }
+        if(!queue.equals("task") && !queue.equals("packed")) {
+            System.err.println("Unknown event queue '"+queue+"'");
+            return;
+        }
+
+        String tableFormat = "%-10s%-10s%-12s%-22s%-18s%-18s%n";
+        System.out.printf(tableFormat, "Algorithm", "Workload", "Jobs", "Events/s", "Bytes/Event", "Run Time (ms)");
+        for(String workload : workloads) {
+            for(int size : sizes) {
+                for(String algorithm : algorithms) {
+                    try {
+                        for(int i = 0; i < warmup; i++) {
+                            measure(algorithm, workload, size, queue);
+                        }
+                        List<Result> results = new ArrayList<>();
+                        for(int i = 0; i < iterations; i++) {
+                            results.add(measure(algorithm, workload, size, queue));
+                        }
+                        report(tableFormat, algorithm, workload, size, results);
+                    } catch (IllegalArgumentException e) {
+                        System.err.println(e.getMessage());
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The result of a single measured run
+     */
+    private static class Result {
+        private final double eventsPerSecond;
+        private final double bytesPerEvent;
+        private final double milliseconds;
+
+        private Result(double eventsPerSecond, double bytesPerEvent, double milliseconds) {
+            this.eventsPerSecond = eventsPerSecond;
+            this.bytesPerEvent = bytesPerEvent;
+            this.milliseconds = milliseconds;
+        }
+    }
+
+    private static Result measure(String algorithm, String workload, int size, String queue) {
+        LongSupplier run = prepare(algorithm, workload, size, queue);
+
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long events = Math.max(run.getAsLong(), 1);
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        return new Result(events * 1e9 / elapsed, allocated < 0 ? Double.NaN : (double) allocated / events, elapsed / 1e6);
+    }
+
+    /**
+     * Sets up a dispatcher to run a workload, without running it. The JMH benchmarks are in a package so they cannot use the classes of the engine directly,
+     * instead they find this method by reflection, and only call the returned {@link LongSupplier} while measuring.
+     *
+     * @param algorithm The algorithm to run, see {@link #main(String[])}
+     * @param workload The workload to run, uniform, heavy, bursty or periodic
+     * @param size The number of jobs
+     * @param queue The event queue, task or packed
+     * @return Runs the simulation and returns the number of events run, this can only be called once
+     * @throws IllegalArgumentException if the algorithm, workload or queue is not known
+     */
+    public static LongSupplier prepare(String algorithm, String workload, int size, String queue) {
+        Dispatcher dispatcher = createDispatcher(algorithm);
+        dispatcher.setTrace(new NoDispatchTrace());
+        dispatcher.setRetainProcesses(false);
+        if(queue.equals("packed"))
+            dispatcher.setEventQueue(new PackedEventQueue(dispatcher));
+        else if(!queue.equals("task"))
+            throw new IllegalArgumentException("Unknown event queue '"+queue+"'");
+        dispatcher.addJobs(createWorkload(workload, size).getJobs().iterator());
+        return () -> {
+            dispatcher.run();
+            return dispatcher.getEvents();
+        };
+    }
+
+    private static void report(String tableFormat, String algorithm, String workload, int size, List<Result> results) {
+        RunningStatistics eventsPerSecond = new RunningStatistics();
+        double bytesPerEvent = 0;
+        double milliseconds = 0;
+        for(Result result : results) {
+            eventsPerSecond.add(Math.round(result.eventsPerSecond));
+            bytesPerEvent += result.bytesPerEvent;
+            milliseconds += result.milliseconds;
+        }
+        bytesPerEvent /= results.size();
+        milliseconds /= results.size();
+        System.out.printf(tableFormat, algorithm, workload, size,
+                String.format("%.0f +- %.0f", eventsPerSecond.getMean(), eventsPerSecond.getStandardDeviation()),
+                String.format("%.1f", bytesPerEvent), String.format("%.2f", milliseconds));
+    }
+
+    private static Dispatcher createDispatcher(String algorithm) {
+        switch (algorithm) {
+            case "FCFS": return new FCFSDispatcher(1);
+            case "RR": return new RRDispatcher(1);
+            case "NRR": return new NRRDispatcher(1);
+            case "FB": return new FeedbackDispatcher(1);
+            case "SPN": return new SPNDispatcher(1);
+            case "SRT": return new SRTDispatcher(1);
+            case "HRRN": return new HRRNDispatcher(1);
+            case "LOTTERY": return new LotteryDispatcher(1);
+            case "STRIDE": return new StrideDispatcher(1);
+            case "CFS": return new CFSDispatcher(1);
+            case "EDF": return new EDFDispatcher(1);
+            case "RM": return new RateMonotonicDispatcher(1);
+            default: throw new IllegalArgumentException("Unknown algorithm '"+algorithm+"'");
+        }
+    }
+
+    /**
+     * @return The bytes allocated by the current thread so far, or -1 if the JVM cannot measure it
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if(threads instanceof com.sun.management.ThreadMXBean)
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        return -1;
+    }
+
+    /**
+     * Creates the jobs for a workload. The load is kept under what a single processor can handle, so the ready queues grow and shrink rather than growing
+     * forever.
+     */
+    private static SimulationConfig createWorkload(String workload, int size) {
+        switch (workload) {
+            case "uniform":
+                return new SyntheticSimulationConfig(1, size, new PoissonArrivals(0.06), new ExponentialService(10), SEED);
+            case "heavy":
+                //mean service time of 12 with a heavy tail
+                return new SyntheticSimulationConfig(1, size, new PoissonArrivals(0.05), new ParetoService(1.5, 4), SEED);
+            case "bursty":
+                //bursts arrive far faster than they can be served, then drain during the gaps
+                return new SyntheticSimulationConfig(1, size, new MMPPArrivals(0.02, 1, 2000, 100), new ExponentialService(10), SEED);
+            case "periodic":
+                //periods grow with the number of tasks, so that each WCET is long enough not to be rounded up
+                int taskCount = Math.max(1, size / 100);
+                List<PeriodicTask> tasks = PeriodicTask.generate(taskCount, 0.6, taskCount * 10, taskCount * 100, new Random(SEED));
+                //each task releases once a period, so this many releases happen each unit of time
+                double releaseRate = 0;
+                for(PeriodicTask task : tasks) {
+                    releaseRate += 1.0 / task.getPeriod();
+                }
+                int horizon = (int) Math.min(Integer.MAX_VALUE / 2, Math.ceil(size / releaseRate));
+                return new PeriodicSimulationConfig(1, tasks, horizon, SEED);
+            default:
+                throw new IllegalArgumentException("Unknown workload '"+workload+"'");
+        }
+    }
+}
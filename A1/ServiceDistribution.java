@@ -0,0 +1,45 @@
+import java.util.Random;
+
+/**
+ * File: ServiceDistribution.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Generates the service times of jobs for a {@link SyntheticSimulationConfig}. Every service time is at least 1.
+ */
+public interface ServiceDistribution {
+
+    /**
+     * @param random The source of randomness
+     * @return The service time of the next job, at least 1
+     */
+    int nextServiceTime(Random random);
+
+    /**
+     * Creates a service distribution from a description in the form name(parameters), for example exponential(10)
+     *   exponential(mean)               mostly short jobs with a few longer ones
+     *   pareto(shape, minimum)          heavy tailed, most jobs are near the minimum but a few are very long
+     *   bimodal(short, long, fraction)  a fraction of the jobs are short and the rest are long
+     *
+     * @param description The description of the distribution
+     * @return The distribution described
+     * @throws IllegalArgumentException if the description is not valid
+     */
+    static ServiceDistribution parse(String description) {
+        String name = Distributions.name(description);
+        double[] parameters = Distributions.parameters(description);
+        switch (name) {
+            case "exponential":
+                Distributions.expectParameters(description, parameters, 1);
+                return new ExponentialService(parameters[0]);
+            case "pareto":
+                Distributions.expectParameters(description, parameters, 2);
+                return new ParetoService(parameters[0], parameters[1]);
+            case "bimodal":
+                Distributions.expectParameters(description, parameters, 3);
+                return new BimodalService((int) parameters[0], (int) parameters[1], parameters[2]);
+            default:
+                throw new IllegalArgumentException("Unknown service distribution '"+name+"'");
+        }
+    }
+}
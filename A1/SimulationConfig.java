@@ -1,4 +1,5 @@
 import java.util.Collection;
+import java.util.Iterator;
 
 /**
  * File: SimulationConfig
@@ -24,4 +25,14 @@ public interface SimulationConfig {
      * @return A collection of all jobs to be run by all dispatchers.
      */
     Collection<Job> getJobs();
+
+    /**
+     * If the jobs are iterated in order of arrival time they can be handed to a dispatcher lazily with {@link Dispatcher#addJobs(Iterator)}
+     * instead of all being added up front.
+     *
+     * @return Whether {@link #getJobs()} iterates the jobs in order of arrival time
+     */
+    default boolean isArrivalOrdered() {
+        return false;
+    }
 }
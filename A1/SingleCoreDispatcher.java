@@ -1,3 +1,9 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+
 /**
  * File: SingleCoreDispatcher.java
  *
@@ -8,6 +14,7 @@
 public abstract class SingleCoreDispatcher extends Dispatcher {
 
     private Process runningProcess;
+    private int interruptTime; //when the running process is next interrupted
 
     /**
      * Creates a new single core dispatcher
@@ -35,16 +42,56 @@ public abstract class SingleCoreDispatcher extends Dispatcher {
      */
     protected abstract void handleArrival(Process process);
 
+    /**
+     * Ignores any interrupt that is no longer wanted. An interrupt is only wanted if it is the latest one scheduled for the running process,
+     * an earlier one is left behind whenever the running process is preempted with {@link #preempt()}.
+     *
+     * @param processId The id of the process that the interrupt was scheduled for
+     */
+    @Override
+    public void interrupt(int processId) {
+        if(runningProcess==null || runningProcess.getProcessId()!=processId || getTime()!=interruptTime)
+            return;
+        interrupt();
+    }
+
+    @Override
+    protected void scheduleInterrupt(int processId, int time) {
+        this.interruptTime = time;
+        super.scheduleInterrupt(processId, time);
+    }
+
+    /**
+     * Interrupts the running process as soon as possible, rather than waiting for its scheduled interrupt. If the running process is still being
+     * context switched in then it is interrupted once the switch has finished.
+     */
+    protected void preempt() {
+        if(runningProcess==null)
+            return;
+        int time = Math.max(getTime(), runningProcess.getLastStarted());
+        //already going to be interrupted by then
+        if(interruptTime<=time)
+            return;
+        scheduleInterrupt(runningProcess.getProcessId(), time);
+    }
+
     @Override
     public void interrupt() {
         //algorithm should select the process
+        long selectStart = getMetrics().startSelect();
         Process process = selectProcess();
+        getMetrics().endSelect(selectStart);
         //handle the existing process
         if(this.runningProcess!=null) {
             //perform statistics
             this.runningProcess.setFinishExecuting(getTime());
-            //handle if the process is not finished
-            if(!this.runningProcess.isFinished()) {
+            if(this.runningProcess.isFinished()) {
+                finished(this.runningProcess);
+            } else if(this.runningProcess.isBlocked()) {
+                //its CPU burst is over, it comes back once its I/O burst has ended
+                blocked(this.runningProcess);
+            } else {
+                //handle if the process is not finished
                 //if the implementation has picked the same process then don't readmit it
                 if(process==null) {
                     /**
@@ -61,8 +108,10 @@ public abstract class SingleCoreDispatcher extends Dispatcher {
 
                 //If the algorithm simply selected the same process then don't readmit it. Otherwise get the algorithm
                 //to return it back to the queue.
-                if(!process.equals(this.runningProcess))
+                if(!process.equals(this.runningProcess)) {
+                    preempted(this.runningProcess);
                     readmitProcess(this.runningProcess);
+                }
 
             }
 
@@ -74,7 +123,7 @@ public abstract class SingleCoreDispatcher extends Dispatcher {
         if(process==null) //if the CPU is now idle we don't need to do any scheduling
             return;
 
-        System.out.println("T"+getTime()+": "+process.getDisplayID());
+        dispatched(process, getTime(), DispatchTrace.SINGLE_CORE);
         //Schedule the next event for the discrete event simulation
         scheduleTask(process);
     }
@@ -105,6 +154,47 @@ public abstract class SingleCoreDispatcher extends Dispatcher {
      */
     protected abstract void scheduleTask(Process process);
 
+    /**
+     * If nothing else is waiting then a time sliced algorithm would give the process quanta after quanta without switching it out, until another
+     * process arrives. Rather than interrupting at the end of every one of those quanta, the process is interrupted at the end of the first quanta
+     * that finishes at or after the next arrival. The process is run for exactly the same time as it would have been otherwise.
+     *
+     * @param process The process being scheduled
+     * @return The time the process should be interrupted, unless it finishes first
+     */
+    protected int skipQuanta(Process process) {
+        long untilNext = (long) getNextEventTime() - getTime();
+        int timeQuanta = process.getTimeQuanta();
+        if(untilNext<=timeQuanta)
+            return getTime() + timeQuanta;
+        long quantas = (untilNext + timeQuanta - 1) / timeQuanta;
+        return (int) Math.min(Integer.MAX_VALUE, getTime() + quantas * timeQuanta);
+    }
+
+    @Override
+    protected Collection<Process> getRunningProcesses() {
+        return runningProcess==null ? Collections.emptyList() : Collections.singletonList(runningProcess);
+    }
+
+    @Override
+    protected int getRunningCount() {
+        return runningProcess==null ? 0 : 1;
+    }
+
+    @Override
+    protected void writeState(DataOutput out) throws IOException {
+        super.writeState(out);
+        writeProcess(out, runningProcess);
+        out.writeInt(interruptTime);
+    }
+
+    @Override
+    protected void readState(DataInput in) throws IOException {
+        super.readState(in);
+        runningProcess = readProcess(in);
+        interruptTime = in.readInt();
+    }
+
     /**
      * @return The process currently being executed by the dispatcher.
      */
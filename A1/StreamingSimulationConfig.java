@@ -0,0 +1,79 @@
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * File: StreamingSimulationConfig.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Creates a {@link SimulationConfig} using a file input in the same format as {@link FileSimulationConfig}. Unlike {@link FileSimulationConfig} the jobs
+ * are never all held in memory. Each time the jobs are iterated over the file is read again using a {@link JobReader}, so each dispatcher can read the
+ * jobs lazily as the simulation reaches their arrival times. The jobs in the file must be in order of arrival time.
+ */
+public class StreamingSimulationConfig implements SimulationConfig {
+
+    private final Path file;
+    private final int contextSwitchTime;
+
+    /**
+     * Creates a simulation config using the file. Only the context switch time is read up front.
+     *
+     * @param file the file to read
+     * @throws FileNotFoundException Thrown if the file does not exist
+     * @throws IOException Thrown if an error occurs when trying to read the file
+     */
+    public StreamingSimulationConfig(Path file) throws IOException {
+        if(!Files.isRegularFile(file))
+            throw new FileNotFoundException(file.toString());
+
+        this.file = file;
+        try (JobReader reader = new JobReader(file)) {
+            reader.hasNext(); //the context switch time comes before the first job
+            this.contextSwitchTime = reader.getContextSwitchTime();
+        }
+    }
+
+    @Override
+    public int getContextSwitchTime() {
+        return contextSwitchTime;
+    }
+
+    /**
+     * Each iterator over the collection reads the file again. Finding the size of the collection requires reading the whole file.
+     *
+     * @return A view of the jobs in the file
+     */
+    @Override
+    public Collection<Job> getJobs() {
+        return new AbstractCollection<Job>() {
+            @Override
+            public Iterator<Job> iterator() {
+                try {
+                    return new JobReader(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public int size() {
+                int size = 0;
+                for(Iterator<Job> jobs = iterator(); jobs.hasNext(); jobs.next()) {
+                    size++;
+                }
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public boolean isArrivalOrdered() {
+        return true;
+    }
+}
@@ -0,0 +1,149 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * File: StrideDispatcher.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Represents a dispatcher running stride scheduling, the deterministic form of lottery scheduling. Each process has a stride inversely proportional to
+ * its tickets, see {@link Job#getTickets()}, and a pass which is advanced by its stride for every time quanta it runs (in proportion, if it runs for
+ * less). At the end of every time quanta the process with the lowest pass runs next, so each process gets a share of the processor in proportion to
+ * its tickets, with far less variation than a lottery.
+ *
+ * The waiting processes are kept in a heap ordered by pass, then by process id, so picking and adding a process take O(log n) time. A process that
+ * arrives starts one stride after the pass of the last process picked, so it cannot claim the processor for the time it was not there.
+ */
+public class StrideDispatcher extends SingleCoreDispatcher {
+
+    final static int TIME_QUANTA = 4;
+    /**
+     * The stride of a process with one ticket. A process with more tickets has a stride of this divided by its tickets.
+     */
+    public final static long STRIDE1 = 1L << 20;
+
+    private final int timeQuanta;
+    private final PriorityQueue<Process> processQueue;
+    private long[] passes; //the pass of the process in each slot
+    private long globalPass;
+
+    /**
+     * Creates a stride dispatcher with a time quanta of 4
+     *
+     * @param contextSwitchTime The time taken to swap processes
+     */
+    public StrideDispatcher(int contextSwitchTime) {
+        this("STRIDE", contextSwitchTime, TIME_QUANTA);
+    }
+
+    /**
+     * Creates a stride dispatcher
+     *
+     * @param name The name of the algorithm being used
+     * @param contextSwitchTime The time taken to swap processes
+     * @param timeQuanta The time a process runs before the next process is picked
+     * @throws IllegalArgumentException if the time quanta is not positive
+     */
+    public StrideDispatcher(String name, int contextSwitchTime, int timeQuanta) {
+        super(name, contextSwitchTime);
+        if(timeQuanta<1)
+            throw new IllegalArgumentException("Time quanta must be positive, got "+timeQuanta);
+        this.timeQuanta = timeQuanta;
+        this.passes = new long[16];
+        //a process is only in the queue while its pass does not change
+        this.processQueue = new PriorityQueue<>((a, b) -> {
+            int compare = Long.compare(passes[a.getSlot()], passes[b.getSlot()]);
+            return compare!=0 ? compare : Integer.compare(a.getProcessId(), b.getProcessId());
+        });
+        this.globalPass = 0;
+    }
+
+    @Override
+    protected void handleArrival(Process process) {
+        process.setTimeQuanta(timeQuanta);
+        setPass(process, globalPass + getStride(process));
+        processQueue.add(process);
+    }
+
+    @Override
+    protected Process selectProcess() {
+        Process runningProcess = getRunningProcess();
+        if(runningProcess!=null && !runningProcess.willFinish(getTime())) {
+            //charge the running process for the time it ran, then it carries on without a context switch if it still has the lowest pass
+            long ran = getTime() - runningProcess.getLastStarted();
+            setPass(runningProcess, getPass(runningProcess) + getStride(runningProcess) * ran / timeQuanta);
+            if(processQueue.isEmpty() || processQueue.comparator().compare(runningProcess, processQueue.peek()) <= 0) {
+                globalPass = getPass(runningProcess);
+                return null;
+            }
+        }
+
+        Process process = processQueue.poll();
+        if(process!=null)
+            globalPass = getPass(process);
+        return process;
+    }
+
+    @Override
+    protected void readmitProcess(Process process) {
+        //already charged when the next process was picked
+        processQueue.add(process);
+    }
+
+    @Override
+    protected void scheduleTask(Process process) {
+        process.setStartExecuting(getTime());
+        //execute either for the time quanta or until the process has finished executing, it keeps the lowest pass while nothing is waiting
+        int finishTime = getTime() + process.getRemainingTime();
+        int quantaTime = processQueue.isEmpty() ? skipQuanta(process) : getTime() + process.getTimeQuanta();
+        scheduleInterrupt(process.getProcessId(), Math.min(finishTime, quantaTime));
+    }
+
+    private static long getStride(Process process) {
+        return STRIDE1 / process.getTickets();
+    }
+
+    private long getPass(Process process) {
+        return passes[process.getSlot()];
+    }
+
+    private void setPass(Process process, long pass) {
+        int slot = process.getSlot();
+        if(slot>=passes.length)
+            passes = Arrays.copyOf(passes, Math.max(slot + 1, passes.length * 2));
+        passes[slot] = pass;
+    }
+
+    @Override
+    protected void writeState(DataOutput out) throws IOException {
+        super.writeState(out);
+        out.writeLong(globalPass);
+        Process runningProcess = getRunningProcess();
+        out.writeLong(runningProcess==null ? 0 : getPass(runningProcess));
+        List<Process> processes = new ArrayList<>(processQueue);
+        writeProcesses(out, processes);
+        for(Process process : processes) {
+            out.writeLong(getPass(process));
+        }
+    }
+
+    @Override
+    protected void readState(DataInput in) throws IOException {
+        super.readState(in);
+        globalPass = in.readLong();
+        long runningPass = in.readLong();
+        if(getRunningProcess()!=null)
+            setPass(getRunningProcess(), runningPass);
+        processQueue.clear();
+        List<Process> processes = readProcesses(in);
+        for(Process process : processes) {
+            setPass(process, in.readLong());
+        }
+        processQueue.addAll(processes);
+    }
+}
@@ -0,0 +1,142 @@
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * File: SyntheticSimulationConfig.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Creates a {@link SimulationConfig} which generates its jobs rather than reading them from a file. Arrival times come from an {@link ArrivalProcess} and
+ * service times from a {@link ServiceDistribution}. Jobs are generated one at a time in order of arrival, so no jobs are held in memory. Every pass over
+ * the jobs starts from the same seed, so each dispatcher is given exactly the same jobs.
+ *
+ * Jobs can also be given I/O bursts, to model interactive workloads. The service time of each job is then split as evenly as possible into CPU
+ * bursts, with an I/O burst from another {@link ServiceDistribution} between each of them, see {@link Job}.
+ */
+public class SyntheticSimulationConfig implements SimulationConfig {
+
+    private final int contextSwitchTime;
+    private final int jobCount;
+    private final ArrivalProcess arrivals;
+    private final ServiceDistribution serviceTimes;
+    private final long seed;
+    private final int ioBursts;
+    private final ServiceDistribution ioTimes;
+
+    /**
+     * Creates a new synthetic simulation config
+     *
+     * @param contextSwitchTime The context switch time for all dispatchers
+     * @param jobCount The number of jobs to generate
+     * @param arrivals Generates the arrival time of each job
+     * @param serviceTimes Generates the service time of each job
+     * @param seed The seed for the random numbers, the same seed always generates the same jobs
+     * @throws IllegalArgumentException if the job count is negative
+     */
+    public SyntheticSimulationConfig(int contextSwitchTime, int jobCount, ArrivalProcess arrivals, ServiceDistribution serviceTimes, long seed) {
+        this(contextSwitchTime, jobCount, arrivals, serviceTimes, seed, 0, null);
+    }
+
+    /**
+     * Creates a new synthetic simulation config where jobs block for I/O
+     *
+     * @param contextSwitchTime The context switch time for all dispatchers
+     * @param jobCount The number of jobs to generate
+     * @param arrivals Generates the arrival time of each job
+     * @param serviceTimes Generates the total CPU time of each job
+     * @param seed The seed for the random numbers, the same seed always generates the same jobs
+     * @param ioBursts The number of I/O bursts of each job, fewer if the job does not have enough CPU time to go between them
+     * @param ioTimes Generates the length of each I/O burst, only used if there are I/O bursts
+     * @throws IllegalArgumentException if the job count or number of I/O bursts is negative
+     */
+    public SyntheticSimulationConfig(int contextSwitchTime, int jobCount, ArrivalProcess arrivals, ServiceDistribution serviceTimes, long seed,
+                                     int ioBursts, ServiceDistribution ioTimes) {
+        if(jobCount<0)
+            throw new IllegalArgumentException("Job count must not be negative, got "+jobCount);
+        if(ioBursts<0)
+            throw new IllegalArgumentException("I/O bursts must not be negative, got "+ioBursts);
+        this.contextSwitchTime = contextSwitchTime;
+        this.jobCount = jobCount;
+        this.arrivals = arrivals;
+        this.serviceTimes = serviceTimes;
+        this.seed = seed;
+        this.ioBursts = ioBursts;
+        this.ioTimes = ioTimes;
+    }
+
+    @Override
+    public int getContextSwitchTime() {
+        return contextSwitchTime;
+    }
+
+    /**
+     * @return A view of the generated jobs, each iterator generates the jobs again from the start
+     */
+    @Override
+    public Collection<Job> getJobs() {
+        return new AbstractCollection<Job>() {
+            @Override
+            public Iterator<Job> iterator() {
+                return new JobGenerator();
+            }
+
+            @Override
+            public int size() {
+                return jobCount;
+            }
+        };
+    }
+
+    @Override
+    public boolean isArrivalOrdered() {
+        return true;
+    }
+
+    /**
+     * Generates the jobs in order, the job ids count up from 1
+     */
+    private class JobGenerator implements Iterator<Job> {
+
+        private final Random random;
+        private final ArrivalProcess arrivalProcess;
+        private double time;
+        private int generated;
+
+        private JobGenerator() {
+            this.random = new Random(seed);
+            this.arrivalProcess = arrivals.copy();
+            this.time = 0;
+            this.generated = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return generated < jobCount;
+        }
+
+        @Override
+        public Job next() {
+            if(!hasNext())
+                throw new NoSuchElementException();
+            time = arrivalProcess.nextArrival(time, random);
+            int arrivalTime = (int) Math.min(time, Integer.MAX_VALUE / 2);
+            generated++;
+            int serviceTime = serviceTimes.nextServiceTime(random);
+            //every CPU burst needs at least 1 unit of time
+            int cpuBursts = Math.min(ioBursts + 1, serviceTime);
+            if(cpuBursts<=1)
+                return new Job(generated, arrivalTime, serviceTime);
+
+            int[] bursts = new int[cpuBursts * 2 - 1];
+            for(int i = 0; i < cpuBursts; i++) {
+                bursts[i * 2] = serviceTime / cpuBursts + (i < serviceTime % cpuBursts ? 1 : 0);
+                if(i > 0)
+                    bursts[i * 2 - 1] = Math.max(0, ioTimes.nextServiceTime(random));
+            }
+            return new Job(generated, arrivalTime, bursts, Job.DEFAULT_TICKETS);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+import java.util.PriorityQueue;
+
+/**
+ * File: TaskEventQueue.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * The default {@link EventQueue}. Every event is represented by a {@link Task} object which is added to a priority queue.
+ */
+public class TaskEventQueue implements EventQueue {
+
+    private final Dispatcher dispatcher;
+    private final PriorityQueue<Task> tasks;
+
+    /**
+     * Creates a new task event queue
+     *
+     * @param dispatcher The dispatcher that the events are run on
+     */
+    public TaskEventQueue(Dispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+        this.tasks = new PriorityQueue<>();
+    }
+
+    @Override
+    public void addArrival(Process process) {
+        tasks.add(new ArriveTask(dispatcher, process));
+    }
+
+    @Override
+    public void addInterrupt(int processId, int time) {
+        tasks.add(new InterruptTask(dispatcher, processId, time));
+    }
+
+    @Override
+    public void addTask(Task task) {
+        tasks.add(task);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return tasks.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return tasks.size();
+    }
+
+    @Override
+    public int nextTime() {
+        return tasks.peek().getStartTime();
+    }
+
+    @Override
+    public void runNext() {
+        tasks.poll().run();
+    }
+
+    @Override
+    public void drain(Visitor visitor) {
+        while (!tasks.isEmpty()) {
+            Task task = tasks.poll();
+            if(task instanceof ArriveTask) {
+                visitor.arrival(((ArriveTask) task).getArrival());
+            } else if(task instanceof InterruptTask) {
+                visitor.interrupt(task.getProcessId(), task.getStartTime());
+            } else {
+                throw new IllegalStateException("Cannot drain task "+task.getClass().getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * File: TeeDispatchTrace.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * A {@link DispatchTrace} which records everything to two other traces, for example printing each dispatch while also writing a {@link BinaryDispatchTrace}.
+ */
+public class TeeDispatchTrace implements DispatchTrace {
+
+    private final DispatchTrace first;
+    private final DispatchTrace second;
+
+    /**
+     * Creates a new tee dispatch trace
+     *
+     * @param first The first trace to record to
+     * @param second The second trace to record to
+     */
+    public TeeDispatchTrace(DispatchTrace first, DispatchTrace second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    @Override
+    public void dispatched(int time, int processId, int core) {
+        first.dispatched(time, processId, core);
+        second.dispatched(time, processId, core);
+    }
+
+    @Override
+    public void arrived(int time, int processId) {
+        first.arrived(time, processId);
+        second.arrived(time, processId);
+    }
+
+    @Override
+    public void blocked(int time, int processId) {
+        first.blocked(time, processId);
+        second.blocked(time, processId);
+    }
+
+    @Override
+    public void finished(int time, int processId) {
+        first.finished(time, processId);
+        second.finished(time, processId);
+    }
+
+    @Override
+    public void flush() {
+        first.flush();
+        second.flush();
+    }
+}
@@ -0,0 +1,48 @@
+import java.io.PrintStream;
+
+/**
+ * File: TextDispatchTrace.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * A {@link DispatchTrace} which writes a line for each dispatch in the format
+ *
+ * T[time]: p[id]
+ *
+ * followed by " (core [core])" for dispatchers with more than one processor. Lines are collected in a buffer and only written to the stream once the
+ * buffer is full or the trace is flushed, rather than making a write for every dispatch.
+ */
+public class TextDispatchTrace implements DispatchTrace {
+
+    private final static int BUFFER_SIZE = 1 << 13;
+
+    private final PrintStream output;
+    private final StringBuilder buffer;
+
+    /**
+     * Creates a new text dispatch trace
+     *
+     * @param output The stream to write the trace to
+     */
+    public TextDispatchTrace(PrintStream output) {
+        this.output = output;
+        this.buffer = new StringBuilder(BUFFER_SIZE + 64);
+    }
+
+    @Override
+    public void dispatched(int time, int processId, int core) {
+        buffer.append('T').append(time).append(": p").append(processId);
+        if(core!=SINGLE_CORE)
+            buffer.append(" (core ").append(core).append(')');
+        buffer.append(System.lineSeparator());
+        if(buffer.length() >= BUFFER_SIZE)
+            flush();
+    }
+
+    @Override
+    public void flush() {
+        output.append(buffer);
+        output.flush();
+        buffer.setLength(0);
+    }
+}
@@ -0,0 +1,100 @@
+import java.util.Arrays;
+
+/**
+ * File: TicketTree.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Holds the tickets of each entry in a Fenwick (binary indexed) tree, so that the tickets of an entry can be changed and the entry holding any given
+ * ticket can be found in O(log n) time. This is what makes a draw in {@link LotteryDispatcher} fast no matter how many processes are waiting.
+ *
+ * Entries are numbered from 0 and the tree grows to fit the largest entry used. Tickets are numbered from 0 in order of entry, so entry 0 holds
+ * tickets 0 to get(0) - 1, entry 1 the next get(1) tickets, and so on.
+ */
+public class TicketTree {
+
+    private final static int DEFAULT_CAPACITY = 16;
+
+    private long[] tree; //tree[i] holds the tickets of entries i - (i & -i) to i - 1
+    private long[] tickets;
+    private long total;
+
+    /**
+     * Creates a tree where every entry has no tickets
+     */
+    public TicketTree() {
+        this.tree = new long[DEFAULT_CAPACITY + 1];
+        this.tickets = new long[DEFAULT_CAPACITY];
+        this.total = 0;
+    }
+
+    /**
+     * @param entry The entry to change
+     * @param count The number of tickets the entry now holds, 0 to remove it from draws
+     * @throws IllegalArgumentException if the count is negative
+     */
+    public void set(int entry, long count) {
+        if(count<0)
+            throw new IllegalArgumentException("Tickets must not be negative, got "+count);
+        if(entry>=tickets.length)
+            grow(entry + 1);
+        long change = count - tickets[entry];
+        tickets[entry] = count;
+        total += change;
+        for(int i = entry + 1; i < tree.length; i += i & -i) {
+            tree[i] += change;
+        }
+    }
+
+    /**
+     * @param entry The entry
+     * @return The number of tickets held by the entry
+     */
+    public long get(int entry) {
+        return entry < tickets.length ? tickets[entry] : 0;
+    }
+
+    /**
+     * @return The number of tickets held by every entry
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Finds the entry holding a ticket, by walking down the tree from the largest power of two
+     *
+     * @param ticket The ticket, between 0 and {@link #getTotal()} - 1
+     * @return The entry holding the ticket
+     * @throws IllegalArgumentException if no entry holds the ticket
+     */
+    public int find(long ticket) {
+        if(ticket<0 || ticket>=total)
+            throw new IllegalArgumentException("Ticket must be between 0 and "+(total - 1)+", got "+ticket);
+        int position = 0;
+        for(int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            int next = position + step;
+            if(next < tree.length && tree[next] <= ticket) {
+                position = next;
+                ticket -= tree[next];
+            }
+        }
+        return position;
+    }
+
+    private void grow(int entries) {
+        int capacity = tickets.length;
+        while (capacity < entries) {
+            capacity *= 2;
+        }
+        tickets = Arrays.copyOf(tickets, capacity);
+        //rebuild the tree in linear time, each node passing its sum up to its parent
+        tree = new long[capacity + 1];
+        for(int i = 1; i <= capacity; i++) {
+            tree[i] += tickets[i - 1];
+            int parent = i + (i & -i);
+            if(parent <= capacity)
+                tree[parent] += tree[i];
+        }
+    }
+}
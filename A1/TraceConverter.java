@@ -0,0 +1,139 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * File: TraceConverter.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Converts a job file in the text format read by {@link FileSimulationConfig} into the binary format read by {@link BinarySimulationConfig}. The text
+ * file is read twice with a {@link JobReader}, once to count the jobs and once to write them, so the jobs are never all held in memory. The bursts
+ * of jobs with I/O and the tickets of every job are kept, so a trace gives the same results as the text file it came from.
+ */
+public class TraceConverter {
+
+    /**
+     * Converts a text job file to a binary job trace.
+     *
+     * @param args args[0] = text file name, args[1] = binary file name
+     */
+    public static void main(String[] args) {
+        if(args.length<2) {
+            System.err.println("Usage: TraceConverter [text file] [binary file]");
+            return;
+        }
+
+        try {
+            long jobs = convert(Paths.get(args[0]), Paths.get(args[1]));
+            System.out.println("Converted "+jobs+" jobs");
+        } catch (IOException e) {
+            System.err.println("Could not convert '"+args[0]+"': "+e.getMessage());
+        }
+    }
+
+    /**
+     * Converts a text job file to a binary job trace.
+     *
+     * @param textFile The file to read, in the text format
+     * @param binaryFile The file to write, this is overwritten if it exists
+     * @return The number of jobs converted
+     * @throws IOException Thrown if either file cannot be accessed or the text file is not valid
+     */
+    public static long convert(Path textFile, Path binaryFile) throws IOException {
+        //first pass, count the jobs and check the order
+        int contextSwitchTime;
+        long count = 0;
+        long burstCount = 0;
+        boolean hasTickets = false;
+        boolean arrivalOrdered = true;
+        try (JobReader reader = new JobReader(textFile)) {
+            int lastArrival = Integer.MIN_VALUE;
+            while (reader.hasNext()) {
+                Job job = reader.next();
+                arrivalOrdered &= job.getArrivalTime() >= lastArrival;
+                lastArrival = job.getArrivalTime();
+                int[] bursts = job.getBurstArray();
+                if(bursts!=null)
+                    burstCount += bursts.length;
+                hasTickets |= job.getTickets()!=Job.DEFAULT_TICKETS;
+                count++;
+            }
+            contextSwitchTime = reader.getContextSwitchTime();
+        }
+        if(count >= Integer.MAX_VALUE / Integer.BYTES)
+            throw new IOException("Too many jobs to convert "+count);
+        if(burstCount > Integer.MAX_VALUE / Integer.BYTES)
+            throw new IOException("Too many bursts to convert "+burstCount);
+        boolean hasBursts = burstCount > 0;
+
+        //second pass, write each job into the columns
+        long columnSize = Integer.BYTES * count;
+        try (FileChannel channel = FileChannel.open(binaryFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             JobReader reader = new JobReader(textFile)) {
+            ByteBuffer header = ByteBuffer.allocate(BinarySimulationConfig.HEADER_SIZE);
+            header.putInt(BinarySimulationConfig.MAGIC);
+            header.putInt(BinarySimulationConfig.VERSION);
+            header.putInt((arrivalOrdered ? BinarySimulationConfig.FLAG_ARRIVAL_ORDERED : 0) | (hasBursts ? BinarySimulationConfig.FLAG_BURSTS : 0)
+                    | (hasTickets ? BinarySimulationConfig.FLAG_TICKETS : 0));
+            header.putInt(contextSwitchTime);
+            header.putLong(count);
+            header.putLong(burstCount);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+
+            MappedByteBuffer ids = channel.map(FileChannel.MapMode.READ_WRITE, BinarySimulationConfig.HEADER_SIZE, columnSize);
+            MappedByteBuffer arrivalTimes = channel.map(FileChannel.MapMode.READ_WRITE, BinarySimulationConfig.HEADER_SIZE + columnSize, columnSize);
+            MappedByteBuffer serviceTimes = channel.map(FileChannel.MapMode.READ_WRITE, BinarySimulationConfig.HEADER_SIZE + 2 * columnSize, columnSize);
+            long position = BinarySimulationConfig.HEADER_SIZE + 3 * columnSize;
+            MappedByteBuffer tickets = null;
+            if(hasTickets) {
+                tickets = channel.map(FileChannel.MapMode.READ_WRITE, position, columnSize);
+                position += columnSize;
+            }
+            MappedByteBuffer burstStarts = null;
+            MappedByteBuffer burstValues = null;
+            if(hasBursts) {
+                burstStarts = channel.map(FileChannel.MapMode.READ_WRITE, position, columnSize + Integer.BYTES);
+                burstValues = channel.map(FileChannel.MapMode.READ_WRITE, position + columnSize + Integer.BYTES, Integer.BYTES * burstCount);
+            }
+            int burstStart = 0;
+            while (reader.hasNext()) {
+                Job job = reader.next();
+                ids.putInt(job.getId());
+                arrivalTimes.putInt(job.getArrivalTime());
+                serviceTimes.putInt(job.getServiceTime());
+                if(hasTickets)
+                    tickets.putInt(job.getTickets());
+                if(hasBursts) {
+                    burstStarts.putInt(burstStart);
+                    int[] bursts = job.getBurstArray();
+                    if(bursts!=null) {
+                        for(int burst : bursts) {
+                            burstValues.putInt(burst);
+                        }
+                        burstStart += bursts.length;
+                    }
+                }
+            }
+            ids.force();
+            arrivalTimes.force();
+            serviceTimes.force();
+            if(hasTickets)
+                tickets.force();
+            if(hasBursts) {
+                burstStarts.putInt(burstStart);
+                burstStarts.force();
+                burstValues.force();
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,109 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.function.Supplier;
+
+/**
+ * File: WorkStealingDispatcher.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Represents a {@link MultiCoreDispatcher} where every core has its own {@link ReadyQueue}. New arrivals are given to an idle core if there is one,
+ * otherwise to the core with the shortest queue. A preempted process goes back to the queue of the core it ran on. When a core runs out of work
+ * it steals a process from the core with the longest queue.
+ */
+public class WorkStealingDispatcher extends MultiCoreDispatcher {
+
+    private final ReadyQueue[] readyQueues;
+    private final int[] steals;
+
+    /**
+     * Creates a new work stealing dispatcher
+     *
+     * @param name The name of the algorithm being used
+     * @param contextSwitchTime The time to switch processes on a core
+     * @param cores The number of cores
+     * @param readyQueueFactory Creates the ready queue for each core
+     */
+    public WorkStealingDispatcher(String name, int contextSwitchTime, int cores, Supplier<ReadyQueue> readyQueueFactory) {
+        super(name, contextSwitchTime, cores);
+        this.readyQueues = new ReadyQueue[cores];
+        for(int core = 0; core < cores; core++) {
+            readyQueues[core] = readyQueueFactory.get();
+        }
+        this.steals = new int[cores];
+    }
+
+    @Override
+    protected void handleArrival(Process process) {
+        //prefer an idle core, otherwise the core with the least waiting
+        int target = 0;
+        for(int core = 0; core < readyQueues.length; core++) {
+            if(isIdle(core)) {
+                target = core;
+                break;
+            }
+            if(readyQueues[core].size() < readyQueues[target].size())
+                target = core;
+        }
+        readyQueues[target].arrive(process);
+    }
+
+    @Override
+    protected Process selectProcess(int core) {
+        Process running = getRunningProcess(core);
+        Process process = readyQueues[core].select(running, getTime());
+        //only steal if this core would otherwise go idle
+        if(process==null && (running==null || running.willFinish(getTime())))
+            process = steal(core);
+        return process;
+    }
+
+    private Process steal(int core) {
+        int victim = -1;
+        for(int other = 0; other < readyQueues.length; other++) {
+            if(other!=core && readyQueues[other].size() > 0 && (victim==-1 || readyQueues[other].size() > readyQueues[victim].size()))
+                victim = other;
+        }
+        if(victim==-1)
+            return null;
+
+        steals[core]++;
+        return readyQueues[victim].steal();
+    }
+
+    @Override
+    protected void readmitProcess(int core, Process process) {
+        readyQueues[core].readmit(process);
+    }
+
+    @Override
+    protected void writeState(DataOutput out) throws IOException {
+        super.writeState(out);
+        for(int core = 0; core < readyQueues.length; core++) {
+            out.writeInt(steals[core]);
+            writeProcesses(out, readyQueues[core].getWaiting());
+        }
+    }
+
+    @Override
+    protected void readState(DataInput in) throws IOException {
+        super.readState(in);
+        for(int core = 0; core < readyQueues.length; core++) {
+            if(readyQueues[core].size()>0)
+                throw new IOException("Ready queue already has processes waiting");
+            steals[core] = in.readInt();
+            for(Process process : readProcesses(in)) {
+                readyQueues[core].restore(process);
+            }
+        }
+    }
+
+    /**
+     * @param core The core
+     * @return The number of processes the core has stolen from other cores
+     */
+    public int getSteals(int core) {
+        return steals[core];
+    }
+}
@@ -0,0 +1,174 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * File: CompareResults.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Compares two sets of JMH results written with -rf csv, a baseline and a new run, and reports every score which has got worse by more than a threshold. Only
+ * results which do not depend on how fast the run was are compared
+ *   the primary score of each benchmark, simulations per second or the mean run time
+ *   events           the events run each second
+ *   gc.alloc.rate.norm  the bytes allocated by each simulation
+ * The percentiles of the run time are not compared, JMH gives them no error so they would fail on noise alone.
+ *
+ * A score has regressed if it is worse than the baseline by more than the threshold and by more than the errors of both scores, so noise alone does not fail
+ * the comparison. Throughputs (units of ops/) are better when higher, everything else is better when lower. The baseline should come from the same machine.
+ */
+public class CompareResults {
+
+    private final static double DEFAULT_THRESHOLD = 0.1;
+    private final static String[] COMPARED = {"events", "gc.alloc.rate.norm"};
+
+    /**
+     * Compares the results and exits with status 1 if any have regressed, or 2 if the results could not be read
+     *
+     * @param args args[0] = baseline csv, args[1] = new csv, args[2] = threshold as a fraction (optional, defaults to 0.1)
+     */
+    public static void main(String[] args) {
+        if(args.length<2) {
+            System.err.println("Usage: CompareResults [baseline csv] [new csv] [threshold]");
+            System.exit(2);
+        }
+
+        Map<String,Score> baseline;
+        Map<String,Score> current;
+        double threshold;
+        try {
+            baseline = read(args[0]);
+            current = read(args[1]);
+            threshold = args.length>2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Could not read results: "+e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        int compared = 0;
+        int regressions = 0;
+        for(Map.Entry<String,Score> entry : current.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            if(before==null)
+                continue;
+            Score after = entry.getValue();
+            compared++;
+            //how much worse the new score is, as a fraction of the baseline
+            double change = (after.value - before.value) / before.value;
+            if(after.higherIsBetter())
+                change = -change;
+            double margin = Math.abs(after.value - before.value) - before.error - after.error;
+            if(change > threshold && margin > 0) {
+                regressions++;
+                System.out.printf("REGRESSED %s: %.3f -> %.3f %s (%.1f%% worse)%n", entry.getKey(), before.value, after.value, after.unit, change * 100);
+            }
+        }
+        System.out.println(compared+" scores compared, "+regressions+" regressed by more than "+Math.round(threshold * 100)+"%");
+        if(regressions>0)
+            System.exit(1);
+    }
+
+    /**
+     * A single score from the results
+     */
+    private static class Score {
+        private final double value;
+        private final double error;
+        private final String unit;
+
+        private Score(double value, double error, String unit) {
+            this.value = value;
+            this.error = error;
+            this.unit = unit;
+        }
+
+        private boolean higherIsBetter() {
+            return unit.startsWith("ops/");
+        }
+    }
+
+    /**
+     * Reads the compared scores from JMH csv results
+     *
+     * @return The scores keyed by benchmark, mode and parameters
+     * @throws IOException Thrown if the file cannot be read
+     * @throws IllegalArgumentException if the file is not JMH csv results
+     */
+    private static Map<String,Score> read(String file) throws IOException {
+        List<String> lines = Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8);
+        if(lines.isEmpty())
+            throw new IllegalArgumentException(file+" is empty");
+        List<String> header = split(lines.get(0));
+        int benchmark = column(header, "Benchmark", file);
+        int mode = column(header, "Mode", file);
+        int score = column(header, "Score", file);
+        int error = column(header, "Score Error (99.9%)", file);
+        int unit = column(header, "Unit", file);
+
+        Map<String,Score> scores = new LinkedHashMap<>();
+        for(String line : lines.subList(1, lines.size())) {
+            if(line.trim().isEmpty())
+                continue;
+            List<String> fields = split(line);
+            if(fields.size()!=header.size())
+                throw new IllegalArgumentException("Expected "+header.size()+" fields in "+file+" but got '"+line+"'");
+            if(!isCompared(fields.get(benchmark)))
+                continue;
+            StringBuilder key = new StringBuilder(fields.get(benchmark)).append(' ').append(fields.get(mode));
+            for(int i = unit + 1; i < header.size(); i++) {
+                key.append(' ').append(header.get(i).replace("Param: ", "")).append('=').append(fields.get(i));
+            }
+            double scoreError = fields.get(error).isEmpty() ? 0 : Double.parseDouble(fields.get(error));
+            scores.put(key.toString(), new Score(Double.parseDouble(fields.get(score)), Double.isNaN(scoreError) ? 0 : scoreError, fields.get(unit)));
+        }
+        return scores;
+    }
+
+    private static boolean isCompared(String benchmark) {
+        int split = benchmark.lastIndexOf(':');
+        if(split<0)
+            return true;
+        for(String compared : COMPARED) {
+            if(benchmark.endsWith(compared))
+                return true;
+        }
+        return false;
+    }
+
+    private static int column(List<String> header, String name, String file) {
+        int index = header.indexOf(name);
+        if(index<0)
+            throw new IllegalArgumentException("No "+name+" column in "+file);
+        return index;
+    }
+
+    /**
+     * Splits a csv line on commas outside of quotes, removing the quotes
+     */
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for(int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if(c=='"') {
+                quoted = !quoted;
+            } else if(c==',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
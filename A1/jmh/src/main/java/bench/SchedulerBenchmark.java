@@ -0,0 +1,114 @@
+package bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * File: SchedulerBenchmark.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * JMH benchmarks of the discrete event simulation run by each dispatcher, on the workloads of SchedulerTimer. Each invocation runs one whole simulation with
+ * dispatch traces off and processes released as they finish, set up beforehand so only {@code Dispatcher.run()} is measured. The JIT can compile the engine
+ * quite differently from one JVM to the next, so each benchmark is run in two forks and the error of each score covers both.
+ *   events   the events run each second, as the "events" counter, along with simulations per second
+ *   runTime  the time taken by each simulation, sampled so the percentiles of the latency are reported
+ *
+ * The allocation rate is measured by the GC profiler, gc.alloc.rate.norm is the bytes allocated by each simulation. Build and run with
+ *
+ *   mvn -B package
+ *   java -jar target/benchmarks.jar -prof gc -rf csv -rff results.csv
+ *
+ * then compare against an earlier run on the same machine with {@link CompareResults}, which fails when a score has regressed.
+ *
+ * The engine is in the default package, which cannot be imported, so SchedulerTimer.prepare is found by reflection once. It returns a {@link LongSupplier}
+ * which is called directly while measuring.
+ */
+@State(Scope.Thread)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SchedulerBenchmark {
+
+    private final static MethodHandle PREPARE;
+
+    static {
+        try {
+            Class<?> timer = Class.forName("SchedulerTimer");
+            PREPARE = MethodHandles.publicLookup().findStatic(timer, "prepare",
+                    MethodType.methodType(LongSupplier.class, String.class, String.class, int.class, String.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Param({"FCFS", "RR", "NRR", "FB", "SPN", "SRT", "HRRN", "LOTTERY", "STRIDE", "CFS"})
+    public String algorithm;
+
+    @Param({"uniform", "heavy", "bursty"})
+    public String workload;
+
+    @Param({"10000"})
+    public int jobs;
+
+    @Param({"task", "packed"})
+    public String queue;
+
+    private LongSupplier simulation;
+
+    /**
+     * The events run by the simulations, reported by JMH as a rate
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class EventCounter {
+        public long events;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            events = 0;
+        }
+    }
+
+    /**
+     * A simulation can only be run once, so a new one is set up before every invocation. Setting up does not generate the jobs, they are generated as the
+     * simulation reaches them, the same as when timed by SchedulerTimer.
+     */
+    @Setup(Level.Invocation)
+    public void prepare() throws Throwable {
+        simulation = (LongSupplier) PREPARE.invoke(algorithm, workload, jobs, queue);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public long events(EventCounter counter) {
+        long events = simulation.getAsLong();
+        counter.events += events;
+        return events;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long runTime() {
+        return simulation.getAsLong();
+    }
+}
@@ -0,0 +1,32 @@
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URISyntaxException;
+import java.util.Arrays;
+
+/**
+ * File: AllTests.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Runs the main method of every test class, each class named ending in Test, for the Maven build. A test passes if its main method returns and fails if it
+ * throws, so the first failure stops the build.
+ */
+public class AllTests {
+
+    public static void main(String[] args) throws URISyntaxException, ReflectiveOperationException {
+        File directory = new File(AllTests.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        String[] tests = directory.list((dir, name) -> name.endsWith("Test.class") && !name.contains("$"));
+        if(tests==null || tests.length==0)
+            throw new IllegalStateException("No tests found in "+directory);
+        Arrays.sort(tests);
+        for(String test : tests) {
+            String name = test.substring(0, test.length() - ".class".length());
+            try {
+                Class.forName(name).getMethod("main", String[].class).invoke(null, (Object) new String[0]);
+            } catch (InvocationTargetException e) {
+                throw new AssertionError(name+" failed", e.getCause());
+            }
+        }
+        System.out.println(tests.length+" tests passed");
+    }
+}
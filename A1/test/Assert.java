@@ -0,0 +1,51 @@
+import java.util.Objects;
+
+/**
+ * File: Assert.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * The checks used by the tests in this directory. Each test is a class with a main method which throws an {@link AssertionError} if a check fails,
+ * so the tests can be run with only the JDK. They are compiled together with the program so they can use package private methods, for example
+ *
+ *   javac -d out *.java test/*.java
+ *   java -ea -cp out JobReaderTest
+ */
+public final class Assert {
+
+    private Assert() {
+    }
+
+    /**
+     * @param condition The condition which should hold
+     * @param message Describes the check if it fails
+     * @throws AssertionError if the condition is false
+     */
+    public static void assertTrue(boolean condition, String message) {
+        if(!condition)
+            throw new AssertionError(message);
+    }
+
+    /**
+     * @param expected The expected value
+     * @param actual The actual value
+     * @param message Describes the check if it fails
+     * @throws AssertionError if the values are not equal
+     */
+    public static void assertEquals(Object expected, Object actual, String message) {
+        if(!Objects.equals(expected, actual))
+            throw new AssertionError(message+", expected <"+expected+"> but was <"+actual+">");
+    }
+
+    /**
+     * @param expected The expected value
+     * @param actual The actual value
+     * @param tolerance How far apart the values can be
+     * @param message Describes the check if it fails
+     * @throws AssertionError if the values are further apart than the tolerance
+     */
+    public static void assertEquals(double expected, double actual, double tolerance, String message) {
+        if(!(Math.abs(expected - actual) <= tolerance))
+            throw new AssertionError(message+", expected <"+expected+"> but was <"+actual+">");
+    }
+}
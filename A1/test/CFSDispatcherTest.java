@@ -0,0 +1,63 @@
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * File: CFSDispatcherTest.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Compares {@link CFSDispatcher} with {@link RRDispatcher} at the usual dispatch time of 1. On a fixed generated workload CFS should do about as
+ * well as RR rather than spending most of its time switching, and a job that mostly waits on I/O should wait less beside a CPU bound job under CFS
+ * than under RR, as it is given a sleeper credit and preempts the CPU bound job when it wakes.
+ */
+public class CFSDispatcherTest {
+
+    public static void main(String[] args) {
+        SimulationConfig config = new SyntheticSimulationConfig(1, 2000, ArrivalProcess.parse("poisson(0.06)"), ServiceDistribution.parse("exponential(10)"), 2240);
+        Dispatcher rr = run(new RRDispatcher(1, RRDispatcher.TIME_QUANTA), config);
+        Dispatcher cfs = run(new CFSDispatcher(1), config);
+        Assert.assertEquals(rr.getTurnaroundTimes().getCount(), cfs.getTurnaroundTimes().getCount(), "Every job finishes");
+        Assert.assertTrue(cfs.getTurnaroundTimes().getMean() <= 1.25 * rr.getTurnaroundTimes().getMean(),
+                "CFS average turnaround "+cfs.getTurnaroundTimes().getMean()+" is close to RR "+rr.getTurnaroundTimes().getMean());
+        Assert.assertTrue(cfs.getPreemptions().getQuantile(0.99) <= rr.getPreemptions().getQuantile(0.99),
+                "CFS p99 preemptions "+cfs.getPreemptions().getQuantile(0.99)+" are no more than RR "+rr.getPreemptions().getQuantile(0.99));
+
+        int[] bursts = new int[41];
+        Arrays.fill(bursts, 10);
+        for(int i = 0; i < bursts.length; i += 2) {
+            bursts[i] = 1;
+        }
+        SimulationConfig interactive = new SimulationConfig() {
+            @Override
+            public int getContextSwitchTime() {
+                return 1;
+            }
+
+            @Override
+            public Collection<Job> getJobs() {
+                return Arrays.asList(new Job(1, 0, 1000), new Job(2, 0, bursts, Job.DEFAULT_TICKETS));
+            }
+        };
+        int rrWait = getWaitTime(run(new RRDispatcher(1, RRDispatcher.TIME_QUANTA), interactive), 2);
+        int cfsWait = getWaitTime(run(new CFSDispatcher(1), interactive), 2);
+        Assert.assertTrue(cfsWait < rrWait, "Interactive job waits "+cfsWait+" under CFS and "+rrWait+" under RR");
+        System.out.println("CFSDispatcherTest passed");
+    }
+
+    private static Dispatcher run(Dispatcher dispatcher, SimulationConfig config) {
+        dispatcher.setTrace(new NoDispatchTrace());
+        for(Job job : config.getJobs()) {
+            dispatcher.addJob(job);
+        }
+        dispatcher.run();
+        return dispatcher;
+    }
+
+    private static int getWaitTime(Dispatcher dispatcher, int processId) {
+        for(Process process : dispatcher.getProcesses()) {
+            if(process.getProcessId()==processId)
+                return process.getWaitTime();
+        }
+        throw new AssertionError("No process "+processId);
+    }
+}
@@ -0,0 +1,70 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * File: JobReaderTest.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Checks that {@link FileSimulationConfig} and {@link StreamingSimulationConfig} read the same jobs from the same file, including a file
+ * where jobs leave out fields. The jobs in the file are not in order of arrival, so a streamed run of them must fail and close the file.
+ */
+public class JobReaderTest {
+
+    private final static String MISSING_FIELDS = String.join("\n",
+            "BEGIN", "DISP: 2", "END",
+            "ID: p1", "Arrive: 4", "ExecSize: 10", "Tickets: 7", "END",
+            "ID: p2", "ExecSize: 3", "END", //no arrival time or tickets
+            "END", //no job
+            "ID: p3", "Arrive: 6", "Bursts: 2,5,1", "END", //no exec size
+            "ID: p4", "END", //only an id
+            "EOF");
+
+    public static void main(String[] args) throws IOException {
+        Path file = Files.createTempFile("jobs", ".txt");
+        try {
+            Files.write(file, MISSING_FIELDS.getBytes());
+            FileSimulationConfig loaded = new FileSimulationConfig(file.toFile());
+            StreamingSimulationConfig streamed = new StreamingSimulationConfig(file);
+
+            Assert.assertEquals(2, loaded.getContextSwitchTime(), "Context switch time");
+            Assert.assertEquals(loaded.getContextSwitchTime(), streamed.getContextSwitchTime(), "Streamed context switch time");
+            List<String> loadedJobs = describe(loaded);
+            Assert.assertEquals(loadedJobs, describe(streamed), "Streamed jobs");
+
+            //fields left out of a job are the defaults, not the fields of the job before
+            List<String> expected = new ArrayList<>();
+            expected.add("1 arrive=4 service=10 tickets=7 io=0");
+            expected.add("2 arrive=0 service=3 tickets="+Job.DEFAULT_TICKETS+" io=0");
+            expected.add("3 arrive=6 service=3 tickets="+Job.DEFAULT_TICKETS+" io=5");
+            expected.add("4 arrive=0 service=0 tickets="+Job.DEFAULT_TICKETS+" io=0");
+            Assert.assertEquals(expected, loadedJobs, "Jobs");
+
+            //the jobs are out of order, so a streamed run is aborted and has to close the file itself
+            JobReader reader = new JobReader(file);
+            Dispatcher dispatcher = new FCFSDispatcher(streamed.getContextSwitchTime());
+            dispatcher.setTrace(new NoDispatchTrace());
+            dispatcher.addJobs(reader);
+            try {
+                dispatcher.run();
+                throw new AssertionError("Jobs out of order were run");
+            } catch (IllegalStateException e) {
+                Assert.assertTrue(!reader.hasNext(), "Reader is closed when the run is aborted");
+            }
+        } finally {
+            Files.delete(file);
+        }
+        System.out.println("JobReaderTest passed");
+    }
+
+    private static List<String> describe(SimulationConfig config) {
+        List<String> jobs = new ArrayList<>();
+        for(Job job : config.getJobs()) {
+            jobs.add(job.getId()+" arrive="+job.getArrivalTime()+" service="+job.getServiceTime()+" tickets="+job.getTickets()+" io="+job.getIOTime());
+        }
+        return jobs;
+    }
+}
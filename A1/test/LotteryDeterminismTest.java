@@ -0,0 +1,84 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * File: LotteryDeterminismTest.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Checks that {@link LotteryDispatcher} gives exactly the same schedule for the same jobs and seed whether processes are retained or released as
+ * they finish (--summary), and whether the jobs are read up front or streamed. Jobs which arrive at the same time are listed in the file in
+ * reverse order of id, so the order processes are stored in differs from the order they arrive.
+ */
+public class LotteryDeterminismTest {
+
+    public static void main(String[] args) throws IOException {
+        Path file = Files.createTempFile("lottery", ".txt");
+        try {
+            Files.write(file, createJobs(2000, new Random(2240)).getBytes());
+            FileSimulationConfig loaded = new FileSimulationConfig(file.toFile());
+            StreamingSimulationConfig streamed = new StreamingSimulationConfig(file);
+
+            for(long seed = 0; seed < 3; seed++) {
+                String expected = run(loaded, false, true, seed);
+                Assert.assertEquals(expected, run(loaded, false, false, seed), "Seed "+seed+" with processes released");
+                Assert.assertEquals(expected, run(streamed, true, true, seed), "Seed "+seed+" streamed");
+                Assert.assertEquals(expected, run(streamed, true, false, seed), "Seed "+seed+" streamed with processes released");
+            }
+            Assert.assertTrue(!run(loaded, false, true, 0).equals(run(loaded, false, true, 1)), "Different seeds give different schedules");
+        } finally {
+            Files.delete(file);
+        }
+        System.out.println("LotteryDeterminismTest passed");
+    }
+
+    /**
+     * Runs lottery scheduling on the jobs
+     *
+     * @return The statistics of the run, which are the same only if every process ran at the same times
+     */
+    private static String run(SimulationConfig config, boolean stream, boolean retainProcesses, long seed) {
+        LotteryDispatcher dispatcher = new LotteryDispatcher("LOTTERY", config.getContextSwitchTime(), LotteryDispatcher.TIME_QUANTA, seed);
+        dispatcher.setTrace(new NoDispatchTrace());
+        dispatcher.setRetainProcesses(retainProcesses);
+        if(stream) {
+            dispatcher.addJobs(config.getJobs().iterator());
+        } else {
+            for(Job job : config.getJobs()) {
+                dispatcher.addJob(job);
+            }
+        }
+        dispatcher.run();
+        return dispatcher.getTurnaroundTimes().getCount()+" "+dispatcher.getTurnaroundTimes().getSum()+" "+dispatcher.getWaitingTimes().getSum()+" "
+                +dispatcher.getResponseTimes().getSum()+" "+dispatcher.getPreemptions().getSum()+" "+dispatcher.getEvents()+" "+dispatcher.getTime();
+    }
+
+    /**
+     * Creates a job file in arrival order, where jobs arriving at the same time are listed from the highest id to the lowest
+     */
+    private static String createJobs(int count, Random random) {
+        StringBuilder file = new StringBuilder("BEGIN\nDISP: 1\nEND\n");
+        List<String> sameTime = new ArrayList<>();
+        int time = 0;
+        for(int id = 1; id <= count; id++) {
+            if(random.nextInt(3)==0) {
+                flush(file, sameTime);
+                time += random.nextInt(30);
+            }
+            sameTime.add("ID: p"+id+"\nArrive: "+time+"\nExecSize: "+(1 + random.nextInt(20))+"\nTickets: "+(1 + random.nextInt(200))+"\nEND\n");
+        }
+        flush(file, sameTime);
+        return file.append("EOF\n").toString();
+    }
+
+    private static void flush(StringBuilder file, List<String> sameTime) {
+        for(int i = sameTime.size() - 1; i >= 0; i--) {
+            file.append(sameTime.get(i));
+        }
+        sameTime.clear();
+    }
+}
@@ -0,0 +1,35 @@
+import java.util.List;
+import java.util.Random;
+
+/**
+ * File: PeriodicTaskTest.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Checks that {@link PeriodicTask#generate} never goes over the utilization asked for once the WCETs are rounded to whole numbers, and that it
+ * still comes close to it.
+ */
+public class PeriodicTaskTest {
+
+    public static void main(String[] args) {
+        for(double load : new double[] {0.5, 0.7, 0.95, 1.0}) {
+            for(long seed = 0; seed < 20; seed++) {
+                List<PeriodicTask> tasks = PeriodicTask.generate(20, load, 10, 1000, new Random(seed));
+                double utilization = PeriodicTask.getUtilization(tasks);
+                Assert.assertTrue(utilization <= load + 1e-9, "Seed "+seed+" utilization "+utilization+" is at most "+load);
+                Assert.assertTrue(utilization >= load - 0.02, "Seed "+seed+" utilization "+utilization+" is close to "+load);
+            }
+        }
+
+        List<PeriodicTask> tasks = PeriodicTask.generate(2, 0.5, 10, 10, new Random(0));
+        Assert.assertEquals(0.7, PeriodicTask.getUtilization(tasks, 1), 1e-9, "Each release pays for a context switch");
+
+        try {
+            PeriodicTask.generate(100, 0.05, 10, 1000, new Random(0));
+            throw new AssertionError("Tasks were generated with a WCET of 0");
+        } catch (IllegalArgumentException e) {
+            //too many tasks for a WCET of at least 1
+        }
+        System.out.println("PeriodicTaskTest passed");
+    }
+}
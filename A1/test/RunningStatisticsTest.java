@@ -0,0 +1,43 @@
+/**
+ * File: RunningStatisticsTest.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Checks that the percentiles of {@link RunningStatistics} stay within the values added, on samples small enough that a single bucket of the
+ * {@link QuantileSketch} decides the answer.
+ */
+public class RunningStatisticsTest {
+
+    public static void main(String[] args) {
+        checkBounds(19);
+        checkBounds(2, 3, 5, 7, 17);
+        checkBounds(0, 0, 1, 80);
+        checkBounds(101, 103, 107, 109, 113, 127, 131);
+
+        //the nearest rank of the 99th percentile of 5 values is the largest
+        RunningStatistics waits = new RunningStatistics();
+        for(long wait : new long[] {0, 2, 5, 5, 17}) {
+            waits.add(wait);
+        }
+        Assert.assertEquals(17.0, waits.getQuantile(0.99), 0, "p99 of 5 waits");
+        Assert.assertEquals(5.0, waits.getQuantile(0.5), 0.05, "Median of 5 waits");
+
+        RunningStatistics empty = new RunningStatistics();
+        Assert.assertEquals(0.0, empty.getQuantile(0.5), 0, "Median of no values");
+        System.out.println("RunningStatisticsTest passed");
+    }
+
+    private static void checkBounds(long... values) {
+        RunningStatistics statistics = new RunningStatistics();
+        for(long value : values) {
+            statistics.add(value);
+        }
+        String sample = java.util.Arrays.toString(values);
+        Assert.assertEquals(statistics.getMax(), statistics.getQuantile(1), 0, "p100 of "+sample);
+        Assert.assertEquals(statistics.getMin(), statistics.getQuantile(0), 0, "p0 of "+sample);
+        for(double quantile : new double[] {0.5, 0.9, 0.99, 0.999}) {
+            double value = statistics.getQuantile(quantile);
+            Assert.assertTrue(value >= statistics.getMin() && value <= statistics.getMax(), "Quantile "+quantile+" of "+sample+" is "+value);
+        }
+    }
+}
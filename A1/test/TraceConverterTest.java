@@ -0,0 +1,62 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * File: TraceConverterTest.java
+ *
+ * Author: Jacob Boyce
+ * Course: COMP2240
+ * Checks that a binary trace made by {@link TraceConverter} holds the same jobs as the text file it came from, bursts and tickets included, so
+ * both give the same results.
+ */
+public class TraceConverterTest {
+
+    private final static String JOBS = String.join("\n",
+            "BEGIN", "DISP: 1", "END",
+            "ID: p1", "Arrive: 0", "Bursts: 3,10,3", "END",
+            "ID: p2", "Arrive: 1", "ExecSize: 5", "Tickets: 300", "END",
+            "ID: p3", "Arrive: 2", "Bursts: 1,4,2,0,6", "Tickets: 40", "END",
+            "ID: p4", "Arrive: 2", "ExecSize: 9", "END",
+            "EOF");
+
+    public static void main(String[] args) throws IOException {
+        Path textFile = Files.createTempFile("jobs", ".txt");
+        Path binaryFile = Files.createTempFile("jobs", ".bin");
+        try {
+            Files.write(textFile, JOBS.getBytes());
+            Assert.assertEquals(4L, TraceConverter.convert(textFile, binaryFile), "Jobs converted");
+            FileSimulationConfig text = new FileSimulationConfig(textFile.toFile());
+            BinarySimulationConfig binary = new BinarySimulationConfig(binaryFile);
+
+            Assert.assertEquals(describe(text), describe(binary), "Converted jobs");
+            Assert.assertEquals(run(new FCFSDispatcher(1), text), run(new FCFSDispatcher(1), binary), "FCFS results of the converted jobs");
+            Assert.assertEquals(run(new StrideDispatcher(1), text), run(new StrideDispatcher(1), binary), "Stride results of the converted jobs");
+            Assert.assertEquals(run(new CFSDispatcher(1), text), run(new CFSDispatcher(1), binary), "CFS results of the converted jobs");
+        } finally {
+            Files.delete(textFile);
+            Files.delete(binaryFile);
+        }
+        System.out.println("TraceConverterTest passed");
+    }
+
+    private static List<String> describe(SimulationConfig config) {
+        List<String> jobs = new ArrayList<>();
+        for(Job job : config.getJobs()) {
+            jobs.add(job.getId()+" arrive="+job.getArrivalTime()+" bursts="+Arrays.toString(job.getBursts())+" tickets="+job.getTickets());
+        }
+        return jobs;
+    }
+
+    private static String run(Dispatcher dispatcher, SimulationConfig config) {
+        dispatcher.setTrace(new NoDispatchTrace());
+        for(Job job : config.getJobs()) {
+            dispatcher.addJob(job);
+        }
+        dispatcher.run();
+        return dispatcher.getTurnaroundTimes().getSum()+" "+dispatcher.getWaitingTimes().getSum()+" "+dispatcher.getCpuTime()+" "+dispatcher.getMakespan();
+    }
+}
@@ -1,5 +1,10 @@
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * File: ParlorProblem.java
@@ -16,16 +21,27 @@ public abstract class ParlorProblem {
      * Runs the main driver, this will
      *   1. Create the simulation from the input file
      *   2. Add all customers to the parlor and start a thread for all customers
-     *   3. output stats to screen
+     *   3. output stats to screen, and optionally to a file other programs can read
      *
      * @param args Command line arguments
      *             0 - File name
+     *             --export=[file] (optional, anywhere in the args) - also write the stats to a CSV file, or JSON lines if the file ends in .jsonl
      */
     public void run(String[] args) {
+        //pull out the export option so the file name is always first
+        Path export = null;
+        List<String> arguments = new ArrayList<>();
+        for(String arg : args) {
+            if(arg.startsWith("--export=")) {
+                export = Paths.get(arg.substring("--export=".length()));
+            } else {
+                arguments.add(arg);
+            }
+        }
         //create ice-cream parlor
         IceCreamParlor parlor = getParlor();
         //get input
-        ParlorInputConfig config = getConfig(parlor, args);
+        ParlorInputConfig config = getConfig(parlor, arguments.toArray(new String[0]));
         if(config==null)
             return;
 
@@ -39,6 +55,8 @@ public abstract class ParlorProblem {
         //run the parlor simulation
         parlor.start();
         output(parlor);
+        if(export!=null)
+            export(parlor, export);
     }
 
     /**
@@ -58,6 +76,23 @@ public abstract class ParlorProblem {
         }
     }
 
+    /**
+     * Writes the same stats as {@link #output(IceCreamParlor)} to a file, one row for each customer with the columns
+     * customer, arrives, seats, leaves
+     *
+     * @param parlor The ice-cream parlor to output stats with
+     * @param file The file to write, see {@link ResultWriter.Format#of(Path)}
+     */
+    private void export(IceCreamParlor parlor, Path file) {
+        try (ResultWriter results = ResultWriter.open(file, "customer", "arrives", "seats", "leaves")) {
+            for(Customer customer : parlor.getCustomers()) {
+                results.field(customer.getName()).field(customer.getArrivalTime()).field(customer.getSeatTime()).field(customer.getLeaveTime()).endRow();
+            }
+        } catch (IOException e) {
+            System.err.println("Could not export results to '"+file+"': "+e.getMessage());
+        }
+    }
+
     /**
      * Get an ice-cream parlor object for the problem. This will depend on the synchronization
      * technique being used. For example if the problem is using monitors this should
@@ -1,3 +1,6 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -16,12 +19,29 @@ import java.util.List;
  */
 public class A3 {
 
+    /**
+     * Runs both simulations and outputs their stats
+     *
+     * @param args The arguments read by {@link CLIInputConfig}, and optionally --export=[file] anywhere in the args to also write the
+     *             stats to a CSV file, or JSON lines if the file ends in .jsonl
+     */
     public static void main(String[] args) {
+        //pull out the export option so the remaining args are just the input
+        Path export = null;
+        List<String> arguments = new ArrayList<>();
+        for(String arg : args) {
+            if(arg.startsWith("--export=")) {
+                export = Paths.get(arg.substring("--export=".length()));
+            } else {
+                arguments.add(arg);
+            }
+        }
+
         //read input from the command line interface
         ///*
         InputConfig config = null;
         try {
-            config = new CLIInputConfig(args);
+            config = new CLIInputConfig(arguments.toArray(new String[0]));
         } catch (InvalidConfigException e) {
             //terminate if error occurs
             System.err.println(e.getMessage());
@@ -46,6 +66,8 @@ public class A3 {
 
         //produce output
         output(simulations);
+        if(export!=null)
+            export(simulations, export);
     }
 
     /**
@@ -72,6 +94,27 @@ public class A3 {
         }
     }
 
+    /**
+     * Writes the same stats as {@link #output(List)} to a file, one row for each process of each simulation with the columns
+     * simulation, pid, name, turnaround, faults, fault_times
+     *
+     * @param simulations Simulations to produce output. All simulations must be run using {@link OSSimulation#run()}
+     * @param file The file to write, see {@link ResultWriter.Format#of(Path)}
+     */
+    private static void export(List<OSSimulation> simulations, Path file) {
+        try (ResultWriter results = ResultWriter.open(file, "simulation", "pid", "name", "turnaround", "faults", "fault_times")) {
+            for(OSSimulation simulation : simulations) {
+                for(Process process : simulation.getProcesses()) {
+                    Collection<Integer> faults = process.getFaults();
+                    results.field(simulation.getName()).field(process.getId()).field(process.getName()).field(process.getTurnaroundTime())
+                            .field(faults.size()).field(faults).endRow();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Could not export results to '"+file+"': "+e.getMessage());
+        }
+    }
+
     /**
      * Converts an integer collection to a string in the following format
      *
@@ -0,0 +1,332 @@
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * File: ResultWriter.java
+ *
+ * Author: Jacob Boyce
+ * Student Number: c3264527
+ * Course: COMP2240
+ *
+ * Writes results as rows of a table in a format other programs can read, either CSV with a header row or JSON lines with one object for each row.
+ * Every row has the same columns, given when the writer is created. Each row is written field by field straight to a buffered stream, so any number
+ * of rows can be written without holding them in memory, and numbers are written without being boxed.
+ *
+ *   ResultWriter results = ResultWriter.open(file, "process", "turnaround");
+ *   results.field("p1").field(10).endRow();
+ */
+public class ResultWriter implements Closeable, Flushable {
+
+    private final static int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The formats results can be written in
+     */
+    public enum Format {
+        /**
+         * Comma separated values, with a header row of the column names
+         */
+        CSV("csv"),
+        /**
+         * A JSON object on each line, with a key for each column
+         */
+        JSON_LINES("jsonl");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        /**
+         * @return The file extension of the format, without the dot
+         */
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * @param name The name of the format, csv or jsonl (json is also accepted)
+         * @return The format
+         * @throws IllegalArgumentException if the name is not a known format
+         */
+        public static Format parse(String name) {
+            switch (name.toLowerCase(Locale.ROOT)) {
+                case "csv": return CSV;
+                case "json":
+                case "jsonl": return JSON_LINES;
+                default: throw new IllegalArgumentException("Unknown export format '"+name+"', must be csv or jsonl");
+            }
+        }
+
+        /**
+         * @param file The file being written
+         * @return The format matching the extension of the file, CSV if it does not have a known extension
+         */
+        public static Format of(Path file) {
+            String name = file.getFileName().toString();
+            int dot = name.lastIndexOf('.');
+            try {
+                return dot<0 ? CSV : parse(name.substring(dot + 1));
+            } catch (IllegalArgumentException e) {
+                return CSV;
+            }
+        }
+    }
+
+    private final Writer out;
+    private final Format format;
+    private final String[] columns;
+    private int column; //the column of the next field in the current row
+    private final char[] digits; //reused to write numbers without creating a string
+
+    /**
+     * Creates a new result writer, for CSV the header row is written straight away
+     *
+     * @param out Where to write the results, this should be buffered
+     * @param format The format to write
+     * @param columns The name of each column, in order
+     * @throws IOException Thrown if the header cannot be written
+     */
+    public ResultWriter(Writer out, Format format, String... columns) throws IOException {
+        this.out = out;
+        this.format = format;
+        this.columns = columns.clone();
+        this.column = 0;
+        this.digits = new char[20];
+        if(format==Format.CSV) {
+            for(int i = 0; i < columns.length; i++) {
+                if(i>0)
+                    out.write(',');
+                writeCsvString(columns[i]);
+            }
+            out.write('\n');
+        }
+    }
+
+    /**
+     * Creates a result writer to a file in the format matching its extension, see {@link Format#of(Path)}
+     *
+     * @param file The file to write, this is overwritten if it exists
+     * @param columns The name of each column, in order
+     * @return The result writer
+     * @throws IOException Thrown if the file cannot be created
+     */
+    public static ResultWriter open(Path file, String... columns) throws IOException {
+        return open(file, Format.of(file), columns);
+    }
+
+    /**
+     * Creates a result writer to a file
+     *
+     * @param file The file to write, this is overwritten if it exists
+     * @param format The format to write
+     * @param columns The name of each column, in order
+     * @return The result writer
+     * @throws IOException Thrown if the file cannot be created
+     */
+    public static ResultWriter open(Path file, Format format, String... columns) throws IOException {
+        Writer out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE);
+        try {
+            return new ResultWriter(out, format, columns);
+        } catch (IOException e) {
+            out.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the next field of the current row as a number
+     *
+     * @param value The value of the field
+     * @return This writer, to write the next field
+     * @throws IOException Thrown if the field cannot be written
+     * @throws IllegalStateException if every column of the row has already been written
+     */
+    public ResultWriter field(long value) throws IOException {
+        startField();
+        writeLong(value);
+        return this;
+    }
+
+    /**
+     * Writes the next field of the current row as a number. NaN and infinite values are written as an empty field, or null in JSON.
+     *
+     * @param value The value of the field
+     * @return This writer, to write the next field
+     * @throws IOException Thrown if the field cannot be written
+     * @throws IllegalStateException if every column of the row has already been written
+     */
+    public ResultWriter field(double value) throws IOException {
+        if(Double.isNaN(value) || Double.isInfinite(value))
+            return empty();
+        startField();
+        out.write(Double.toString(value));
+        return this;
+    }
+
+    /**
+     * Writes the next field of the current row as a string, quoted if needed
+     *
+     * @param value The value of the field, or null for an empty field
+     * @return This writer, to write the next field
+     * @throws IOException Thrown if the field cannot be written
+     * @throws IllegalStateException if every column of the row has already been written
+     */
+    public ResultWriter field(String value) throws IOException {
+        if(value==null)
+            return empty();
+        startField();
+        if(format==Format.CSV) {
+            writeCsvString(value);
+        } else {
+            writeJsonString(value);
+        }
+        return this;
+    }
+
+    /**
+     * Writes the next field of the current row as a list of numbers. In CSV the numbers are separated by spaces, in JSON they are an array.
+     *
+     * @param values The values of the field
+     * @return This writer, to write the next field
+     * @throws IOException Thrown if the field cannot be written
+     * @throws IllegalStateException if every column of the row has already been written
+     */
+    public ResultWriter field(Iterable<? extends Number> values) throws IOException {
+        startField();
+        out.write(format==Format.CSV ? "" : "[");
+        boolean first = true;
+        for(Number value : values) {
+            if(!first)
+                out.write(format==Format.CSV ? ' ' : ',');
+            out.write(value.toString());
+            first = false;
+        }
+        out.write(format==Format.CSV ? "" : "]");
+        return this;
+    }
+
+    /**
+     * Writes the next field of the current row with no value, an empty field in CSV or null in JSON
+     *
+     * @return This writer, to write the next field
+     * @throws IOException Thrown if the field cannot be written
+     * @throws IllegalStateException if every column of the row has already been written
+     */
+    public ResultWriter empty() throws IOException {
+        startField();
+        if(format==Format.JSON_LINES)
+            out.write("null");
+        return this;
+    }
+
+    /**
+     * Finishes the current row, the next field starts a new row
+     *
+     * @throws IOException Thrown if the row cannot be written
+     * @throws IllegalStateException if not every column of the row has been written
+     */
+    public void endRow() throws IOException {
+        if(column!=columns.length)
+            throw new IllegalStateException("Row has "+column+" fields, expected "+columns.length);
+        out.write(format==Format.CSV ? "\n" : "}\n");
+        column = 0;
+    }
+
+    private void startField() throws IOException {
+        if(column==columns.length)
+            throw new IllegalStateException("Row already has all "+columns.length+" fields");
+        if(format==Format.CSV) {
+            if(column>0)
+                out.write(',');
+        } else {
+            out.write(column==0 ? "{" : ",");
+            writeJsonString(columns[column]);
+            out.write(':');
+        }
+        column++;
+    }
+
+    private void writeLong(long value) throws IOException {
+        if(value==Long.MIN_VALUE) {
+            out.write(Long.toString(value));
+            return;
+        }
+        if(value<0) {
+            out.write('-');
+            value = -value;
+        }
+        int start = digits.length;
+        do {
+            digits[--start] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value!=0);
+        out.write(digits, start, digits.length - start);
+    }
+
+    private void writeCsvString(String value) throws IOException {
+        boolean quote = false;
+        for(int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c==',' || c=='"' || c=='\n' || c=='\r';
+        }
+        if(!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    private void writeJsonString(String value) throws IOException {
+        out.write('"');
+        for(int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.write("\\\""); break;
+                case '\\': out.write("\\\\"); break;
+                case '\n': out.write("\\n"); break;
+                case '\r': out.write("\\r"); break;
+                case '\t': out.write("\\t"); break;
+                default:
+                    if(c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Closes the stream the results are written to
+     *
+     * @throws IOException Thrown if the stream cannot be closed
+     * @throws IllegalStateException if a row has been started but not finished
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if(column!=0)
+                throw new IllegalStateException("Row has "+column+" fields, expected "+columns.length);
+        } finally {
+            out.close();
+        }
+    }
+}